@@ -0,0 +1,19 @@
+-- Fills purchase_orders.received_at for orders received before the column existed.
+--
+-- RECEIVED is terminal, so for those orders updated_at is the receipt time unless the order
+-- was edited afterwards. Start the new version once so ddl-auto adds the column, then run:
+--
+--   psql -v ON_ERROR_STOP=1 -d ims -f db/backfill-purchase-order-received-at.sql
+--
+-- Rows that already have a receipt time are left alone, so the script can be re-run.
+
+BEGIN;
+
+UPDATE purchase_orders
+SET received_at = updated_at
+WHERE status = 'RECEIVED' AND received_at IS NULL;
+
+-- Rebuild the rollup from scratch on the next run so receipts land on their receipt day
+DELETE FROM rollup_watermarks WHERE job_name = 'daily_stock_movements';
+
+COMMIT;
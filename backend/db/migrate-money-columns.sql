@@ -0,0 +1,47 @@
+-- Converts the floating-point money columns of an existing PostgreSQL database to NUMERIC(19, 2).
+--
+-- Amounts are rounded to cents on the way, which is what the application does with every
+-- amount it reads from now on. Run it once, with the application stopped, before starting
+-- the version that keeps money in minor units:
+--
+--   psql -v ON_ERROR_STOP=1 -d ims -f db/migrate-money-columns.sql
+--
+-- Every listed table is rewritten, so allow for a table-sized lock per table. Columns already
+-- of type numeric are skipped, so the script can be re-run.
+
+BEGIN;
+
+CREATE TEMP TABLE money_columns (table_name TEXT, column_name TEXT) ON COMMIT DROP;
+INSERT INTO money_columns VALUES
+    ('products', 'unit_price'),
+    ('products', 'cost_price'),
+    ('purchase_order_items', 'unit_price'),
+    ('sales_order_items', 'unit_price'),
+    ('stock_lots', 'unit_cost'),
+    ('daily_stock_movements', 'sales_amount'),
+    ('daily_stock_movements', 'purchase_amount');
+
+-- Only columns that exist and are not converted yet
+DELETE FROM money_columns m
+WHERE NOT EXISTS (
+    SELECT 1 FROM information_schema.columns c
+    WHERE c.table_schema = current_schema()
+      AND c.table_name = m.table_name
+      AND c.column_name = m.column_name
+      AND c.data_type <> 'numeric');
+
+DO $$
+DECLARE
+    col RECORD;
+BEGIN
+    FOR col IN SELECT * FROM money_columns ORDER BY table_name, column_name LOOP
+        RAISE NOTICE 'Converting %.% to numeric(19, 2)', col.table_name, col.column_name;
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I TYPE numeric(19, 2) USING round(%I::numeric, 2)',
+            col.table_name, col.column_name, col.column_name);
+    END LOOP;
+END $$;
+
+COMMIT;
+
+-- Fresh statistics for the rewritten tables
+ANALYZE;
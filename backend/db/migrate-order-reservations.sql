@@ -0,0 +1,19 @@
+-- Lets stock held for confirmed orders stop expiring on an existing PostgreSQL database.
+--
+-- ddl-auto=update does not drop NOT NULL constraints, so expires_at is relaxed here, and
+-- active reservations that belong to an order lose their expiry: they are closed when the
+-- order ships, is cancelled or is deleted. Run it once, with the application stopped:
+--
+--   psql -v ON_ERROR_STOP=1 -d ims -f db/migrate-order-reservations.sql
+--
+-- Both statements are idempotent, so the script can be re-run.
+
+BEGIN;
+
+ALTER TABLE stock_reservations ALTER COLUMN expires_at DROP NOT NULL;
+
+UPDATE stock_reservations
+SET expires_at = NULL
+WHERE status = 'ACTIVE' AND sales_order_id IS NOT NULL AND expires_at IS NOT NULL;
+
+COMMIT;
@@ -0,0 +1,106 @@
+-- Converts the VARCHAR id columns of an existing PostgreSQL database to native uuid.
+--
+-- Ids written by the old uuid2 generator are valid UUID strings, so every value casts as is;
+-- the script stops without changing anything if one does not. Run it once, with the
+-- application stopped, before starting the version that maps ids to uuid columns:
+--
+--   psql -v ON_ERROR_STOP=1 -d ims -f db/migrate-uuid-columns.sql
+--
+-- Foreign keys between the converted columns are dropped and re-created around the change,
+-- and every table is rewritten, so allow for a table-sized lock per table. Columns already
+-- of type uuid are skipped, so the script can be re-run.
+
+BEGIN;
+
+CREATE TEMP TABLE uuid_columns (table_name TEXT, column_name TEXT) ON COMMIT DROP;
+INSERT INTO uuid_columns VALUES
+    ('users', 'user_id'),
+    ('warehouses', 'warehouse_id'),
+    ('categories', 'category_id'),
+    ('products', 'product_id'),
+    ('products', 'category_id'),
+    ('product_specifications', 'product_id'),
+    ('inventory', 'inventory_id'),
+    ('inventory', 'product_id'),
+    ('inventory', 'warehouse_id'),
+    ('alerts', 'alert_id'),
+    ('alerts', 'product_id'),
+    ('alerts', 'warehouse_id'),
+    ('alert_history', 'alert_id'),
+    ('alert_history', 'product_id'),
+    ('alert_history', 'warehouse_id'),
+    ('archived_alert_counts', 'id'),
+    ('archived_alert_counts', 'product_id'),
+    ('archived_alert_counts', 'warehouse_id'),
+    ('purchase_orders', 'po_id'),
+    ('purchase_orders', 'warehouse_id'),
+    ('purchase_order_items', 'id'),
+    ('purchase_order_items', 'product_id'),
+    ('purchase_order_items', 'purchase_order_id'),
+    ('sales_orders', 'order_id'),
+    ('sales_orders', 'warehouse_id'),
+    ('sales_orders', 'allocation_group_id'),
+    ('sales_order_items', 'id'),
+    ('sales_order_items', 'product_id'),
+    ('sales_order_items', 'sales_order_id'),
+    ('stock_lots', 'lot_id'),
+    ('stock_lots', 'product_id'),
+    ('stock_lots', 'warehouse_id'),
+    ('stock_lots', 'purchase_order_id'),
+    ('stock_reservations', 'reservation_id'),
+    ('stock_reservations', 'inventory_id'),
+    ('stock_reservations', 'sales_order_id'),
+    ('daily_stock_movements', 'id'),
+    ('daily_stock_movements', 'product_id'),
+    ('daily_stock_movements', 'warehouse_id'),
+    ('reorder_plans', 'plan_id'),
+    ('reorder_plans', 'product_id'),
+    ('reorder_plans', 'warehouse_id'),
+    ('product_import_jobs', 'job_id'),
+    ('product_import_jobs', 'default_warehouse_id'),
+    ('product_import_errors', 'error_id'),
+    ('product_import_errors', 'job_id');
+
+-- Only columns that exist and are not converted yet
+DELETE FROM uuid_columns u
+WHERE NOT EXISTS (
+    SELECT 1 FROM information_schema.columns c
+    WHERE c.table_schema = current_schema()
+      AND c.table_name = u.table_name
+      AND c.column_name = u.column_name
+      AND c.data_type <> 'uuid');
+
+-- Foreign keys on either side of a converted column; partitions inherit theirs from alert_history
+CREATE TEMP TABLE uuid_foreign_keys ON COMMIT DROP AS
+SELECT DISTINCT con.conrelid::regclass::text AS table_name, con.conname AS constraint_name,
+       pg_get_constraintdef(con.oid) AS definition
+FROM pg_constraint con
+WHERE con.contype = 'f'
+  AND con.conparentid = 0
+  AND (con.conrelid::regclass::text IN (SELECT table_name FROM uuid_columns)
+       OR con.confrelid::regclass::text IN (SELECT table_name FROM uuid_columns));
+
+DO $$
+DECLARE
+    fk RECORD;
+    col RECORD;
+BEGIN
+    FOR fk IN SELECT * FROM uuid_foreign_keys LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.table_name, fk.constraint_name);
+    END LOOP;
+
+    FOR col IN SELECT * FROM uuid_columns ORDER BY table_name, column_name LOOP
+        RAISE NOTICE 'Converting %.% to uuid', col.table_name, col.column_name;
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I TYPE uuid USING %I::uuid',
+            col.table_name, col.column_name, col.column_name);
+    END LOOP;
+
+    FOR fk IN SELECT * FROM uuid_foreign_keys LOOP
+        EXECUTE format('ALTER TABLE %s ADD CONSTRAINT %I %s', fk.table_name, fk.constraint_name, fk.definition);
+    END LOOP;
+END $$;
+
+COMMIT;
+
+-- Fresh statistics for the rewritten tables and indexes
+ANALYZE;
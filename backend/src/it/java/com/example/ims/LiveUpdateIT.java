@@ -0,0 +1,234 @@
+package com.example.ims;
+
+import com.example.ims.model.Category;
+import com.example.ims.model.Inventory;
+import com.example.ims.model.Product;
+import com.example.ims.model.Warehouse;
+import com.example.ims.repository.CategoryRepository;
+import com.example.ims.repository.WarehouseRepository;
+import com.example.ims.security.JwtTokenProvider;
+import com.example.ims.service.InventoryService;
+import com.example.ims.service.LiveUpdateService;
+import com.example.ims.service.ProductService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reads /live/stream over a real HTTP connection. The scheduled push is effectively
+ * disabled and triggered by hand, so each test controls exactly what one interval holds.
+ * Each test waits until its stream is registered, and every stream is read until the class
+ * is done: closing one mid-class would leave the server writing to a dead connection while
+ * the next test opens its stream, so the outcome would depend on timing and test order.
+ *
+ * Run with: mvn -Pit verify -Dit.test=LiveUpdateIT
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:live_update;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "app.admin.password=live",
+    "app.jwt.secret=liveUpdateSecretKeyThatIsLongEnoughForHmacSha512SignaturesInIntegrationTests0123456789",
+    "app.rollup.interval-ms=86400000",
+    "app.reorder.cron=-",
+    "app.sql-budget.enabled=false",
+    "app.live.interval-ms=86400000",
+    "app.live.heartbeat-ms=86400000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LiveUpdateIT {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private String adminToken;
+    private String primaryWarehouseId;
+    private String primaryInventoryId;
+    private String secondaryInventoryId;
+    private final List<Stream<String>> openStreams = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        List<Warehouse> warehouses = warehouseRepository.findAll();
+        Category category = categoryRepository.findAll().get(0);
+        primaryWarehouseId = warehouses.get(0).getWarehouseId();
+        String secondaryWarehouseId = warehouses.get(1).getWarehouseId();
+
+        Product product = new Product();
+        product.setName("Live Product");
+        product.setSku("LIVE-1");
+        product.setCategory(category);
+        product.setUnitPriceMinor(2000L);
+        product.setCostPriceMinor(1200L);
+        product.setMinimumStockThreshold(10);
+        product.setWarehouseId(primaryWarehouseId);
+        product.setInitialStock(100);
+        product = productService.createProduct(product);
+
+        Inventory primary = inventoryService.getInventoryByProductAndWarehouse(product.getProductId(), primaryWarehouseId);
+        Inventory secondary = inventoryService.createInventory(product.getProductId(), secondaryWarehouseId, 100);
+        primaryInventoryId = primary.getInventoryId();
+        secondaryInventoryId = secondary.getInventoryId();
+
+        adminToken = (String) tokenProvider.generateTokenWithInfo("admin").get("token");
+    }
+
+    @AfterAll
+    void closeStreams() {
+        openStreams.forEach(Stream::close);
+    }
+
+    @Test
+    void coalescesBurstIntoOneUpdate() throws Exception {
+        BlockingQueue<String> updates = subscribe("?topic=stock&warehouseId=" + primaryWarehouseId);
+
+        for (int i = 1; i <= 20; i++) {
+            inventoryService.updateStock(primaryInventoryId, 200 + i, 0, 0);
+        }
+        liveUpdateService.pushPending();
+
+        JsonNode changes = objectMapper.readTree(updates.poll(5, TimeUnit.SECONDS));
+        assertEquals(1, changes.size());
+        assertEquals(primaryInventoryId, changes.get(0).get("key").asText());
+        assertEquals(220, changes.get(0).get("data").get("quantityAvailable").asInt());
+
+        liveUpdateService.pushPending();
+        assertNull(updates.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void filtersByWarehouseAndTopic() throws Exception {
+        BlockingQueue<String> updates = subscribe("?topic=stock&warehouseId=" + primaryWarehouseId);
+
+        // Another warehouse's stock, and alerts raised in this warehouse, are not subscribed to
+        inventoryService.updateStock(secondaryInventoryId, 5, 0, 0);
+        inventoryService.updateStock(primaryInventoryId, 3, 0, 0);
+        liveUpdateService.pushPending();
+
+        JsonNode changes = objectMapper.readTree(updates.poll(5, TimeUnit.SECONDS));
+        assertEquals(1, changes.size());
+        assertEquals("stock", changes.get(0).get("topic").asText());
+        assertEquals(primaryInventoryId, changes.get(0).get("key").asText());
+    }
+
+    @Test
+    void skipsRolledBackChanges() throws Exception {
+        BlockingQueue<String> updates = subscribe("?topic=stock");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryService.updateStock(secondaryInventoryId, 999, 0, 0);
+            status.setRollbackOnly();
+        });
+        inventoryService.updateStock(primaryInventoryId, 77, 0, 0);
+        liveUpdateService.pushPending();
+
+        JsonNode changes = objectMapper.readTree(updates.poll(5, TimeUnit.SECONDS));
+        assertEquals(1, changes.size());
+        assertEquals(77, changes.get(0).get("data").get("quantityAvailable").asInt());
+    }
+
+    @Test
+    void rejectsUnknownTopic() throws Exception {
+        HttpResponse<String> response = httpClient.send(streamRequest("?topic=orders"), HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+        assertTrue(response.body().contains("event:error"));
+    }
+
+    /**
+     * Open a stream and wait for its "connected" comment, which the server sends only after
+     * registering the subscriber; returns the data of each "update" event, read on a thread of its own
+     */
+    private BlockingQueue<String> subscribe(String query) throws Exception {
+        HttpResponse<Stream<String>> response = httpClient.send(streamRequest(query), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode(), "stream did not open");
+        openStreams.add(response.body());
+
+        BlockingQueue<String> connected = new LinkedBlockingQueue<>();
+        BlockingQueue<String> updates = new LinkedBlockingQueue<>();
+        Stream<String> lines = response.body();
+        Thread reader = new Thread(() -> {
+            String[] event = {null};
+            try {
+                lines.forEach(line -> {
+                    if (line.startsWith(":")) {
+                        connected.add(line);
+                    } else if (line.startsWith("event:")) {
+                        event[0] = line.substring("event:".length());
+                    } else if (line.startsWith("data:") && "update".equals(event[0])) {
+                        updates.add(line.substring("data:".length()));
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Closed by closeStreams
+            }
+        }, "live-update-it-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        assertNotNull(connected.poll(30, TimeUnit.SECONDS), "stream did not send its connected comment");
+        return updates;
+    }
+
+    private HttpRequest streamRequest(String query) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/live/stream" + query))
+            .header("Authorization", "Bearer " + adminToken)
+            .header("Accept", "text/event-stream")
+            .timeout(Duration.ofSeconds(30))
+            .build();
+    }
+}
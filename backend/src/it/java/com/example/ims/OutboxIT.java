@@ -0,0 +1,225 @@
+package com.example.ims;
+
+import com.example.ims.config.OutboxRelay;
+import com.example.ims.config.QueueOutboxSink;
+import com.example.ims.model.Category;
+import com.example.ims.model.Inventory;
+import com.example.ims.model.Product;
+import com.example.ims.model.Warehouse;
+import com.example.ims.repository.CategoryRepository;
+import com.example.ims.repository.WarehouseRepository;
+import com.example.ims.service.InventoryService;
+import com.example.ims.service.ProductService;
+import com.example.ims.service.SalesOrderService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that outbox rows share the writing transaction and that the relay delivers
+ * them at least once, in id order, through the in-process queue sink. The schedules are
+ * effectively disabled and the relay is driven by hand.
+ *
+ * Run with: mvn -Pit verify -Dit.test=OutboxIT
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:outbox;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "app.admin.password=outbox",
+    "app.jwt.secret=outboxSecretKeyThatIsLongEnoughForHmacSha512SignaturesInIntegrationTests0123456789abcdef",
+    "app.rollup.interval-ms=86400000",
+    "app.reorder.cron=-",
+    "app.sql-budget.enabled=false",
+    "app.outbox.enabled=true",
+    "app.outbox.sink=queue",
+    "app.outbox.queue.capacity=6",
+    "app.outbox.queue.offer-timeout-ms=0",
+    "app.outbox.batch-size=4",
+    "app.outbox.relay-interval-ms=86400000",
+    "app.outbox.purge-cron=-"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OutboxIT {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private QueueOutboxSink queueOutboxSink;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String warehouseId;
+    private String productId;
+    private String inventoryId;
+
+    @BeforeAll
+    void seed() {
+        List<Warehouse> warehouses = warehouseRepository.findAll();
+        Category category = categoryRepository.findAll().get(0);
+        warehouseId = warehouses.get(0).getWarehouseId();
+
+        Product product = new Product();
+        product.setName("Outbox Product");
+        product.setSku("OUTBOX-1");
+        product.setCategory(category);
+        product.setUnitPriceMinor(2000L);
+        product.setCostPriceMinor(1200L);
+        product.setMinimumStockThreshold(10);
+        product.setWarehouseId(warehouseId);
+        product.setInitialStock(100);
+        product = productService.createProduct(product);
+        productId = product.getProductId();
+
+        Inventory inventory = inventoryService.getInventoryByProductAndWarehouse(productId, warehouseId);
+        inventoryId = inventory.getInventoryId();
+    }
+
+    @BeforeEach
+    void drainOutbox() throws Exception {
+        do {
+            while (queueOutboxSink.poll(0, TimeUnit.MILLISECONDS) != null) {
+                // discard
+            }
+        } while (outboxRelay.relayPending() > 0 || queueOutboxSink.size() > 0);
+        jdbcTemplate.update("DELETE FROM outbox_events");
+    }
+
+    @Test
+    void writesEventsOnlyWhenTheChangeCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryService.updateStock(inventoryId, 500, 0, 0);
+            status.setRollbackOnly();
+        });
+        assertEquals(0, countEvents());
+
+        inventoryService.updateStock(inventoryId, 60, 0, 0);
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM outbox_events WHERE aggregate_id = ? AND event_type = 'StockChanged'",
+            Integer.class, inventoryId));
+    }
+
+    @Test
+    void relaysEachAggregateInOrder() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            inventoryService.updateStock(inventoryId, 100 + i, 0, 0);
+        }
+        Map<String, Object> item = new HashMap<>();
+        item.put("productId", productId);
+        item.put("quantity", 1);
+        item.put("unitPrice", 20.0);
+        salesOrderService.createSalesOrder(warehouseId, "Outbox Customer", "outbox@ims.com",
+            "1 Outbox Street", "1 Outbox Street", null, List.of(item));
+
+        assertEquals(4, outboxRelay.relayPending());
+        List<JsonNode> delivered = drainQueue();
+        assertEquals(4, delivered.size());
+
+        List<Integer> stockLevels = new ArrayList<>();
+        long previousId = 0;
+        for (JsonNode event : delivered) {
+            assertTrue(event.get("id").asLong() > previousId);
+            previousId = event.get("id").asLong();
+            if ("StockChanged".equals(event.get("eventType").asText())) {
+                stockLevels.add(event.get("payload").get("quantityAvailable").asInt());
+            }
+        }
+        assertEquals(List.of(101, 102, 103), stockLevels);
+        assertEquals("SalesOrderCreated", delivered.get(3).get("eventType").asText());
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM outbox_events WHERE published_at IS NULL", Integer.class));
+        assertEquals(0, outboxRelay.getLagMs());
+    }
+
+    @Test
+    void retriesRejectedBatchUntilDelivered() throws Exception {
+        // Eight events against a queue of six: the second batch of four overflows it
+        for (int i = 1; i <= 8; i++) {
+            inventoryService.updateStock(inventoryId, 200 + i, 0, 0);
+        }
+        double failuresBefore = meterRegistry.get("ims.outbox.failures").counter().count();
+
+        assertEquals(4, outboxRelay.relayPending());
+        assertEquals(failuresBefore + 1, meterRegistry.get("ims.outbox.failures").counter().count());
+        assertEquals(4, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM outbox_events WHERE published_at IS NULL AND attempts = 1 AND last_error IS NOT NULL",
+            Integer.class));
+
+        List<JsonNode> delivered = drainQueue();
+        assertEquals(4, outboxRelay.relayPending());
+        delivered.addAll(drainQueue());
+
+        // At least once: the two events queued before the overflow arrive twice
+        Set<Long> ids = new HashSet<>();
+        for (JsonNode event : delivered) {
+            ids.add(event.get("id").asLong());
+        }
+        assertEquals(8, ids.size());
+        assertEquals(10, delivered.size());
+        assertEquals(208, delivered.get(delivered.size() - 1).get("payload").get("quantityAvailable").asInt());
+    }
+
+    private int countEvents() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class);
+    }
+
+    private List<JsonNode> drainQueue() throws Exception {
+        List<JsonNode> events = new ArrayList<>();
+        String json;
+        while ((json = queueOutboxSink.poll(0, TimeUnit.MILLISECONDS)) != null) {
+            events.add(objectMapper.readTree(json));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.ims;
+
+import com.example.ims.model.Category;
+import com.example.ims.model.Inventory;
+import com.example.ims.model.Money;
+import com.example.ims.model.Product;
+import com.example.ims.model.Warehouse;
+import com.example.ims.repository.CategoryRepository;
+import com.example.ims.repository.WarehouseRepository;
+import com.example.ims.service.FacetIndex;
+import com.example.ims.service.InventoryService;
+import com.example.ims.service.ProductFacetService;
+import com.example.ims.service.ProductService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks facet filters and counts against a small catalogue, that the index follows product
+ * and stock changes the same way a rebuild would see them, and times combined filters with
+ * counts on a one-million-product index.
+ *
+ * Run with: mvn -Pit verify -Dit.test=ProductFacetIT
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:product_facets;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "app.admin.password=facets",
+    "app.jwt.secret=productFacetSecretKeyThatIsLongEnoughForHmacSha512SignaturesInIntegrationTests0123456789",
+    "app.rollup.interval-ms=86400000",
+    "app.reorder.cron=-",
+    "app.sql-budget.enabled=false",
+    "app.facets.enabled=true",
+    "app.facets.rebuild-interval-ms=86400000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductFacetIT {
+
+    private static final double[] PRICE_BANDS = {10, 25, 50, 100, 250, 500, 1000};
+
+    @Autowired
+    private ProductFacetService productFacetService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    private Category first;
+    private Category second;
+    private String warehouseId;
+    private String otherWarehouseId;
+
+    @BeforeAll
+    void seed() {
+        List<Category> categories = categoryRepository.findAll();
+        first = categories.get(0);
+        second = categories.get(1);
+        List<Warehouse> warehouses = warehouseRepository.findAll();
+        warehouseId = warehouses.get(0).getWarehouseId();
+        otherWarehouseId = warehouses.get(1).getWarehouseId();
+
+        create("FACET-1", first, "Facetco", 8.0, 5, Map.of("Color", "Red"));
+        create("FACET-2", first, "Facetco", 30.0, 5, Map.of("Color", "Blue", "Size", "L"));
+        create("FACET-3", second, "Facetco", 30.0, 5, Map.of("Size", "M"));
+        create("FACET-4", second, "Otherco", 120.0, 5, Map.of());
+        assertTrue(productFacetService.reload().get("products") instanceof Integer);
+    }
+
+    @Test
+    void filtersAndCountsEachDimensionUnderTheOthers() {
+        // Other tests add products under their own category and brand; the category filter keeps them out of these counts
+        Map<String, Object> all = browse(Map.of(
+            FacetIndex.BRAND, List.of("Facetco", "Otherco"),
+            FacetIndex.CATEGORY, List.of(first.getCategoryId(), second.getCategoryId())));
+        assertEquals(4L, all.get("total"));
+        assertEquals(Map.of("Facetco", 3, "Otherco", 1), counts(all, FacetIndex.BRAND));
+        assertEquals(Map.of("0-10", 1, "25-50", 2, "100-250", 1), counts(all, FacetIndex.PRICE));
+        assertEquals(Map.of("Color", 2, "Size", 2), counts(all, FacetIndex.SPECIFICATION));
+
+        Map<String, Object> narrowed = browse(Map.of(
+            FacetIndex.CATEGORY, List.of(first.getCategoryId(), second.getCategoryId()),
+            FacetIndex.BRAND, List.of("Facetco"),
+            FacetIndex.PRICE, List.of("25-50"),
+            FacetIndex.SPECIFICATION, List.of("Size")));
+        assertEquals(2L, narrowed.get("total"));
+        assertEquals(List.of("FACET-2", "FACET-3"), skus(narrowed));
+        // Brand counts ignore the brand selection: Otherco has nothing at 25-50 with a Size
+        assertEquals(Map.of("Facetco", 2), counts(narrowed, FacetIndex.BRAND));
+        // Price counts ignore the price selection: the other Facetco product with a Size is none
+        assertEquals(Map.of("25-50", 2), counts(narrowed, FacetIndex.PRICE));
+        assertEquals(Map.of(first.getCategoryId(), 1, second.getCategoryId(), 1), counts(narrowed, FacetIndex.CATEGORY));
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> categories = (List<Map<String, Object>>) facets(narrowed).get(FacetIndex.CATEGORY);
+        assertTrue(categories.stream().anyMatch(value -> first.getName().equals(value.get("label"))));
+
+        Map<String, Object> paged = productFacetService.browse(Map.of(FacetIndex.BRAND, List.of("Facetco")), 1, 2);
+        assertEquals(3L, paged.get("total"));
+        assertEquals(1, ((List<?>) paged.get("products")).size());
+    }
+
+    @Test
+    void followsProductAndStockChanges() {
+        Category own = new Category();
+        own.setName("Facet Change Category");
+        own = categoryRepository.save(own);
+        Inventory inventory = create("FACET-5", own, "Changeco", 60.0, 3, Map.of("Weight", "2kg"));
+        String productId = inventory.getProduct().getProductId();
+        Map<String, List<String>> changeco = Map.of(FacetIndex.BRAND, List.of("Changeco"));
+        assertEquals(Map.of("true", 1), counts(browse(changeco), FacetIndex.IN_STOCK));
+
+        // A second warehouse keeps it in stock when the first runs out
+        Inventory other = inventoryService.createInventory(productId, otherWarehouseId, 2);
+        inventoryService.updateStock(inventory.getInventoryId(), 0, 0, 0);
+        assertEquals(Map.of("true", 1), counts(browse(changeco), FacetIndex.IN_STOCK));
+        inventoryService.updateStock(other.getInventoryId(), 0, 0, 0);
+        assertEquals(Map.of("false", 1), counts(browse(changeco), FacetIndex.IN_STOCK));
+        inventoryService.receiveStock(other.getInventoryId(), 4, null, 500L);
+        assertEquals(Map.of("true", 1), counts(browse(changeco), FacetIndex.IN_STOCK));
+
+        Product details = productService.getProductById(productId);
+        details.setUnitPriceMinor(60000L);
+        details.setSpecifications(new HashMap<>(Map.of("Weight", "2kg", "Voltage", "230V")));
+        productService.updateProduct(productId, details);
+        Map<String, Object> updated = browse(changeco);
+        assertEquals(Map.of("500-1000", 1), counts(updated, FacetIndex.PRICE));
+        assertEquals(Map.of("Weight", 1, "Voltage", 1), counts(updated, FacetIndex.SPECIFICATION));
+
+        Map<String, Object> incremental = browse(Map.of());
+        productFacetService.reload();
+        Map<String, Object> rebuilt = browse(Map.of());
+        assertEquals(facets(rebuilt), facets(incremental));
+        assertEquals(rebuilt.get("total"), incremental.get("total"));
+
+        productService.deleteProduct(productId);
+        assertEquals(0L, browse(changeco).get("total"));
+    }
+
+    @Test
+    void answersCombinedFiltersOnAMillionProducts() {
+        int products = 1_000_000;
+        Random random = new Random(42);
+        FacetIndex index = new FacetIndex(products, PRICE_BANDS);
+        String[] keys = {"Color", "Size", "Weight", "Material", "Voltage", "Capacity", "Warranty", "Origin"};
+        for (int i = 0; i < products; i++) {
+            List<String> specifications = new ArrayList<>();
+            for (String key : keys) {
+                if (random.nextInt(3) == 0) {
+                    specifications.add(key);
+                }
+            }
+            // Skewed brands: a few large ones and a long tail
+            int brand = random.nextInt(4) == 0 ? random.nextInt(5000) : random.nextInt(20);
+            index.put("P" + i, "C" + random.nextInt(40), "Brand " + brand, 100L + random.nextInt(150000), specifications);
+            if (random.nextInt(5) != 0) {
+                index.setInStock("P" + i, true);
+            }
+        }
+
+        List<Map<String, List<String>>> queries = List.of(
+            Map.of(),
+            Map.of(FacetIndex.IN_STOCK, List.of("true")),
+            Map.of(FacetIndex.CATEGORY, List.of("C3", "C7"), FacetIndex.IN_STOCK, List.of("true")),
+            Map.of(FacetIndex.BRAND, List.of("Brand 1", "Brand 4000"), FacetIndex.PRICE, List.of("100-250", "250-500")),
+            Map.of(FacetIndex.CATEGORY, List.of("C5"), FacetIndex.BRAND, List.of("Brand 2"),
+                FacetIndex.PRICE, List.of("25-50"), FacetIndex.IN_STOCK, List.of("true"), FacetIndex.SPECIFICATION, List.of("Color", "Size")));
+        for (int round = 0; round < 5; round++) {
+            for (Map<String, List<String>> query : queries) {
+                index.query(query, 0, 24, 50);
+            }
+        }
+        for (Map<String, List<String>> query : queries) {
+            long[] micros = new long[20];
+            for (int run = 0; run < micros.length; run++) {
+                long queryStart = System.nanoTime();
+                index.query(query, 0, 24, 50);
+                micros[run] = (System.nanoTime() - queryStart) / 1000;
+            }
+            Arrays.sort(micros);
+            assertTrue(micros[micros.length / 2] < 1_000_000, "facet query " + query.keySet() + " took over a second");
+        }
+
+        // Counts agree with a scan for a combined filter
+        FacetIndex.Result result = index.query(queries.get(2), 0, 24, 50);
+        long inStockInC3orC7 = result.facets().get(FacetIndex.IN_STOCK).stream()
+            .filter(count -> count.value().equals("true")).mapToLong(FacetIndex.FacetCount::count).sum();
+        assertEquals(result.total(), inStockInC3orC7);
+    }
+
+    private Inventory create(String sku, Category category, String brand, double unitPrice, int stock, Map<String, String> specifications) {
+        Product product = new Product();
+        product.setName("Facet Product " + sku);
+        product.setSku(sku);
+        product.setCategory(category);
+        product.setBrand(brand);
+        product.setUnitPriceMinor(Money.toMinor(BigDecimal.valueOf(unitPrice)));
+        product.setWarehouseId(warehouseId);
+        product.setInitialStock(stock);
+        product.setSpecifications(new HashMap<>(specifications));
+        Product saved = productService.createProduct(product);
+        return inventoryService.getInventoryByProductAndWarehouse(saved.getProductId(), warehouseId);
+    }
+
+    private Map<String, Object> browse(Map<String, List<String>> selected) {
+        return productFacetService.browse(selected, 0, 50);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> facets(Map<String, Object> response) {
+        return (Map<String, Object>) response.get("facets");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Integer> counts(Map<String, Object> response, String dimension) {
+        Object values = facets(response).get(dimension);
+        if (FacetIndex.CATEGORY.equals(dimension)) {
+            return ((List<Map<String, Object>>) values).stream()
+                .collect(Collectors.toMap(value -> (String) value.get("value"), value -> (Integer) value.get("count")));
+        }
+        return ((List<FacetIndex.FacetCount>) values).stream()
+            .collect(Collectors.toMap(FacetIndex.FacetCount::value, FacetIndex.FacetCount::count));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> skus(Map<String, Object> response) {
+        return ((List<Product>) response.get("products")).stream().map(Product::getSku).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.ims;
+
+import com.example.ims.model.Category;
+import com.example.ims.model.ImportJobStatus;
+import com.example.ims.model.Product;
+import com.example.ims.model.ProductImportError;
+import com.example.ims.model.ProductImportJob;
+import com.example.ims.model.Warehouse;
+import com.example.ims.repository.CategoryRepository;
+import com.example.ims.repository.WarehouseRepository;
+import com.example.ims.service.ProductImportService;
+import com.example.ims.service.ProductService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Imports CSV and NDJSON files through the job pipeline and checks imported products, their
+ * specifications, inventory and opening stock lots, skipped SKUs and per-row errors. The bulk
+ * test streams a generated 200,000-row CSV and reports the import rate.
+ *
+ * Run with: mvn -Pit verify -Dit.test=ProductImportIT
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:product_import;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "app.admin.password=import",
+    "app.jwt.secret=productImportSecretKeyThatIsLongEnoughForHmacSha512SignaturesInIntegrationTests0123456789",
+    "app.rollup.interval-ms=86400000",
+    "app.reorder.cron=-",
+    "app.sql-budget.enabled=false",
+    "app.import.chunk-size=500"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductImportIT {
+
+    private static final int BULK_ROWS = 200_000;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category category;
+    private String warehouseId;
+    private String otherWarehouseId;
+
+    @BeforeAll
+    void seed() {
+        List<Warehouse> warehouses = warehouseRepository.findAll();
+        category = categoryRepository.findAll().get(0);
+        warehouseId = warehouses.get(0).getWarehouseId();
+        otherWarehouseId = warehouses.get(1).getWarehouseId();
+
+        Product existing = new Product();
+        existing.setName("Existing Import Product");
+        existing.setSku("IMP-EXISTING");
+        existing.setCategory(category);
+        existing.setUnitPriceMinor(1000L);
+        existing.setWarehouseId(warehouseId);
+        existing.setInitialStock(3);
+        productService.createProduct(existing);
+    }
+
+    @Test
+    void importsCsvAndReportsRowErrors() throws Exception {
+        String csv = "sku,name,description,category,unitPrice,costPrice,initialStock,warehouseId,spec.Color,spec.Weight\n"
+            + "IMP-1,Widget,\"Small, blue\",\"" + category.getName() + "\",12.50,7,40,,Blue,1kg\n"
+            + "IMP-2,\"Gadget \"\"Pro\"\"\",\"Two\nlines\"," + category.getCategoryId() + ",30,,0," + otherWarehouseId + ",,\n"
+            + "IMP-3,Bad Price,,\"" + category.getName() + "\",-4,,,,,\n"
+            + "IMP-EXISTING,Already There,,\"" + category.getName() + "\",10,,,,,\n"
+            + "IMP-4,No Category,,Nowhere,10,,,,,\n"
+            + "IMP-1,Repeated,,\"" + category.getName() + "\",10,,,,,\n"
+            + "IMP-5,Short Row\n";
+
+        ProductImportJob job = awaitJob(productImportService.startImport(stream(csv), "csv", warehouseId, "admin"));
+
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(7, job.getRowsRead());
+        assertEquals(2, job.getImported());
+        assertEquals(1, job.getSkipped());
+        assertEquals(4, job.getFailed());
+
+        Map<String, Object> widget = jdbcTemplate.queryForMap(
+            "SELECT CAST(p.product_id AS VARCHAR) AS product_id, p.description, p.cost_price, i.quantity_available, " +
+            "CAST(i.warehouse_id AS VARCHAR) AS warehouse_id FROM products p " +
+            "JOIN inventory i ON i.product_id = p.product_id WHERE p.sku = 'IMP-1'");
+        assertEquals("Small, blue", widget.get("description"));
+        assertEquals(40, ((Number) widget.get("quantity_available")).intValue());
+        assertEquals(warehouseId, widget.get("warehouse_id"));
+        assertEquals(Map.of("Color", "Blue", "Weight", "1kg"), specifications((String) widget.get("product_id")));
+        assertEquals(40, jdbcTemplate.queryForObject(
+            "SELECT SUM(quantity_remaining) FROM stock_lots WHERE product_id = ?", Integer.class, widget.get("product_id")));
+
+        Map<String, Object> gadget = jdbcTemplate.queryForMap(
+            "SELECT p.name, p.description, CAST(i.warehouse_id AS VARCHAR) AS warehouse_id FROM products p " +
+            "JOIN inventory i ON i.product_id = p.product_id " +
+            "WHERE p.sku = 'IMP-2'");
+        assertEquals("Gadget \"Pro\"", gadget.get("name"));
+        assertEquals("Two\nlines", gadget.get("description"));
+        assertEquals(otherWarehouseId, gadget.get("warehouse_id"));
+
+        List<ProductImportError> errors = productImportService.getErrors(job.getJobId(), 0, 100).getContent();
+        assertEquals(List.of(5L, 7L, 8L, 9L), errors.stream().map(ProductImportError::getLineNumber).collect(Collectors.toList()));
+        assertEquals("Unit price must be positive", errors.get(0).getMessage());
+        assertEquals("Category not found: Nowhere", errors.get(1).getMessage());
+        assertEquals("Duplicate SKU earlier in the file", errors.get(2).getMessage());
+        assertEquals("Expected 10 columns but found 2", errors.get(3).getMessage());
+    }
+
+    @Test
+    void importsNdjson() throws Exception {
+        String ndjson = "{\"sku\":\"IMP-J1\",\"name\":\"Json One\",\"categoryId\":\"" + category.getCategoryId() + "\","
+            + "\"unitPrice\":5,\"initialStock\":2,\"specifications\":{\"Size\":\"L\"}}\n"
+            + "\n"
+            + "{\"sku\":\"IMP-J2\",\"name\":\"Json Two\",\"category\":\"" + category.getName() + "\",\"unitPrice\":\"x\"}\n"
+            + "{not json\n";
+
+        ProductImportJob job = awaitJob(productImportService.startImport(stream(ndjson), "ndjson", warehouseId, "admin"));
+
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getRowsRead());
+        assertEquals(1, job.getImported());
+        assertEquals(2, job.getFailed());
+        String productId = jdbcTemplate.queryForObject("SELECT product_id FROM products WHERE sku = 'IMP-J1'", String.class);
+        assertEquals(Map.of("Size", "L"), specifications(productId));
+
+        List<ProductImportError> errors = productImportService.getErrors(job.getJobId(), 0, 100).getContent();
+        assertEquals(3, errors.get(0).getLineNumber());
+        assertEquals("Unit price is not a number: x", errors.get(0).getMessage());
+        assertEquals(4, errors.get(1).getLineNumber());
+        assertTrue(errors.get(1).getMessage().startsWith("Invalid JSON"));
+    }
+
+    @Test
+    void importsALargeCsv() throws Exception {
+        InputStream csv = new SequenceInputStream(new Enumeration<>() {
+            private int row = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return row < BULK_ROWS;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                String line = row < 0
+                    ? "sku,name,description,categoryId,brand,unitPrice,costPrice,initialStock,spec.Color\n"
+                    : String.format("BULK-%07d,Bulk Product %d,Generated product %d,%s,Brand %d,%d.99,%d.50,%d,Color %d%n",
+                        row, row, row, category.getCategoryId(), row % 100, 5 + row % 300, 2 + row % 150, row % 50, row % 12);
+                row++;
+                return new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        long start = System.currentTimeMillis();
+        ProductImportJob job = awaitJob(productImportService.startImport(csv, "csv", warehouseId, "admin"));
+        long elapsed = System.currentTimeMillis() - start;
+        System.out.println("Imported " + job.getImported() + " products in " + elapsed + " ms ("
+            + (job.getImported() * 1000 / Math.max(elapsed, 1)) + " rows/s)");
+
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(BULK_ROWS, job.getImported());
+        assertEquals(BULK_ROWS, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM inventory i JOIN products p ON p.product_id = i.product_id WHERE p.sku LIKE 'BULK-%'", Integer.class));
+        assertEquals(BULK_ROWS, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM product_specifications s JOIN products p ON p.product_id = s.product_id WHERE p.sku LIKE 'BULK-%'",
+            Integer.class));
+    }
+
+    private ProductImportJob awaitJob(ProductImportJob started) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 300_000;
+        ProductImportJob job = started;
+        while (System.currentTimeMillis() < deadline) {
+            job = productImportService.getJob(started.getJobId());
+            if (job.getStatus() == ImportJobStatus.COMPLETED || job.getStatus() == ImportJobStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        return job;
+    }
+
+    private Map<String, String> specifications(String productId) {
+        return jdbcTemplate.queryForList("SELECT spec_key, spec_value FROM product_specifications WHERE product_id = ?", productId)
+            .stream().collect(Collectors.toMap(row -> (String) row.get("spec_key"), row -> (String) row.get("spec_value")));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.ims;
+
+import com.example.ims.config.ReplicaLagMonitor;
+import com.example.ims.config.ReplicaRoutingDataSource;
+import com.example.ims.model.Category;
+import com.example.ims.security.JwtTokenProvider;
+import com.example.ims.service.CategoryService;
+import com.example.ims.service.DashboardService;
+import com.example.ims.service.ProductService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks which pool each kind of transaction is routed to. Both pools point at the same
+ * in-memory H2 database as stand-ins for a PostgreSQL primary and streaming replica, so
+ * routing is observed through the ims.datasource.routing counters.
+ *
+ * Run with: mvn -Pit verify -Dit.test=ReplicaRoutingIT
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:replica_routing;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "app.admin.password=replica",
+    "app.jwt.secret=replicaRoutingSecretKeyThatIsLongEnoughForHmacSha512SignaturesInIntegrationTests0123456789",
+    "app.rollup.interval-ms=86400000",
+    "app.reorder.cron=-",
+    "app.sql-budget.enabled=false",
+    "app.datasource.replica.enabled=true",
+    "app.datasource.replica.url=jdbc:h2:mem:replica_routing;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+    "app.datasource.replica.lag-query=SELECT 0",
+    "app.datasource.replica.lag-check-interval-ms=86400000",
+    "app.datasource.replica.sticky-after-write-ms=60000"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        double replica = routings("replica");
+
+        productService.getAllProducts();
+        dashboardService.getInventoryOverview();
+
+        assertEquals(replica + 2, routings("replica"));
+    }
+
+    @Test
+    void writeTransactionsUsePrimary() {
+        double replica = routings("replica");
+        double primary = routings("primary");
+
+        createCategory();
+
+        // Scheduled jobs may write concurrently, so only a lower bound holds for the primary
+        assertTrue(routings("primary") >= primary + 1);
+        assertEquals(replica, routings("replica"));
+    }
+
+    @Test
+    void readsAfterAWriteInTheSameRequestUsePrimary() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        createCategory();
+        double replica = routings("replica");
+
+        productService.getAllProducts();
+
+        assertEquals(replica, routings("replica"));
+    }
+
+    @Test
+    void readsAfterTheSameUsersWriteUsePrimaryUntilTheStickyWindowEnds() {
+        authenticate("replica_writer");
+        createCategory();
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        double replica = routings("replica");
+        productService.getAllProducts();
+        assertEquals(replica, routings("replica"));
+
+        authenticate("replica_reader");
+        productService.getAllProducts();
+        assertEquals(replica + 1, routings("replica"));
+    }
+
+    @Test
+    void listEndpointsAreServedFromReplica() throws Exception {
+        String token = (String) tokenProvider.generateTokenWithInfo("admin").get("token");
+        double replica = routings("replica");
+
+        mockMvc.perform(get("/products").header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+        mockMvc.perform(get("/dashboard/overview").header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+
+        assertTrue(routings("replica") > replica);
+    }
+
+    @Test
+    void writeAfterAReadInOneHttpRequestUsesPrimary() throws Exception {
+        String token = (String) tokenProvider.generateTokenWithInfo("admin").get("token");
+        double replica = routings("replica");
+
+        // Open-in-view keeps one session for the request; the write must not inherit the read's replica connection
+        mockMvc.perform(post("/test/read-then-write").header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.replicaConnectionsDuringWrite").value(0));
+
+        assertEquals(replica + 1, routings("replica"));
+    }
+
+    @Test
+    void laggingOrUnreachableReplicaIsTakenOutOfRotation() {
+        ReplicaLagMonitor lagging = new ReplicaLagMonitor(replicaDataSource, "SELECT 30", 5000);
+        lagging.checkLag();
+        assertFalse(lagging.isReplicaUsable());
+        assertEquals(30_000, lagging.getLagMs());
+
+        ReplicaLagMonitor unreachable = new ReplicaLagMonitor(replicaDataSource, "SELECT missing_column FROM dual", 5000);
+        unreachable.checkLag();
+        assertFalse(unreachable.isReplicaUsable());
+        assertEquals(-1, unreachable.getLagMs());
+
+        ReplicaLagMonitor current = new ReplicaLagMonitor(replicaDataSource, "SELECT 1", 5000);
+        current.checkLag();
+        assertTrue(current.isReplicaUsable());
+    }
+
+    private void createCategory() {
+        createCategory(categoryService);
+    }
+
+    private static Category createCategory(CategoryService categoryService) {
+        Category category = new Category();
+        category.setName("Replica " + UUID.randomUUID());
+        category.setDescription("Replica routing test");
+        return categoryService.createCategory(category);
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            username, null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+    }
+
+    private double routings(String target) {
+        return meterRegistry.get("ims.datasource.routing").tag("target", target).functionCounter().count();
+    }
+
+    @TestConfiguration
+    static class ReadThenWriteConfig {
+        @Bean
+        ReadThenWriteController readThenWriteController(ProductService productService, CategoryService categoryService,
+                                                        TransactionTemplate transactionTemplate,
+                                                        HikariDataSource replicaDataSource) {
+            return new ReadThenWriteController(productService, categoryService, transactionTemplate, replicaDataSource);
+        }
+    }
+
+    /**
+     * A read-only call followed by a write in one request, reporting the replica connections
+     * in use while the write transaction runs
+     */
+    @RestController
+    static class ReadThenWriteController {
+        private final ProductService productService;
+        private final CategoryService categoryService;
+        private final TransactionTemplate transactionTemplate;
+        private final HikariDataSource replicaDataSource;
+
+        ReadThenWriteController(ProductService productService, CategoryService categoryService,
+                                TransactionTemplate transactionTemplate, HikariDataSource replicaDataSource) {
+            this.productService = productService;
+            this.categoryService = categoryService;
+            this.transactionTemplate = transactionTemplate;
+            this.replicaDataSource = replicaDataSource;
+        }
+
+        @PostMapping("/test/read-then-write")
+        Map<String, Object> readThenWrite() {
+            productService.getAllProducts();
+            Integer inUse = transactionTemplate.execute(status -> {
+                createCategory(categoryService);
+                return replicaDataSource.getHikariPoolMXBean().getActiveConnections();
+            });
+            return Map.of("replicaConnectionsDuringWrite", inUse);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.ims;
+
+import com.example.ims.model.AlertStatus;
+import com.example.ims.model.ArchivedAlertCount;
+import com.example.ims.model.Category;
+import com.example.ims.model.DailyStockMovement;
+import com.example.ims.model.Inventory;
+import com.example.ims.model.Product;
+import com.example.ims.model.ReorderPlan;
+import com.example.ims.model.ReservationStatus;
+import com.example.ims.model.SalesOrder;
+import com.example.ims.model.SalesOrderStatus;
+import com.example.ims.model.StockReservation;
+import com.example.ims.model.Warehouse;
+import com.example.ims.repository.ArchivedAlertCountRepository;
+import com.example.ims.repository.CategoryRepository;
+import com.example.ims.repository.DailyStockMovementRepository;
+import com.example.ims.repository.ReorderPlanRepository;
+import com.example.ims.repository.WarehouseRepository;
+import com.example.ims.service.AlertService;
+import com.example.ims.service.InventoryService;
+import com.example.ims.service.ProductService;
+import com.example.ims.service.SalesOrderService;
+import com.example.ims.service.StockReservationService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that reservations are recorded with an expiry, closed with their order or a manual
+ * release, and that expired ones go back to available stock while confirmed orders keep theirs. The bulk test writes 100,000
+ * reservations that expired while the application was "down", recovers them onto the timing
+ * wheel and waits for the scheduler to release them. Deleting a product removes the lots,
+ * reservations and planning rows that reference it.
+ *
+ * Run with: mvn -Pit verify -Dit.test=ReservationExpiryIT
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:reservations;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.jpa.properties.hibernate.order_updates=true",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "app.admin.password=reservations",
+    "app.jwt.secret=reservationSecretKeyThatIsLongEnoughForHmacSha512SignaturesInIntegrationTests0123456789",
+    "app.rollup.interval-ms=86400000",
+    "app.reorder.cron=-",
+    "app.sql-budget.enabled=false",
+    "app.reservations.tick-ms=200",
+    "app.reservations.sweep-interval-ms=86400000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReservationExpiryIT {
+
+    private static final int BULK_RESERVATIONS = 100_000;
+    private static final int BULK_CELLS = 50;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ReorderPlanRepository reorderPlanRepository;
+
+    @Autowired
+    private DailyStockMovementRepository dailyStockMovementRepository;
+
+    @Autowired
+    private ArchivedAlertCountRepository archivedAlertCountRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Category category;
+    private String warehouseId;
+
+    @BeforeAll
+    void seed() {
+        List<Warehouse> warehouses = warehouseRepository.findAll();
+        category = categoryRepository.findAll().get(0);
+        warehouseId = warehouses.get(0).getWarehouseId();
+    }
+
+    @Test
+    void reservingRecordsAnExpiringRow() {
+        Inventory inventory = createStockedProduct("RES-1", 20);
+        long before = System.currentTimeMillis();
+        inventoryService.reserveStock(inventory.getInventoryId(), 4, null, 30);
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT quantity, status, expires_at FROM stock_reservations WHERE inventory_id = ?", inventory.getInventoryId());
+        assertEquals(4, ((Number) row.get("quantity")).intValue());
+        assertEquals("ACTIVE", row.get("status"));
+        long expiresAt = ((Timestamp) row.get("expires_at")).getTime();
+        assertTrue(expiresAt >= before + 30 * 60_000 && expiresAt <= System.currentTimeMillis() + 30 * 60_000);
+    }
+
+    @Test
+    void manualReleaseClosesTheSoonestExpiringFirst() {
+        Inventory inventory = createStockedProduct("RES-2", 20);
+        inventoryService.reserveStock(inventory.getInventoryId(), 3, null, 10);
+        inventoryService.reserveStock(inventory.getInventoryId(), 5, null, 20);
+        inventoryService.releaseReservedStock(inventory.getInventoryId(), 4);
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT quantity, status FROM stock_reservations WHERE inventory_id = ? ORDER BY expires_at", inventory.getInventoryId());
+        assertEquals("RELEASED", rows.get(0).get("status"));
+        assertEquals("ACTIVE", rows.get(1).get("status"));
+        assertEquals(4, ((Number) rows.get(1).get("quantity")).intValue());
+    }
+
+    @Test
+    void cancellingAnOrderReturnsItsStock() {
+        Inventory inventory = createStockedProduct("RES-3", 20);
+        SalesOrder cancelled = confirmOrder(inventory, 6);
+        SalesOrder shipped = confirmOrder(inventory, 2);
+        assertEquals(12, available(inventory));
+
+        salesOrderService.updateOrderStatus(cancelled.getOrderId(), SalesOrderStatus.CANCELLED);
+        salesOrderService.updateOrderStatus(shipped.getOrderId(), SalesOrderStatus.SHIPPED);
+
+        assertEquals(18, available(inventory));
+        assertEquals(2, reserved(inventory));
+        assertEquals(ReservationStatus.RELEASED, onlyReservation(cancelled).getStatus());
+        assertEquals(ReservationStatus.FULFILLED, onlyReservation(shipped).getStatus());
+    }
+
+    @Test
+    void confirmedOrdersKeepTheirStockPastTheDefaultExpiry() {
+        Inventory inventory = createStockedProduct("RES-4", 20);
+        SalesOrder order = confirmOrder(inventory, 5);
+        assertNull(onlyReservation(order).getExpiresAt());
+
+        // A day later: every hold of the cell that can expire has, including a direct one
+        inventoryService.reserveStock(inventory.getInventoryId(), 3, null, 30);
+        jdbcTemplate.update("UPDATE stock_reservations SET expires_at = ? WHERE inventory_id = ? AND expires_at IS NOT NULL",
+            new Timestamp(System.currentTimeMillis() - 86_400_000L), inventory.getInventoryId());
+        stockReservationService.sweepExpired();
+
+        assertEquals(15, available(inventory));
+        assertEquals(5, reserved(inventory));
+        assertEquals(ReservationStatus.ACTIVE, onlyReservation(order).getStatus());
+
+        salesOrderService.updateOrderStatus(order.getOrderId(), SalesOrderStatus.SHIPPED);
+
+        assertEquals(15, available(inventory));
+        assertEquals(5, reserved(inventory));
+        assertEquals(ReservationStatus.FULFILLED, onlyReservation(order).getStatus());
+    }
+
+    @Test
+    void expiredReservationsAreReleasedAfterRestart() throws InterruptedException {
+        List<Inventory> cells = new ArrayList<>();
+        for (int cell = 0; cell < BULK_CELLS; cell++) {
+            cells.add(createStockedProduct("RES-BULK-" + cell, 0));
+        }
+        int perCell = BULK_RESERVATIONS / BULK_CELLS;
+        for (Inventory cell : cells) {
+            jdbcTemplate.update("UPDATE inventory SET quantity_available = 0, quantity_reserved = ? WHERE inventory_id = ?",
+                perCell, cell.getInventoryId());
+        }
+        // Written behind the service's back, as if reserved before a restart and expired during it
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Timestamp expired = new Timestamp(now.getTime() - 60_000);
+        List<Object[]> rows = new ArrayList<>(BULK_RESERVATIONS);
+        for (int i = 0; i < BULK_RESERVATIONS; i++) {
+            rows.add(new Object[] {UUID.randomUUID().toString(), cells.get(i % BULK_CELLS).getInventoryId(), expired, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO stock_reservations (reservation_id, inventory_id, quantity, status, expires_at, created_at) " +
+            "VALUES (?, ?, 1, 'ACTIVE', ?, ?)", rows);
+
+        long start = System.currentTimeMillis();
+        stockReservationService.recover();
+        int remaining = BULK_RESERVATIONS;
+        while (remaining > 0 && System.currentTimeMillis() - start < 120_000) {
+            Thread.sleep(100);
+            remaining = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_reservations WHERE status = 'ACTIVE' AND expires_at < ?", Integer.class, now);
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        System.out.println("Released " + BULK_RESERVATIONS + " expired reservations in " + elapsed + " ms");
+
+        assertEquals(0, remaining);
+        for (Inventory cell : cells) {
+            assertEquals(perCell, available(cell));
+            assertEquals(0, reserved(cell));
+        }
+        assertEquals(BULK_RESERVATIONS, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM stock_reservations WHERE status = 'EXPIRED'", Integer.class));
+    }
+
+    @Test
+    void deletingAProductRemovesTheRowsThatReferenceIt() {
+        Inventory inventory = createStockedProduct("RES-DELETE", 20);
+        Product product = inventory.getProduct();
+        Warehouse warehouse = inventory.getWarehouse();
+        String productId = product.getProductId();
+        inventoryService.reserveStock(inventory.getInventoryId(), 5, null, 30);
+        inventoryService.releaseReservedStock(inventory.getInventoryId(), 2);
+        alertService.createAlert(productId, warehouseId, 50, "Before delete");
+
+        ReorderPlan plan = new ReorderPlan();
+        plan.setPlanId(UUID.randomUUID().toString());
+        plan.setProduct(product);
+        plan.setWarehouse(warehouse);
+        plan.setReorderPoint(4);
+        plan.setOptimalStockLevel(12);
+        plan.setCalculatedAt(new Date());
+        reorderPlanRepository.save(plan);
+
+        DailyStockMovement movement = new DailyStockMovement();
+        movement.setProduct(product);
+        movement.setWarehouse(warehouse);
+        movement.setBucketDate(LocalDate.now());
+        movement.setQuantitySold(3);
+        dailyStockMovementRepository.save(movement);
+
+        ArchivedAlertCount archived = new ArchivedAlertCount();
+        archived.setProduct(product);
+        archived.setWarehouse(warehouse);
+        archived.setBucketDate(LocalDate.now());
+        archived.setStatus(AlertStatus.RESOLVED);
+        archived.setAlertCount(1);
+        archivedAlertCountRepository.save(archived);
+
+        productService.deleteProduct(productId);
+
+        for (String table : List.of("products", "inventory", "stock_lots", "reorder_plans",
+                "daily_stock_movements", "alerts", "archived_alert_counts")) {
+            assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE product_id = ?", Integer.class, productId), table);
+        }
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM stock_reservations WHERE inventory_id = ?", Integer.class, inventory.getInventoryId()));
+    }
+
+    private SalesOrder confirmOrder(Inventory inventory, int quantity) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("productId", inventory.getProduct().getProductId());
+        item.put("quantity", quantity);
+        item.put("unitPrice", 20.0);
+        SalesOrder order = salesOrderService.createSalesOrder(warehouseId, "Reservation Customer", "reserve@ims.com",
+            "1 Reserve Street", "1 Reserve Street", null, List.of(item));
+        // The controller confirms inside the request's open session; this does the same in one transaction
+        return transactionTemplate.execute(status -> {
+            SalesOrder confirmed = salesOrderService.updateOrderStatus(order.getOrderId(), SalesOrderStatus.CONFIRMED);
+            salesOrderService.processConfirmedOrder(confirmed);
+            return confirmed;
+        });
+    }
+
+    private StockReservation onlyReservation(SalesOrder order) {
+        List<StockReservation> reservations = stockReservationService.getReservationsForOrder(order.getOrderId());
+        assertEquals(1, reservations.size());
+        return reservations.get(0);
+    }
+
+    private int available(Inventory inventory) {
+        return jdbcTemplate.queryForObject(
+            "SELECT quantity_available FROM inventory WHERE inventory_id = ?", Integer.class, inventory.getInventoryId());
+    }
+
+    private int reserved(Inventory inventory) {
+        return jdbcTemplate.queryForObject(
+            "SELECT quantity_reserved FROM inventory WHERE inventory_id = ?", Integer.class, inventory.getInventoryId());
+    }
+
+    private Inventory createStockedProduct(String sku, int stock) {
+        Product product = new Product();
+        product.setName("Reservation Product " + sku);
+        product.setSku(sku);
+        product.setCategory(category);
+        product.setUnitPriceMinor(2000L);
+        product.setCostPriceMinor(1200L);
+        product.setMinimumStockThreshold(1);
+        product.setWarehouseId(warehouseId);
+        product.setInitialStock(stock);
+        product = productService.createProduct(product);
+        return inventoryService.getInventoryByProductAndWarehouse(product.getProductId(), warehouseId);
+    }
+}
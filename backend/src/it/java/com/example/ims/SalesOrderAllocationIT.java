@@ -0,0 +1,203 @@
+package com.example.ims;
+
+import com.example.ims.model.Category;
+import com.example.ims.model.Product;
+import com.example.ims.model.SalesOrder;
+import com.example.ims.model.SalesOrderItem;
+import com.example.ims.model.Warehouse;
+import com.example.ims.repository.CategoryRepository;
+import com.example.ims.repository.WarehouseRepository;
+import com.example.ims.service.InventoryService;
+import com.example.ims.service.ProductService;
+import com.example.ims.service.SalesOrderAllocator;
+import com.example.ims.service.SalesOrderService;
+import com.example.ims.service.StockGrid;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Allocates orders across three warehouses holding overlapping stock and checks the
+ * shipment count, the persisted per-warehouse orders, and that an order the warehouses
+ * cannot cover together leaves nothing behind. The stock grid is disabled, so the
+ * allocator works from a snapshot read for each order.
+ *
+ * Run with: mvn -Pit verify -Dit.test=SalesOrderAllocationIT
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:allocation;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "app.admin.password=allocation",
+    "app.jwt.secret=allocationSecretKeyThatIsLongEnoughForHmacSha512SignaturesInIntegrationTests0123456789",
+    "app.rollup.interval-ms=86400000",
+    "app.reorder.cron=-",
+    "app.sql-budget.enabled=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SalesOrderAllocationIT {
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String north;
+    private String central;
+    private String south;
+    private String productA;
+    private String productB;
+    private String productC;
+
+    @BeforeAll
+    void seed() {
+        List<Warehouse> warehouses = warehouseRepository.findAll();
+        north = warehouses.get(0).getWarehouseId();
+        central = warehouses.get(1).getWarehouseId();
+        south = warehouses.get(2).getWarehouseId();
+        Category category = categoryRepository.findAll().get(0);
+
+        // north: A=10; central: A=5, B=10, C=10; south: C=10
+        productA = createProduct(category, "ALLOC-A", north, 10);
+        inventoryService.createInventory(productA, central, 5);
+        productB = createProduct(category, "ALLOC-B", central, 10);
+        productC = createProduct(category, "ALLOC-C", central, 10);
+        inventoryService.createInventory(productC, south, 10);
+    }
+
+    @Test
+    void coversLinesWithTheFewestWarehouses() {
+        List<SalesOrder> orders = salesOrderService.createAllocatedSalesOrders(north, "Alloc Customer", "alloc@ims.com",
+            "1 Alloc Street", "1 Alloc Street", null, List.of(item(productA, 8), item(productB, 5), item(productC, 5)));
+
+        // central covers B and C, north the 8 units of A that central cannot
+        assertEquals(2, orders.size());
+        assertEquals(central, orders.get(0).getWarehouse().getWarehouseId());
+        assertEquals(Map.of(productB, 5, productC, 5), quantities(orders.get(0)));
+        assertEquals(north, orders.get(1).getWarehouse().getWarehouseId());
+        assertEquals(Map.of(productA, 8), quantities(orders.get(1)));
+
+        String group = orders.get(0).getAllocationGroupId();
+        assertEquals(group, orders.get(1).getAllocationGroupId());
+        assertEquals(2, salesOrderService.getSalesOrdersByAllocationGroup(group).size());
+    }
+
+    @Test
+    void splitsALineNoWarehouseCanCover() {
+        List<SalesOrder> orders = salesOrderService.createAllocatedSalesOrders(null, "Alloc Customer", "alloc@ims.com",
+            "1 Alloc Street", "1 Alloc Street", null, List.of(item(productA, 14)));
+
+        assertEquals(2, orders.size());
+        assertEquals(Map.of(productA, 10), quantities(orders.get(0)));
+        assertEquals(Map.of(productA, 4), quantities(orders.get(1)));
+    }
+
+    @Test
+    void rejectsOrdersTheWarehousesCannotCoverTogether() {
+        int ordersBefore = countOrders();
+        IllegalStateException error = assertThrows(IllegalStateException.class, () ->
+            salesOrderService.createAllocatedSalesOrders(null, "Alloc Customer", "alloc@ims.com",
+                "1 Alloc Street", "1 Alloc Street", null, List.of(item(productC, 5), item(productA, 16))));
+        assertEquals("Insufficient stock for product " + productA + ": 16 requested, 15 available across warehouses",
+            error.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () ->
+            salesOrderService.createAllocatedSalesOrders(null, "Alloc Customer", "alloc@ims.com",
+                "1 Alloc Street", "1 Alloc Street", null, List.of(item(productA, 1), item(productA, 2))));
+        assertEquals(ordersBefore, countOrders());
+    }
+
+    @Test
+    void preferredWarehouseBreaksTies() {
+        StockGrid grid = new StockGrid(0, 0);
+        grid.put("p1", "w1", 10, 0, 0);
+        grid.put("p1", "w2", 10, 0, 0);
+        grid.put("p2", "w2", 3, 0, 0);
+        grid.put("p2", "w3", 3, 0, 0);
+
+        SalesOrderAllocator.Allocation single = SalesOrderAllocator.allocate(grid, new String[] {"p1"}, new int[] {4}, "w1");
+        assertEquals(List.of("w1"), single.getWarehouseIds());
+
+        // w2 covers both lines, which beats the preferred w1 covering one
+        SalesOrderAllocator.Allocation both = SalesOrderAllocator.allocate(grid,
+            new String[] {"p1", "p2"}, new int[] {4, 2}, "w1");
+        assertEquals(List.of("w2"), both.getWarehouseIds());
+        assertArrayEquals(new int[] {4, 2}, both.getShipments().get("w2"));
+
+        // Once w2 is shipping, it also takes the part of a split line it can
+        SalesOrderAllocator.Allocation split = SalesOrderAllocator.allocate(grid,
+            new String[] {"p1", "p2"}, new int[] {4, 5}, null);
+        assertEquals(2, split.getShipmentCount());
+        assertArrayEquals(new int[] {4, 3}, split.getShipments().get("w2"));
+        assertArrayEquals(new int[] {0, 2}, split.getShipments().get("w3"));
+    }
+
+    private int countOrders() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sales_orders", Integer.class);
+    }
+
+    private Map<String, Integer> quantities(SalesOrder order) {
+        return transactionTemplate.execute(status -> {
+            Map<String, Integer> quantities = new HashMap<>();
+            for (SalesOrderItem item : salesOrderService.getSalesOrderById(order.getOrderId()).getItems()) {
+                quantities.put(item.getProduct().getProductId(), item.getQuantity());
+            }
+            return quantities;
+        });
+    }
+
+    private Map<String, Object> item(String productId, int quantity) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("productId", productId);
+        item.put("quantity", quantity);
+        item.put("unitPrice", 20.0);
+        return item;
+    }
+
+    private String createProduct(Category category, String sku, String warehouseId, int stock) {
+        Product product = new Product();
+        product.setName("Allocation Product " + sku);
+        product.setSku(sku);
+        product.setCategory(category);
+        product.setUnitPriceMinor(2000L);
+        product.setCostPriceMinor(1200L);
+        product.setMinimumStockThreshold(1);
+        product.setWarehouseId(warehouseId);
+        product.setInitialStock(stock);
+        return productService.createProduct(product).getProductId();
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.ims;
+
+import com.example.ims.config.SqlBudgetFilter;
+import com.example.ims.model.Alert;
+import com.example.ims.model.Category;
+import com.example.ims.model.CreatePurchaseOrderItemRequest;
+import com.example.ims.model.Inventory;
+import com.example.ims.model.Product;
+import com.example.ims.model.PurchaseOrder;
+import com.example.ims.model.Role;
+import com.example.ims.model.SalesOrder;
+import com.example.ims.model.User;
+import com.example.ims.model.Warehouse;
+import com.example.ims.repository.CategoryRepository;
+import com.example.ims.repository.WarehouseRepository;
+import com.example.ims.security.JwtTokenProvider;
+import com.example.ims.service.AlertService;
+import com.example.ims.service.InventoryService;
+import com.example.ims.service.ProductService;
+import com.example.ims.service.PurchaseOrderService;
+import com.example.ims.service.SalesOrderService;
+import com.example.ims.service.UserService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+
+/**
+ * Pins the number of SQL statements each endpoint issues against a small seeded
+ * catalogue. Lower a budget when an N+1 is fixed; raising one needs a reason.
+ *
+ * Run with: mvn -Pit verify -Dit.test=SqlBudgetIT
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:sql_budget;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "app.admin.password=budget",
+    "app.jwt.secret=sqlBudgetSecretKeyThatIsLongEnoughForHmacSha512SignaturesInIntegrationTests0123456789",
+    "app.rollup.interval-ms=86400000",
+    "app.reorder.cron=-",
+    "app.sql-budget.enabled=true",
+    "app.sql-budget.headers=true",
+    "app.sql-budget.fail-on-exceed=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SqlBudgetIT {
+    private static final int PRODUCTS = 6;
+    private static final String CUSTOMER_EMAIL = "budget.customer@ims.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<String, String> ids = new HashMap<>();
+    private final Map<String, String> tokens = new HashMap<>();
+
+    @BeforeAll
+    void seed() {
+        List<Warehouse> warehouses = warehouseRepository.findAll();
+        Category category = categoryRepository.findAll().get(0);
+        Warehouse primary = warehouses.get(0);
+        Warehouse secondary = warehouses.get(1);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Budget Product " + i);
+            product.setSku("BUDGET-" + i);
+            product.setCategory(category);
+            product.setUnitPriceMinor(2000L + i * 100L);
+            product.setCostPriceMinor(1200L + i * 100L);
+            product.setMinimumStockThreshold(10);
+            product.setWarehouseId(primary.getWarehouseId());
+            // Every other product starts below its threshold so alert and reorder paths have rows
+            product.setInitialStock(i % 2 == 0 ? 500 : 4);
+            product.getSpecifications().put("Color", i % 2 == 0 ? "Red" : "Blue");
+            product.getSpecifications().put("Size", "M");
+            products.add(productService.createProduct(product));
+            inventoryService.createInventory(products.get(i).getProductId(), secondary.getWarehouseId(), 50);
+        }
+        Product product = products.get(0);
+        Inventory inventory = inventoryService.getInventoryByProductAndWarehouse(product.getProductId(), primary.getWarehouseId());
+
+        List<Map<String, Object>> salesItems = new ArrayList<>();
+        List<CreatePurchaseOrderItemRequest> purchaseItems = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> salesItem = new HashMap<>();
+            salesItem.put("productId", products.get(i * 2).getProductId());
+            salesItem.put("quantity", 2);
+            salesItem.put("unitPrice", 20.0);
+            salesItems.add(salesItem);
+
+            CreatePurchaseOrderItemRequest purchaseItem = new CreatePurchaseOrderItemRequest();
+            purchaseItem.setProductId(products.get(i).getProductId());
+            purchaseItem.setQuantityOrdered(40);
+            purchaseItem.setUnitPriceMinor(1100L);
+            purchaseItems.add(purchaseItem);
+        }
+        SalesOrder salesOrder = null;
+        for (int i = 0; i < 3; i++) {
+            salesOrder = salesOrderService.createSalesOrder(primary.getWarehouseId(), "Budget Customer", CUSTOMER_EMAIL,
+                "1 Budget Street", "1 Budget Street", null, salesItems);
+        }
+        PurchaseOrder purchaseOrder = null;
+        for (int i = 0; i < 3; i++) {
+            purchaseOrder = purchaseOrderService.createPurchaseOrder(primary.getWarehouseId(), "Budget Supplier",
+                "supplier@ims.com", null, purchaseItems);
+        }
+        Alert alert = alertService.createAlert(products.get(1).getProductId(), primary.getWarehouseId(), 10, null);
+        User customer = userService.createUser("budget_customer", CUSTOMER_EMAIL, "budget-customer", "Budget Customer", Role.CUSTOMER);
+
+        ids.put("productId", product.getProductId());
+        ids.put("sku", product.getSku());
+        ids.put("categoryId", category.getCategoryId());
+        ids.put("categoryName", category.getName());
+        ids.put("warehouseId", primary.getWarehouseId());
+        ids.put("inventoryId", inventory.getInventoryId());
+        ids.put("salesOrderId", salesOrder.getOrderId());
+        ids.put("purchaseOrderId", purchaseOrder.getPoId());
+        String purchaseOrderId = purchaseOrder.getPoId();
+        ids.put("purchaseOrderItemId", transactionTemplate.execute(status ->
+            purchaseOrderService.getPurchaseOrderById(purchaseOrderId).getItems().get(0).getId()));
+        ids.put("alertId", alert.getAlertId());
+        ids.put("userId", customer.getUserId());
+        ids.put("customerEmail", CUSTOMER_EMAIL);
+        ids.put("today", LocalDate.now().toString());
+        ids.put("monthAgo", LocalDate.now().minusDays(30).toString());
+        ids.put("weekAgoTime", OffsetDateTime.now(ZoneOffset.UTC).minusDays(7)
+            .format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX")));
+
+        tokens.put("ADMIN", (String) tokenProvider.generateTokenWithInfo("admin").get("token"));
+        tokens.put("CUSTOMER", (String) tokenProvider.generateTokenWithInfo("budget_customer").get("token"));
+    }
+
+    /**
+     * Method, path, role, budget and optional JSON body. Reads come first; writes are
+     * ordered so each one finds the state it needs (e.g. approve before receive).
+     */
+    Stream<Endpoint> endpoints() {
+        return Stream.of(
+            // Alerts
+            get("/alerts", 41),
+            get("/alerts/{alertId}", 40),
+            get("/alerts/active", 40),
+            get("/alerts/product/{productId}", 2),
+            get("/alerts/warehouse/{warehouseId}", 40),
+            get("/alerts/status/ACTIVE", 40),
+            get("/alerts/created-after?date={weekAgoTime}", 40),
+            get("/alerts/below-threshold", 40),
+            get("/alerts/count/low-stock", 1),
+            get("/alerts/debug/inventory-status", 6),
+
+            // Auth
+            get("/auth/health", 0).as(null),
+            get("/auth/test", 0).as(null),
+
+            // Categories
+            get("/categories", 48),
+            get("/categories/all", 47),
+            get("/categories/{categoryId}", 38),
+
+            // Dashboard
+            get("/dashboard/overview", 4),
+            get("/dashboard/turnover?startDate={monthAgo}&endDate={today}", 4),
+            get("/dashboard/turnover?startDate={monthAgo}&endDate={today}&groupBy=warehouse", 4),
+            get("/dashboard/reorder-recommendations", 1),
+            get("/dashboard/warehouse-utilization", 2),
+            get("/dashboard/alert-metrics", 3),
+            get("/dashboard/inventory-aging", 2),
+
+            // Inventory
+            get("/inventory", 38),
+            get("/inventory/{inventoryId}", 16),
+            get("/inventory/product/{productId}", 18),
+            get("/inventory/warehouse/{warehouseId}", 36),
+            get("/inventory/product/{productId}/total-available", 2),
+            get("/inventory/product/{productId}/warehouse/{warehouseId}", 16),
+            get("/inventory/low-stock", 24),
+
+            // Products
+            get("/products", 33),
+            get("/products/with-inventory", 33),
+            get("/products/{productId}", 18),
+            get("/products/{productId}/with-inventory", 18),
+            get("/products/sku/{sku}", 18),
+            get("/products/category/{categoryName}", 34),
+            get("/products/specification?key=Color&value=Red", 24),
+            get("/products/specification?key=Size", 33),
+            get("/products/search?q=Budget", 33),
+            get("/products/search?q=Budget", 34).as("CUSTOMER"),
+
+            // Purchase orders
+            get("/purchase-orders", 17),
+            get("/purchase-orders/{purchaseOrderId}", 15),
+            get("/purchase-orders/status/PENDING", 17),
+            get("/purchase-orders/warehouse/{warehouseId}", 17),
+            get("/purchase-orders/date-range?startDate={monthAgo}&endDate={today}", 1),
+
+            // Sales orders
+            get("/sales-orders", 10),
+            get("/sales-orders/{salesOrderId}", 8),
+            get("/sales-orders/customer/{customerEmail}", 10),
+            get("/sales-orders/status/PENDING", 10),
+
+            // Users
+            get("/users", 1),
+            get("/users/{userId}", 0),
+            get("/users/test-security", 0),
+
+            // Warehouses
+            get("/warehouses", 57),
+            get("/warehouses/{warehouseId}", 36),
+            get("/warehouses/{warehouseId}/with-products", 2),
+
+            // Writes
+            post("/auth/login", 2, "{\"username\":\"budget_customer\",\"password\":\"budget-customer\"}").as(null),
+            post("/auth/validate", 0, null),
+            post("/sales-orders", 8, "{\"warehouseId\":\"{warehouseId}\",\"customerName\":\"Budget Customer\","
+                + "\"customerEmail\":\"{customerEmail}\",\"items\":[{\"productId\":\"{productId}\",\"quantity\":1,\"unitPrice\":20}]}")
+                .as("CUSTOMER"),
+            put("/sales-orders/{salesOrderId}/status", 36, "{\"status\":\"CONFIRMED\"}"),
+            post("/inventory/{inventoryId}/reserve?quantity=2", 23, null),
+            // Putting the units back into their lots reads the cell's drained lots first
+            post("/inventory/{inventoryId}/release?quantity=1", 22, null),
+            post("/inventory/{inventoryId}/mark-damaged?quantity=1", 22, null),
+            put("/inventory/{inventoryId}/stock?available=400&reserved=1&damaged=1", 22, null),
+            post("/purchase-orders?warehouseId={warehouseId}&supplierName=Budget%20Supplier", 10,
+                "[{\"productId\":\"{productId}\",\"quantityOrdered\":10,\"unitPrice\":11}]"),
+            put("/purchase-orders/{purchaseOrderId}/status?newStatus=APPROVED", 17, null),
+            post("/purchase-orders/{purchaseOrderId}/receive", 22,
+                "[{\"id\":\"{purchaseOrderItemId}\",\"quantityOrdered\":40,\"unitPrice\":11,\"quantityReceived\":40}]"),
+            post("/products", 4, "{\"name\":\"Budget New Product\",\"sku\":\"BUDGET-NEW\",\"unitPrice\":30,"
+                + "\"costPrice\":18,\"category\":{\"categoryId\":\"{categoryId}\"},\"warehouseId\":\"{warehouseId}\",\"initialStock\":25}"),
+            // Changing one specification value is a single UPDATE, not a delete and re-insert of all of them
+            put("/products/{productId}", 23, "{\"name\":\"Budget Product 0\",\"sku\":\"{sku}\",\"unitPrice\":21,"
+                + "\"category\":{\"categoryId\":\"{categoryId}\"},\"specifications\":{\"Color\":\"Red\",\"Size\":\"L\"}}"),
+            post("/categories", 2, "{\"name\":\"Budget Category\",\"description\":\"Seeded by SqlBudgetIT\"}"),
+            post("/warehouses", 1, "{\"name\":\"Budget Warehouse\",\"location\":\"Budget City\"}"),
+            post("/alerts?productId={productId}&warehouseId={warehouseId}&threshold=600", 50, null),
+            post("/alerts/{alertId}/acknowledge", 47, null),
+            post("/alerts/trigger-check", 9, null),
+            post("/dashboard/reorder-recommendations/recalculate", 2, null),
+            post("/users/create-customer", 3, "{\"username\":\"budget_customer_2\",\"email\":\"budget2@ims.com\","
+                + "\"password\":\"budget-customer\",\"fullName\":\"Budget Customer Two\"}")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("endpoints")
+    void staysWithinSqlBudget(Endpoint endpoint) throws Exception {
+        MockHttpServletRequestBuilder builder = request(endpoint.method, resolve(endpoint.path));
+        if (endpoint.role != null) {
+            builder.header("Authorization", "Bearer " + tokens.get(endpoint.role));
+        }
+        if (endpoint.body != null) {
+            builder.contentType(MediaType.APPLICATION_JSON).content(resolve(endpoint.body));
+        }
+
+        MvcResult result = mockMvc.perform(builder).andReturn();
+        int status = result.getResponse().getStatus();
+        String statements = result.getResponse().getHeader(SqlBudgetFilter.STATEMENTS_HEADER);
+
+        assertTrue(status >= 200 && status < 300, endpoint + " returned " + status + ": " + result.getResponse().getContentAsString());
+        assertNotNull(statements, endpoint + " did not report " + SqlBudgetFilter.STATEMENTS_HEADER);
+        System.out.println("SQL BUDGET " + endpoint + " -> " + statements);
+        assertTrue(Integer.parseInt(statements) <= endpoint.budget,
+            endpoint + " issued " + statements + " SQL statements, budget is " + endpoint.budget);
+    }
+
+    private String resolve(String template) {
+        String resolved = template;
+        for (Map.Entry<String, String> id : ids.entrySet()) {
+            resolved = resolved.replace("{" + id.getKey() + "}", id.getValue());
+        }
+        return resolved;
+    }
+
+    private static Endpoint get(String path, int budget) {
+        return new Endpoint(HttpMethod.GET, path, budget, null);
+    }
+
+    private static Endpoint post(String path, int budget, String body) {
+        return new Endpoint(HttpMethod.POST, path, budget, body);
+    }
+
+    private static Endpoint put(String path, int budget, String body) {
+        return new Endpoint(HttpMethod.PUT, path, budget, body);
+    }
+
+    static class Endpoint {
+        final HttpMethod method;
+        final String path;
+        final int budget;
+        final String body;
+        String role = "ADMIN";
+
+        Endpoint(HttpMethod method, String path, int budget, String body) {
+            this.method = method;
+            this.path = path;
+            this.budget = budget;
+            this.body = body;
+        }
+
+        Endpoint as(String role) {
+            this.role = role;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return method + " " + path + (role == null ? "" : " as " + role);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.ims;
+
+import com.example.ims.dto.LiveUpdateEvent;
+import com.example.ims.model.Category;
+import com.example.ims.model.Inventory;
+import com.example.ims.model.Product;
+import com.example.ims.model.Warehouse;
+import com.example.ims.repository.CategoryRepository;
+import com.example.ims.repository.WarehouseRepository;
+import com.example.ims.service.InventoryService;
+import com.example.ims.service.ProductService;
+import com.example.ims.service.SalesOrderService;
+import com.example.ims.service.StockGrid;
+import com.example.ims.service.StockGridService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the stock grid follows committed inventory changes, answers availability
+ * reads without the database, and that the consistency check finds and repairs drift
+ * from changes made behind its back.
+ *
+ * Run with: mvn -Pit verify -Dit.test=StockGridIT
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:stock_grid;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "app.admin.password=grid",
+    "app.jwt.secret=stockGridSecretKeyThatIsLongEnoughForHmacSha512SignaturesInIntegrationTests0123456789ab",
+    "app.rollup.interval-ms=86400000",
+    "app.reorder.cron=-",
+    "app.sql-budget.enabled=false",
+    "app.stock-grid.enabled=true",
+    "app.stock-grid.check-interval-ms=86400000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StockGridIT {
+
+    @Autowired
+    private StockGridService stockGridService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Category category;
+    private String primaryWarehouseId;
+    private String secondaryWarehouseId;
+
+    @BeforeAll
+    void seed() {
+        List<Warehouse> warehouses = warehouseRepository.findAll();
+        category = categoryRepository.findAll().get(0);
+        primaryWarehouseId = warehouses.get(0).getWarehouseId();
+        secondaryWarehouseId = warehouses.get(1).getWarehouseId();
+        assertTrue(stockGridService.isReady());
+    }
+
+    @Test
+    void followsCommittedChangesOnly() {
+        Inventory inventory = createStockedProduct("GRID-1", 100);
+        String productId = inventory.getProduct().getProductId();
+        assertArrayEquals(new int[] {100, 0, 0}, stockGridService.getCounts(productId, primaryWarehouseId));
+
+        inventoryService.reserveStock(inventory.getInventoryId(), 30);
+        inventoryService.markStockAsDamaged(inventory.getInventoryId(), 5);
+        assertArrayEquals(new int[] {65, 30, 5}, stockGridService.getCounts(productId, primaryWarehouseId));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryService.updateStock(inventory.getInventoryId(), 999, 0, 0);
+            status.setRollbackOnly();
+        });
+        assertEquals(65, stockGridService.getAvailable(productId, primaryWarehouseId));
+
+        Map<String, Object> availability = inventoryService.getAvailability(productId, primaryWarehouseId);
+        assertEquals("grid", availability.get("source"));
+        assertEquals(65, availability.get("quantityAvailable"));
+    }
+
+    @Test
+    void aLateEventOfAnOlderCommitDoesNotWin() {
+        Inventory before = createStockedProduct("GRID-7", 40);
+        String productId = before.getProduct().getProductId();
+        inventoryService.reserveStock(before.getInventoryId(), 10);
+
+        // The first commit's listener running after the second one's
+        eventPublisher.publishEvent(LiveUpdateEvent.stock(before));
+
+        assertArrayEquals(new int[] {30, 10, 0}, stockGridService.getCounts(productId, primaryWarehouseId));
+    }
+
+    @Test
+    void sumsAvailabilityAcrossWarehouses() {
+        Inventory primary = createStockedProduct("GRID-2", 40);
+        String productId = primary.getProduct().getProductId();
+        inventoryService.createInventory(productId, secondaryWarehouseId, 25);
+
+        assertEquals(65, inventoryService.getTotalAvailableStock(productId));
+        assertEquals(65, jdbcTemplate.queryForObject(
+            "SELECT SUM(quantity_available) FROM inventory WHERE product_id = ?", Integer.class, productId));
+    }
+
+    @Test
+    void deletedCellsFallBackToTheDatabase() {
+        Inventory inventory = createStockedProduct("GRID-3", 10);
+        String productId = inventory.getProduct().getProductId();
+        inventoryService.deleteInventory(inventory.getInventoryId());
+
+        assertNull(stockGridService.getCounts(productId, primaryWarehouseId));
+        assertThrows(EntityNotFoundException.class,
+            () -> inventoryService.getAvailability(productId, primaryWarehouseId));
+
+        inventoryService.createInventory(productId, primaryWarehouseId, 7);
+        assertEquals(7, stockGridService.getAvailable(productId, primaryWarehouseId));
+    }
+
+    @Test
+    void rejectsOrdersTheGridCannotCover() {
+        Inventory inventory = createStockedProduct("GRID-4", 3);
+        Map<String, Object> item = new HashMap<>();
+        item.put("productId", inventory.getProduct().getProductId());
+        item.put("quantity", 4);
+        item.put("unitPrice", 20.0);
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> salesOrderService.createSalesOrder(
+            primaryWarehouseId, "Grid Customer", "grid@ims.com", "1 Grid Street", "1 Grid Street", null, List.of(item)));
+        assertTrue(error.getMessage().startsWith("Insufficient stock"));
+    }
+
+    @Test
+    void checkRepairsChangesMadeWithSql() {
+        Inventory changed = createStockedProduct("GRID-5", 50);
+        Inventory removed = createStockedProduct("GRID-6", 60);
+        String changedProductId = changed.getProduct().getProductId();
+        String removedProductId = removed.getProduct().getProductId();
+        stockGridService.check(true);
+
+        jdbcTemplate.update("UPDATE inventory SET quantity_available = 5 WHERE inventory_id = ?", changed.getInventoryId());
+        jdbcTemplate.update("DELETE FROM inventory WHERE inventory_id = ?", removed.getInventoryId());
+
+        Map<String, Object> report = stockGridService.check(false);
+        assertEquals(2, report.get("mismatches"));
+        assertEquals(50, stockGridService.getAvailable(changedProductId, primaryWarehouseId));
+
+        stockGridService.check(true);
+        assertEquals(5, stockGridService.getAvailable(changedProductId, primaryWarehouseId));
+        assertNull(stockGridService.getCounts(removedProductId, primaryWarehouseId));
+        assertEquals(0, stockGridService.check(false).get("mismatches"));
+    }
+
+    @Test
+    void gridGrowsPastItsInitialCapacity() {
+        StockGrid grid = new StockGrid(0, 0);
+        for (int product = 0; product < 5000; product++) {
+            for (int warehouse = 2; warehouse >= 0; warehouse--) {
+                grid.put("p" + product, "w" + warehouse, product + warehouse, warehouse, 0);
+            }
+        }
+        assertEquals(15000, grid.getCellCount());
+        assertEquals(4999 * 3 + 3, grid.totalAvailable("p4999"));
+        assertEquals(1236, grid.get("p1234", "w2", StockGrid.AVAILABLE));
+        assertEquals(-1, grid.get("p1234", "w3", StockGrid.AVAILABLE));
+
+        grid.remove("p1234", "w2");
+        assertEquals(14999, grid.getCellCount());
+        int[] warehouses = {0};
+        grid.forEachWarehouse("p1234", (warehouseId, available, reserved, damaged) -> warehouses[0]++);
+        assertEquals(2, warehouses[0]);
+    }
+
+    private Inventory createStockedProduct(String sku, int stock) {
+        Product product = new Product();
+        product.setName("Grid Product " + sku);
+        product.setSku(sku);
+        product.setCategory(category);
+        product.setUnitPriceMinor(2000L);
+        product.setCostPriceMinor(1200L);
+        product.setMinimumStockThreshold(1);
+        product.setWarehouseId(primaryWarehouseId);
+        product.setInitialStock(stock);
+        product = productService.createProduct(product);
+        return inventoryService.getInventoryByProductAndWarehouse(product.getProductId(), primaryWarehouseId);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.ims.benchmark;
+
+import com.example.ims.model.Alert;
+import com.example.ims.model.AlertStatus;
+import com.example.ims.model.Product;
+import com.example.ims.model.Warehouse;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts per second through Hibernate with and without JDBC batching.
+ * Scores are rows/s; batchSize=1 is the unbatched baseline.
+ *
+ * Runs on H2 by default. Point it at a scratch PostgreSQL database (the schema is recreated)
+ * with -p jdbcUrl=... -p jdbcUsername=... -p jdbcPassword=... and compare
+ * -p rewriteBatchedInserts=false,true to see the driver's multi-row rewrite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class BatchInsertBenchmark {
+    private static final int ROWS = 1000;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param({""})
+    public String jdbcUrl;
+
+    @Param({""})
+    public String jdbcUsername;
+
+    @Param({""})
+    public String jdbcPassword;
+
+    @Param({"true"})
+    public boolean rewriteBatchedInserts;
+
+    private ConfigurableApplicationContext context;
+    private BenchmarkDataSeeder.SeededData data;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, String> overrides = new HashMap<>();
+        if (!jdbcUrl.isEmpty()) {
+            overrides.put("spring.datasource.url", jdbcUrl);
+            overrides.put("spring.datasource.username", jdbcUsername);
+            overrides.put("spring.datasource.password", jdbcPassword);
+            overrides.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            overrides.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            overrides.put("spring.datasource.hikari.data-source-properties.reWriteBatchedInserts",
+                String.valueOf(rewriteBatchedInserts));
+        }
+        overrides.put("spring.jpa.properties.hibernate.order_inserts", "true");
+
+        context = BenchmarkApplication.start(overrides);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        data = new BenchmarkDataSeeder(jdbcTemplate).seed(1000);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        entityManager = context.getBean(EntityManager.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearAlerts() {
+        jdbcTemplate.update("DELETE FROM alerts");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertAlerts() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            for (int i = 0; i < ROWS; i++) {
+                int cell = i % data.productIds.length;
+                Alert alert = new Alert();
+                alert.setProduct(entityManager.getReference(Product.class, data.productIds[cell]));
+                alert.setWarehouse(entityManager.getReference(Warehouse.class, data.cellWarehouseIds[cell]));
+                alert.setThreshold(10);
+                alert.setCurrentStock(5);
+                alert.setSuggestedReorderQuantity(15);
+                alert.setOptimalStockLevel(20);
+                alert.setStatus(AlertStatus.ACTIVE);
+                alert.setNotes("Benchmark alert");
+                entityManager.persist(alert);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.ims.benchmark;
+
+import com.example.ims.ImsApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Boots the full application against an in-memory H2 database in PostgreSQL
+ * compatibility mode, so benchmarks exercise the real services and repositories.
+ */
+public final class BenchmarkApplication {
+    public static final String ADMIN_PASSWORD = "benchmark";
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start() {
+        return start(Map.of());
+    }
+
+    /**
+     * Starts the application with the given properties replacing the H2 defaults
+     */
+    public static ConfigurableApplicationContext start(Map<String, String> overrides) {
+        String database = "ims_bench_" + UUID.randomUUID().toString().replace("-", "");
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:" + database
+            + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.example.ims", "WARN");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        properties.put("app.admin.password", ADMIN_PASSWORD);
+        properties.put("app.jwt.secret", "benchmarkSecretKeyThatIsLongEnoughForHmacSha512SignaturesInJmhRuns0123456789");
+        properties.put("app.rollup.interval-ms", "86400000");
+        properties.put("app.reorder.cron", "-");
+        properties.put("app.sql-budget.enabled", "false");
+        properties.putAll(overrides);
+
+        String[] args = properties.entrySet().stream()
+            .map(property -> "--" + property.getKey() + "=" + property.getValue())
+            .toArray(String[]::new);
+        return new SpringApplication(ImsApplication.class).run(args);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.ims.benchmark;
+
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bulk-loads products, inventory cells, stock lots and one day of sales history
+ * with batched JDBC inserts, bypassing JPA so millions of rows seed quickly.
+ */
+public class BenchmarkDataSeeder {
+    private static final int BATCH_SIZE = 5000;
+
+    // Every 20th cell starts below its threshold so low-stock paths have work to do
+    private static final int LOW_STOCK_EVERY = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BenchmarkDataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public SeededData seed(int productCount) {
+        return seed(productCount, "BENCH");
+    }
+
+    /**
+     * Seeds with the given SKU prefix so repeated runs against a persistent database do not collide
+     */
+    public SeededData seed(int productCount, String skuPrefix) {
+        List<String> categoryIds = jdbcTemplate.queryForList("SELECT category_id FROM categories", String.class);
+        List<String> warehouseIds = jdbcTemplate.queryForList("SELECT warehouse_id FROM warehouses", String.class);
+
+        SeededData data = new SeededData(productCount, warehouseIds.toArray(new String[0]));
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Date yesterday = Date.valueOf(LocalDate.now().minusDays(1));
+
+        List<Object[]> products = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> inventories = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> lots = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> movements = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < productCount; i++) {
+            String productId = TimeOrderedUuidGenerator.nextString();
+            String inventoryId = TimeOrderedUuidGenerator.nextString();
+            String warehouseId = warehouseIds.get(i % warehouseIds.size());
+            double unitPrice = 10 + (i % 500);
+            int available = i % LOW_STOCK_EVERY == 0 ? 5 : 1_000_000;
+
+            products.add(new Object[] {
+                productId, "Benchmark Product " + i, "Seeded product " + i,
+                categoryIds.get(i % categoryIds.size()), "Brand " + (i % 100), "Model " + (i % 1000),
+                String.format("%s-%07d", skuPrefix, i), unitPrice, unitPrice * 0.6, 10, now, now
+            });
+            inventories.add(new Object[] {inventoryId, productId, warehouseId, available, 0, 0, now});
+            lots.add(new Object[] {TimeOrderedUuidGenerator.nextString(), productId, warehouseId, available, available, unitPrice * 0.6, now});
+            movements.add(new Object[] {TimeOrderedUuidGenerator.nextString(), productId, warehouseId, yesterday, 1 + i % 7, unitPrice * (1 + i % 7)});
+
+            data.productIds[i] = productId;
+            data.inventoryIds[i] = inventoryId;
+            data.cellWarehouseIds[i] = warehouseId;
+
+            if (products.size() == BATCH_SIZE) {
+                flush(products, inventories, lots, movements);
+            }
+        }
+        flush(products, inventories, lots, movements);
+
+        return data;
+    }
+
+    private void flush(List<Object[]> products, List<Object[]> inventories, List<Object[]> lots, List<Object[]> movements) {
+        if (products.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (product_id, name, description, category_id, brand, model, sku, " +
+            "unit_price, cost_price, minimum_stock_threshold, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", products);
+        jdbcTemplate.batchUpdate("INSERT INTO inventory (inventory_id, product_id, warehouse_id, quantity_available, " +
+            "quantity_reserved, quantity_damaged, last_updated) VALUES (?, ?, ?, ?, ?, ?, ?)", inventories);
+        jdbcTemplate.batchUpdate("INSERT INTO stock_lots (lot_id, product_id, warehouse_id, quantity_received, " +
+            "quantity_remaining, unit_cost, received_at) VALUES (?, ?, ?, ?, ?, ?, ?)", lots);
+        jdbcTemplate.batchUpdate("INSERT INTO daily_stock_movements (id, product_id, warehouse_id, bucket_date, " +
+            "quantity_sold, sales_amount, quantity_received, purchase_amount) VALUES (?, ?, ?, ?, ?, ?, 0, 0)", movements);
+        products.clear();
+        inventories.clear();
+        lots.clear();
+        movements.clear();
+    }
+
+    public static final class SeededData {
+        public final String[] productIds;
+        public final String[] inventoryIds;
+        public final String[] cellWarehouseIds;
+        public final String[] warehouseIds;
+
+        SeededData(int productCount, String[] warehouseIds) {
+            this.productIds = new String[productCount];
+            this.inventoryIds = new String[productCount];
+            this.cellWarehouseIds = new String[productCount];
+            this.warehouseIds = warehouseIds;
+        }
+
+        /**
+         * Index of a random cell that was seeded with ample stock
+         */
+        public int randomStockedCell(ThreadLocalRandom random) {
+            int index = random.nextInt(productIds.length);
+            return index % LOW_STOCK_EVERY == 0 ? (index + 1) % productIds.length : index;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.ims.benchmark;
+
+import com.example.ims.model.SalesOrder;
+import com.example.ims.security.JwtTokenProvider;
+import com.example.ims.service.AlertService;
+import com.example.ims.service.DashboardService;
+import com.example.ims.service.InventoryService;
+import com.example.ims.service.ProductService;
+import com.example.ims.service.ReorderPlanningService;
+import com.example.ims.service.SalesOrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer hot paths against a seeded catalog.
+ * Scale is the number of SKUs; pass -p scale=10000,100000,1000000 to compare.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class ServiceBenchmark {
+
+    @Param({"10000"})
+    public int scale;
+
+    private ConfigurableApplicationContext context;
+    private BenchmarkDataSeeder.SeededData data;
+    private TransactionTemplate transactionTemplate;
+
+    private InventoryService inventoryService;
+    private SalesOrderService salesOrderService;
+    private AlertService alertService;
+    private DashboardService dashboardService;
+    private ProductService productService;
+    private ReorderPlanningService reorderPlanningService;
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        data = new BenchmarkDataSeeder(context.getBean(JdbcTemplate.class)).seed(scale);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        inventoryService = context.getBean(InventoryService.class);
+        salesOrderService = context.getBean(SalesOrderService.class);
+        alertService = context.getBean(AlertService.class);
+        dashboardService = context.getBean(DashboardService.class);
+        productService = context.getBean(ProductService.class);
+        reorderPlanningService = context.getBean(ReorderPlanningService.class);
+        jwtTokenProvider = context.getBean(JwtTokenProvider.class);
+        token = jwtTokenProvider.generateTokenFromUsername("admin");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object reserveStock() {
+        int cell = data.randomStockedCell(ThreadLocalRandom.current());
+        return inventoryService.reserveStock(data.inventoryIds[cell], 1);
+    }
+
+    @Benchmark
+    public SalesOrder createSalesOrder() {
+        int cell = data.randomStockedCell(ThreadLocalRandom.current());
+
+        Map<String, Object> item = new HashMap<>();
+        item.put("productId", data.productIds[cell]);
+        item.put("quantity", 1);
+        item.put("unitPrice", 10.0);
+
+        return salesOrderService.createSalesOrder(data.cellWarehouseIds[cell], "Benchmark Customer",
+            "bench@ims.com", "Shipping", "Billing", null, List.of(item));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void checkLowStockLevels() {
+        alertService.checkLowStockLevelsInternal();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<String, Object> inventoryOverview() {
+        // Runs in a transaction the way open-in-view wraps it for HTTP requests
+        return transactionTemplate.execute(status -> dashboardService.getInventoryOverview());
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object searchProducts() {
+        return productService.searchProducts("Product " + ThreadLocalRandom.current().nextInt(scale));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public int recalculateReorderPlans() {
+        return reorderPlanningService.recalculateAll();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.ims.benchmark;
+
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts per second into an inventory-shaped table (primary key plus two indexed
+ * foreign-key columns) for each way of storing ids, and the size of its indexes afterwards.
+ * Scores are rows/s.
+ *
+ * VARCHAR_V4 is the old layout (uuid2 strings in VARCHAR(36)), UUID_V4 the native type
+ * with random ids and UUID_V7 the native type with time-ordered ids, so the type and the
+ * ordering can be told apart. The table starts with seedRows rows so inserts land in
+ * indexes that no longer fit a few pages; index sizes are printed when the trial ends.
+ *
+ * Runs on H2 by default, where only insert rates are meaningful. Point it at a scratch
+ * PostgreSQL database (the table is recreated) with -p jdbcUrl=... -p jdbcUsername=...
+ * -p jdbcPassword=... for index sizes from pg_relation_size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class UuidStorageBenchmark {
+    private static final int ROWS = 1000;
+    private static final String TABLE = "uuid_storage_bench";
+
+    public enum IdLayout { VARCHAR_V4, UUID_V4, UUID_V7 }
+
+    @Param({"VARCHAR_V4", "UUID_V4", "UUID_V7"})
+    public IdLayout layout;
+
+    @Param({"200000"})
+    public int seedRows;
+
+    @Param({""})
+    public String jdbcUrl;
+
+    @Param({""})
+    public String jdbcUsername;
+
+    @Param({""})
+    public String jdbcPassword;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private boolean postgres;
+    // Referenced ids, as a product and warehouse table would hold them
+    private Object[] productIds;
+    private Object[] warehouseIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        if (jdbcUrl.isEmpty()) {
+            connection = DriverManager.getConnection(
+                "jdbc:h2:mem:uuid_bench_" + layout + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        } else {
+            connection = DriverManager.getConnection(jdbcUrl, jdbcUsername, jdbcPassword);
+        }
+        postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        connection.setAutoCommit(false);
+
+        String type = layout == IdLayout.VARCHAR_V4 ? "VARCHAR(36)" : "UUID";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " (inventory_id " + type + " PRIMARY KEY, product_id " + type
+                + " NOT NULL, warehouse_id " + type + " NOT NULL, quantity_available INTEGER NOT NULL)");
+            statement.execute("CREATE INDEX idx_" + TABLE + "_product ON " + TABLE + " (product_id)");
+            statement.execute("CREATE INDEX idx_" + TABLE + "_warehouse ON " + TABLE + " (warehouse_id)");
+        }
+        connection.commit();
+
+        productIds = new Object[Math.max(1, seedRows / 10)];
+        for (int i = 0; i < productIds.length; i++) {
+            productIds[i] = nextId();
+        }
+        warehouseIds = new Object[20];
+        for (int i = 0; i < warehouseIds.length; i++) {
+            warehouseIds[i] = nextId();
+        }
+
+        insert = connection.prepareStatement("INSERT INTO " + TABLE
+            + " (inventory_id, product_id, warehouse_id, quantity_available) VALUES (?, ?, ?, ?)");
+        for (int seeded = 0; seeded < seedRows; seeded += ROWS) {
+            insertRows(Math.min(ROWS, seedRows - seeded));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        System.out.println();
+        System.out.println(layout + " after " + count() + " rows: " + indexSizes());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertRows() throws SQLException {
+        insertRows(ROWS);
+    }
+
+    private void insertRows(int rows) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < rows; i++) {
+            insert.setObject(1, nextId());
+            insert.setObject(2, productIds[random.nextInt(productIds.length)]);
+            insert.setObject(3, warehouseIds[random.nextInt(warehouseIds.length)]);
+            insert.setInt(4, random.nextInt(1000));
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private Object nextId() {
+        return switch (layout) {
+            case VARCHAR_V4 -> UUID.randomUUID().toString();
+            case UUID_V4 -> UUID.randomUUID();
+            case UUID_V7 -> TimeOrderedUuidGenerator.next();
+        };
+    }
+
+    private long count() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + TABLE)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private String indexSizes() throws SQLException {
+        if (!postgres) {
+            return "index sizes need PostgreSQL";
+        }
+        StringBuilder sizes = new StringBuilder();
+        String[] indexes = {TABLE + "_pkey", "idx_" + TABLE + "_product", "idx_" + TABLE + "_warehouse"};
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_relation_size(?::regclass)")) {
+            for (String index : indexes) {
+                statement.setString(1, index);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    sizes.append(index).append(' ').append(rs.getLong(1) / 1024).append(" KB, ");
+                }
+            }
+        }
+        connection.commit();
+        return sizes.substring(0, sizes.length() - 2);
+    }
+}
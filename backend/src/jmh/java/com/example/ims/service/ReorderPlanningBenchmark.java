@@ -0,0 +1,43 @@
+package com.example.ims.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of the fork/join planning pass alone, without database I/O.
+ * ServiceBenchmark.recalculateReorderPlans covers the end-to-end recompute.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReorderPlanningBenchmark {
+
+    @Param({"1000000"})
+    public int cells;
+
+    private ReorderPlanningService.CellBatch batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        batch = new ReorderPlanningService.CellBatch(cells);
+        for (int i = 0; i < cells; i++) {
+            long sold = random.nextInt(500);
+            batch.thresholds[i] = 10;
+            batch.unitsSold[i] = sold;
+            batch.unitsSoldSquared[i] = sold * (1 + random.nextInt(20));
+        }
+    }
+
+    @Benchmark
+    public ReorderPlanningService.CellBatch planAllCells() {
+        ForkJoinPool.commonPool().invoke(new ReorderPlanningService.PlanTask(batch, 0, batch.size, 90, 7, 14, 1.65));
+        return batch;
+    }
+}
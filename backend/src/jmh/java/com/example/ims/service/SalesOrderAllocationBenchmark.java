@@ -0,0 +1,92 @@
+package com.example.ims.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders allocated per second against an in-memory grid, without database I/O.
+ * Each SKU is stocked in warehousesPerSku random warehouses with 0-40 units, so
+ * larger lines often have to be split.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SalesOrderAllocationBenchmark {
+    private static final int ORDERS = 4096;
+
+    @Param({"1000"})
+    public int warehouses;
+
+    @Param({"100000"})
+    public int skus;
+
+    @Param({"20"})
+    public int warehousesPerSku;
+
+    @Param({"5"})
+    public int linesPerOrder;
+
+    private StockGrid grid;
+    private String[][] orderProducts;
+    private int[][] orderQuantities;
+    private String[] preferredWarehouses;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] warehouseIds = new String[warehouses];
+        for (int w = 0; w < warehouses; w++) {
+            warehouseIds[w] = "warehouse-" + w;
+        }
+        String[] skuIds = new String[skus];
+        grid = new StockGrid(skus * warehousesPerSku, skus);
+        for (int s = 0; s < skus; s++) {
+            skuIds[s] = "sku-" + s;
+            Set<Integer> stocked = new HashSet<>();
+            while (stocked.size() < Math.min(warehousesPerSku, warehouses)) {
+                stocked.add(random.nextInt(warehouses));
+            }
+            for (int w : stocked) {
+                grid.put(skuIds[s], warehouseIds[w], random.nextInt(41), 0, 0);
+            }
+        }
+
+        orderProducts = new String[ORDERS][];
+        orderQuantities = new int[ORDERS][];
+        preferredWarehouses = new String[ORDERS];
+        for (int o = 0; o < ORDERS; o++) {
+            Set<Integer> lines = new HashSet<>();
+            while (lines.size() < linesPerOrder) {
+                lines.add(random.nextInt(skus));
+            }
+            orderProducts[o] = new String[linesPerOrder];
+            orderQuantities[o] = new int[linesPerOrder];
+            int line = 0;
+            for (int s : lines) {
+                orderProducts[o][line] = skuIds[s];
+                orderQuantities[o][line] = 1 + random.nextInt(50);
+                line++;
+            }
+            preferredWarehouses[o] = warehouseIds[random.nextInt(warehouses)];
+        }
+    }
+
+    @Benchmark
+    public Object allocateOrder() {
+        int order = next++ & (ORDERS - 1);
+        try {
+            return SalesOrderAllocator.allocate(grid, orderProducts[order], orderQuantities[order], preferredWarehouses[order]);
+        } catch (IllegalStateException e) {
+            // Short SKUs are part of the mix; rejecting them is the same walk over the candidates
+            return e;
+        }
+    }
+}
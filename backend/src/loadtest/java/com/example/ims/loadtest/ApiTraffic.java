@@ -0,0 +1,132 @@
+package com.example.ims.loadtest;
+
+import com.example.ims.benchmark.BenchmarkDataSeeder.SeededData;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Issues one request per call against the seeded catalogue. Orders created here
+ * queue up so confirmation traffic always works on real pending orders.
+ */
+public class ApiTraffic {
+    // Cap on orders waiting for confirmation so a create-heavy mix cannot grow without bound
+    private static final int MAX_PENDING_ORDERS = 10_000;
+
+    private static final List<String> DASHBOARD_PATHS = List.of(
+        "/dashboard/overview",
+        "/dashboard/reorder-recommendations",
+        "/dashboard/warehouse-utilization",
+        "/dashboard/alert-metrics",
+        "/dashboard/inventory-aging",
+        "/dashboard/turnover?startDate=" + LocalDate.now().minusDays(30) + "&endDate=" + LocalDate.now() + "&groupBy=category"
+    );
+
+    private final ImsClient client;
+    private final SeededData data;
+    private final String adminToken;
+    private final String customerToken;
+    private final Queue<String> pendingOrders = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    public ApiTraffic(ImsClient client, SeededData data, String adminToken, String customerToken) {
+        this.client = client;
+        this.data = data;
+        this.adminToken = adminToken;
+        this.customerToken = customerToken;
+    }
+
+    /**
+     * Confirmation needs a pending order; until one exists the slot is spent creating one
+     */
+    public Operation resolve(Operation operation) {
+        if (operation == Operation.CONFIRM_ORDER && pendingCount.get() == 0) {
+            return Operation.CREATE_ORDER;
+        }
+        return operation;
+    }
+
+    /**
+     * Returns the HTTP status, or -1 if the request did not complete
+     */
+    public int execute(Operation operation, ThreadLocalRandom random) {
+        try {
+            switch (operation) {
+                case CREATE_ORDER:
+                    return createOrder(random);
+                case CONFIRM_ORDER:
+                    return confirmOrder(random);
+                case RESERVE_STOCK:
+                    return reserveStock(random);
+                case SEARCH_PRODUCTS:
+                    return searchProducts(random);
+                case DASHBOARD:
+                    return pollDashboard(random);
+                default:
+                    throw new IllegalArgumentException("Unsupported operation: " + operation);
+            }
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private int createOrder(ThreadLocalRandom random) throws IOException, InterruptedException {
+        int cell = data.randomStockedCell(random);
+        Map<String, Object> item = Map.of(
+            "productId", data.productIds[cell],
+            "quantity", 1 + random.nextInt(3),
+            "unitPrice", 10 + (cell % 500));
+        Map<String, Object> order = Map.of(
+            "warehouseId", data.cellWarehouseIds[cell],
+            "customerName", "Load Test Customer",
+            "customerEmail", "customer" + random.nextInt(1000) + "@loadtest.local",
+            "shippingAddress", "1 Load Test Way",
+            "billingAddress", "1 Load Test Way",
+            "items", List.of(item));
+
+        HttpResponse<String> response = client.send(client.post("/sales-orders", customerToken, order));
+        if (response.statusCode() == 200 && pendingCount.get() < MAX_PENDING_ORDERS) {
+            JsonNode body = client.readTree(response.body());
+            pendingOrders.add(body.get("orderId").asText());
+            pendingCount.incrementAndGet();
+        }
+        return response.statusCode();
+    }
+
+    private int confirmOrder(ThreadLocalRandom random) throws IOException, InterruptedException {
+        String orderId = pendingOrders.poll();
+        if (orderId == null) {
+            return createOrder(random);
+        }
+        pendingCount.decrementAndGet();
+        return client.send(client.put("/sales-orders/" + orderId + "/status", adminToken,
+            Map.of("status", "CONFIRMED"))).statusCode();
+    }
+
+    private int reserveStock(ThreadLocalRandom random) throws IOException, InterruptedException {
+        int cell = data.randomStockedCell(random);
+        return client.send(client.post("/inventory/" + data.inventoryIds[cell] + "/reserve?quantity=1",
+            adminToken, null)).statusCode();
+    }
+
+    private int searchProducts(ThreadLocalRandom random) throws IOException, InterruptedException {
+        String term = "Product " + random.nextInt(data.productIds.length);
+        return client.send(client.get("/products/search?q=" + ImsClient.encode(term), customerToken)).statusCode();
+    }
+
+    private int pollDashboard(ThreadLocalRandom random) throws IOException, InterruptedException {
+        String path = DASHBOARD_PATHS.get(random.nextInt(DASHBOARD_PATHS.size()));
+        return client.send(client.get(path, adminToken)).statusCode();
+    }
+}
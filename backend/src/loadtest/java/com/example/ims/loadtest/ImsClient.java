@@ -0,0 +1,94 @@
+package com.example.ims.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Thin HTTP client for the IMS REST API, shared by all simulated clients.
+ */
+public class ImsClient {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    public ImsClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    public String login(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/auth/login", null,
+            Map.of("username", username, "password", password)));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": HTTP " + response.statusCode() + " " + response.body());
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    public void createCustomer(String adminToken, String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/users/create-customer", adminToken, Map.of(
+            "username", username,
+            "email", username + "@loadtest.local",
+            "password", password,
+            "fullName", "Load Test Customer")));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Customer creation failed: HTTP " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    public HttpRequest get(String path, String token) {
+        return builder(path, token).GET().build();
+    }
+
+    public HttpRequest post(String path, String token, Object body) throws IOException {
+        return builder(path, token)
+            .header("Content-Type", "application/json")
+            .POST(body == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+            .build();
+    }
+
+    public HttpRequest put(String path, String token, Object body) throws IOException {
+        return builder(path, token)
+            .header("Content-Type", "application/json")
+            .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+            .build();
+    }
+
+    public HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    public JsonNode readTree(String body) throws IOException {
+        return objectMapper.readTree(body);
+    }
+
+    public static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private HttpRequest.Builder builder(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
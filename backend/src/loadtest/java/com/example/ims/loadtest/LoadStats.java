@@ -0,0 +1,112 @@
+package com.example.ims.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency and error recording. Workers write into HdrHistogram
+ * recorders without locking; the reporter drains interval histograms and folds
+ * them into the run totals once warmup is over.
+ */
+public class LoadStats {
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<Operation, Recorder> successRecorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Recorder> errorRecorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> successTotals = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> errorTotals = new EnumMap<>(Operation.class);
+    private final Map<String, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+
+    private volatile boolean measuring;
+    private long measureStartNanos;
+    private long measureEndNanos;
+
+    public LoadStats() {
+        for (Operation operation : Operation.values()) {
+            successRecorders.put(operation, new Recorder(SIGNIFICANT_DIGITS));
+            errorRecorders.put(operation, new Recorder(SIGNIFICANT_DIGITS));
+            successTotals.put(operation, new Histogram(SIGNIFICANT_DIGITS));
+            errorTotals.put(operation, new Histogram(SIGNIFICANT_DIGITS));
+        }
+    }
+
+    /**
+     * Records one request; status is the HTTP status code, or -1 when the request failed to complete
+     */
+    public void record(Operation operation, long latencyMicros, int status) {
+        long value = Math.max(1, latencyMicros);
+        if (status >= 200 && status < 300) {
+            successRecorders.get(operation).recordValue(value);
+        } else {
+            errorRecorders.get(operation).recordValue(value);
+            if (measuring) {
+                errorsByStatus.computeIfAbsent(operation.getKey() + " " + status, key -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    /**
+     * Discards everything recorded during warmup and starts the measured window
+     */
+    public synchronized void startMeasuring() {
+        for (Operation operation : Operation.values()) {
+            successRecorders.get(operation).getIntervalHistogram();
+            errorRecorders.get(operation).getIntervalHistogram();
+        }
+        measureStartNanos = System.nanoTime();
+        measuring = true;
+    }
+
+    public synchronized void stopMeasuring() {
+        drain();
+        measureEndNanos = System.nanoTime();
+        measuring = false;
+    }
+
+    /**
+     * Moves the latest interval into the totals and returns it for progress reporting
+     */
+    public synchronized Map<Operation, Histogram> drain() {
+        Map<Operation, Histogram> interval = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            Histogram successes = successRecorders.get(operation).getIntervalHistogram();
+            Histogram errors = errorRecorders.get(operation).getIntervalHistogram();
+            if (measuring) {
+                successTotals.get(operation).add(successes);
+                errorTotals.get(operation).add(errors);
+            }
+            Histogram all = successes.copy();
+            all.add(errors);
+            interval.put(operation, all);
+        }
+        return interval;
+    }
+
+    public boolean isMeasuring() {
+        return measuring;
+    }
+
+    public double getMeasuredSeconds() {
+        return (measureEndNanos - measureStartNanos) / 1_000_000_000.0;
+    }
+
+    public Histogram getSuccesses(Operation operation) {
+        return successTotals.get(operation);
+    }
+
+    public Histogram getErrors(Operation operation) {
+        return errorTotals.get(operation);
+    }
+
+    public Map<String, Long> getErrorsByStatus() {
+        Map<String, Long> result = new TreeMap<>();
+        errorsByStatus.forEach((key, count) -> result.put(key, count.sum()));
+        return result;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.ims.loadtest;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load test settings parsed from {@code key=value} program arguments.
+ *
+ * <pre>
+ * baseUrl=          target server; empty boots the application in-process on H2
+ * jdbcUrl=          database of an external target, used by the bulk seeder
+ * jdbcUsername=     jdbcPassword=
+ * adminUsername=admin  adminPassword=
+ * products=100000   products and inventory cells to seed
+ * threads=200       concurrent simulated clients
+ * duration=60       measured seconds, after warmup
+ * warmup=15         seconds of traffic discarded before measuring
+ * rate=0            total requests per second; 0 runs each client closed-loop
+ * virtualThreads=true  use virtual threads when the JVM provides them
+ * serverVirtualThreads=false  in-process server on virtual threads (Java 21+)
+ * serverPoolSize=10 in-process connection pool size
+ * serverMaxRequests=200  in-process concurrent request limit with virtual threads
+ * mix=createOrder:30,confirmOrder:10,reserve:25,search:25,dashboard:10
+ * reportInterval=10 seconds between progress lines
+ * report=target/loadtest-results.json
+ * </pre>
+ */
+public class LoadTestConfig {
+    private final Map<String, String> values;
+    private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    private final int totalWeight;
+
+    private LoadTestConfig(Map<String, String> values) {
+        this.values = values;
+
+        String mixSpec = values.get("mix");
+        if (mixSpec == null || mixSpec.isBlank()) {
+            for (Operation operation : Operation.values()) {
+                mix.put(operation, operation.getDefaultWeight());
+            }
+        } else {
+            for (String entry : mixSpec.split(",")) {
+                String[] parts = entry.trim().split(":");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Mix entries must look like name:weight, got " + entry);
+                }
+                mix.put(Operation.fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+        }
+
+        int total = 0;
+        for (int weight : mix.values()) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weights must not be negative");
+            }
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Mix must contain at least one positive weight");
+        }
+        this.totalWeight = total;
+    }
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Arguments must look like key=value, got " + arg);
+            }
+            values.put(arg.substring(0, separator).trim(), arg.substring(separator + 1).trim());
+        }
+        return new LoadTestConfig(values);
+    }
+
+    public boolean isInProcess() {
+        return getBaseUrl().isEmpty();
+    }
+
+    public String getBaseUrl() {
+        return string("baseUrl", "");
+    }
+
+    public String getJdbcUrl() {
+        return string("jdbcUrl", "");
+    }
+
+    public String getJdbcUsername() {
+        return string("jdbcUsername", "");
+    }
+
+    public String getJdbcPassword() {
+        return string("jdbcPassword", "");
+    }
+
+    public String getAdminUsername() {
+        return string("adminUsername", "admin");
+    }
+
+    public String getAdminPassword() {
+        return string("adminPassword", "");
+    }
+
+    public int getProducts() {
+        return integer("products", 100_000);
+    }
+
+    public int getThreads() {
+        return integer("threads", 200);
+    }
+
+    public int getDurationSeconds() {
+        return integer("duration", 60);
+    }
+
+    public int getWarmupSeconds() {
+        return integer("warmup", 15);
+    }
+
+    public double getRate() {
+        return Double.parseDouble(string("rate", "0"));
+    }
+
+    public boolean isVirtualThreads() {
+        return Boolean.parseBoolean(string("virtualThreads", "true"));
+    }
+
+    public boolean isServerVirtualThreads() {
+        return Boolean.parseBoolean(string("serverVirtualThreads", "false"));
+    }
+
+    public int getServerPoolSize() {
+        return integer("serverPoolSize", 10);
+    }
+
+    public int getServerMaxRequests() {
+        return integer("serverMaxRequests", 200);
+    }
+
+    public int getReportIntervalSeconds() {
+        return integer("reportInterval", 10);
+    }
+
+    public String getReportFile() {
+        return string("report", "target/loadtest-results.json");
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    /**
+     * Draws the next operation according to the configured weights
+     */
+    public Operation nextOperation(ThreadLocalRandom random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Mix weights changed while running");
+    }
+
+    private String string(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    private int integer(String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.ims.loadtest;
+
+import com.example.ims.benchmark.BenchmarkApplication;
+import com.example.ims.benchmark.BenchmarkDataSeeder;
+import com.example.ims.benchmark.BenchmarkDataSeeder.SeededData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a weighted mix of order, stock, search and dashboard traffic against
+ * the REST API and reports throughput, latency percentiles and error rates.
+ *
+ * <p>With no {@code baseUrl} the application is booted in-process on H2;
+ * otherwise {@code jdbcUrl} must point at the target's database so the bulk
+ * seeder can load the catalogue directly. See {@link LoadTestConfig} for all
+ * arguments.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        String runId = Long.toString(System.currentTimeMillis(), 36).toUpperCase();
+
+        ConfigurableApplicationContext context = null;
+        try {
+            String baseUrl;
+            String adminPassword;
+            JdbcTemplate jdbcTemplate;
+
+            if (config.isInProcess()) {
+                context = BenchmarkApplication.start(serverProperties(config));
+                baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                adminPassword = BenchmarkApplication.ADMIN_PASSWORD;
+                jdbcTemplate = context.getBean(JdbcTemplate.class);
+            } else {
+                if (config.getJdbcUrl().isEmpty() || config.getAdminPassword().isEmpty()) {
+                    throw new IllegalArgumentException("An external baseUrl also needs jdbcUrl and adminPassword");
+                }
+                baseUrl = config.getBaseUrl();
+                adminPassword = config.getAdminPassword();
+                jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                    config.getJdbcUrl(), config.getJdbcUsername(), config.getJdbcPassword()));
+            }
+
+            long seedStart = System.nanoTime();
+            SeededData data = new BenchmarkDataSeeder(jdbcTemplate).seed(config.getProducts(), "LOAD" + runId);
+            double seedSeconds = (System.nanoTime() - seedStart) / 1_000_000_000.0;
+            System.out.printf("Seeded %,d products and inventory cells in %.1f s (%,.0f cells/s)%n",
+                config.getProducts(), seedSeconds, config.getProducts() / seedSeconds);
+
+            ImsClient client = new ImsClient(baseUrl);
+            String adminToken = client.login(config.getAdminUsername(), adminPassword);
+            String customerUsername = "loadtest_" + runId.toLowerCase();
+            String customerPassword = "LoadTest-" + runId;
+            client.createCustomer(adminToken, customerUsername, customerPassword);
+            String customerToken = client.login(customerUsername, customerPassword);
+
+            ApiTraffic traffic = new ApiTraffic(client, data, adminToken, customerToken);
+            LoadStats stats = run(config, traffic);
+            report(config, stats);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * In-process server settings, so platform and virtual thread runs can be compared
+     * against the same connection pool
+     */
+    private static Map<String, String> serverProperties(LoadTestConfig config) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("spring.datasource.hikari.maximum-pool-size", String.valueOf(config.getServerPoolSize()));
+        if (config.isServerVirtualThreads()) {
+            properties.put("app.virtual-threads.enabled", "true");
+            properties.put("app.virtual-threads.max-concurrent-requests", String.valueOf(config.getServerMaxRequests()));
+        }
+        System.out.println("In-process server on " + (config.isServerVirtualThreads() ? "virtual" : "platform")
+            + " threads with " + config.getServerPoolSize() + " database connections");
+        return properties;
+    }
+
+    private static LoadStats run(LoadTestConfig config, ApiTraffic traffic) throws InterruptedException {
+        LoadStats stats = new LoadStats();
+        int threads = config.getThreads();
+        // Open-loop pacing: each client owns an equal share of the target rate and
+        // latency is measured from the intended start, so stalls are not hidden
+        long intervalNanos = config.getRate() > 0 ? (long) (threads * 1_000_000_000.0 / config.getRate()) : 0;
+
+        long startNanos = System.nanoTime();
+        long warmupEnd = startNanos + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        long runEnd = warmupEnd + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+
+        ExecutorService executor = newWorkerExecutor(config);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long intended = System.nanoTime() + (intervalNanos > 0 ? random.nextLong(intervalNanos) : 0);
+                while (System.nanoTime() < runEnd && !Thread.currentThread().isInterrupted()) {
+                    long start;
+                    if (intervalNanos > 0) {
+                        long wait = intended - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                        start = intended;
+                        intended += intervalNanos;
+                    } else {
+                        start = System.nanoTime();
+                    }
+                    Operation operation = traffic.resolve(config.nextOperation(random));
+                    int status = traffic.execute(operation, random);
+                    stats.record(operation, (System.nanoTime() - start) / 1000, status);
+                }
+            });
+        }
+        executor.shutdown();
+
+        long reportNanos = TimeUnit.SECONDS.toNanos(Math.max(1, config.getReportIntervalSeconds()));
+        long lastReport = startNanos;
+        while (true) {
+            long now = System.nanoTime();
+            if (!stats.isMeasuring() && now >= warmupEnd) {
+                stats.startMeasuring();
+                lastReport = now;
+            }
+            if (now >= runEnd) {
+                break;
+            }
+            long next = Math.min(lastReport + reportNanos, stats.isMeasuring() ? runEnd : warmupEnd);
+            if (next > now) {
+                TimeUnit.NANOSECONDS.sleep(next - now);
+            }
+            now = System.nanoTime();
+            printProgress(stats, (now - startNanos) / 1_000_000_000L, (now - lastReport) / 1_000_000_000.0);
+            lastReport = now;
+        }
+        stats.stopMeasuring();
+
+        if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        return stats;
+    }
+
+    /**
+     * Virtual threads keep thousands of blocked clients cheap; the build targets Java 17,
+     * so they are looked up reflectively and platform threads are used when absent
+     */
+    private static ExecutorService newWorkerExecutor(LoadTestConfig config) {
+        if (config.isVirtualThreads()) {
+            try {
+                ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                System.out.println("Running " + config.getThreads() + " clients on virtual threads");
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                System.out.println("Virtual threads unavailable on Java " + Runtime.version().feature()
+                    + ", using platform threads");
+            }
+        }
+        System.out.println("Running " + config.getThreads() + " clients on platform threads");
+        return Executors.newFixedThreadPool(config.getThreads());
+    }
+
+    private static void printProgress(LoadStats stats, long elapsedSeconds, double intervalSeconds) {
+        Histogram interval = new Histogram(3);
+        for (Histogram histogram : stats.drain().values()) {
+            interval.add(histogram);
+        }
+        System.out.printf("[%4ds] %-9s %,9.0f req/s  p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms%n",
+            elapsedSeconds, stats.isMeasuring() ? "measuring" : "warmup",
+            interval.getTotalCount() / intervalSeconds,
+            millis(interval.getValueAtPercentile(50)),
+            millis(interval.getValueAtPercentile(99)),
+            millis(interval.getMaxValue()));
+    }
+
+    private static void report(LoadTestConfig config, LoadStats stats) throws Exception {
+        double seconds = stats.getMeasuredSeconds();
+        Histogram allSuccesses = new Histogram(3);
+        long allErrors = 0;
+        List<Map<String, Object>> operations = new ArrayList<>();
+
+        System.out.println();
+        System.out.printf("%-13s %10s %8s %7s %10s %9s %9s %9s %9s %9s%n",
+            "operation", "requests", "errors", "err%", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram successes = stats.getSuccesses(operation);
+            long errors = stats.getErrors(operation).getTotalCount();
+            if (successes.getTotalCount() + errors == 0) {
+                continue;
+            }
+            allSuccesses.add(successes);
+            allErrors += errors;
+            operations.add(summarize(operation.getKey(), successes, errors, seconds));
+        }
+        operations.add(summarize("total", allSuccesses, allErrors, seconds));
+
+        for (Map<String, Object> row : operations) {
+            System.out.printf("%-13s %,10d %,8d %6.2f%% %,10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                row.get("operation"), row.get("requests"), row.get("errors"), row.get("errorRate"), row.get("throughput"),
+                row.get("p50Ms"), row.get("p90Ms"), row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs"));
+        }
+        if (!stats.getErrorsByStatus().isEmpty()) {
+            System.out.println("Errors by operation and status: " + stats.getErrorsByStatus());
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("products", config.getProducts());
+        result.put("threads", config.getThreads());
+        result.put("targetRate", config.getRate());
+        if (config.isInProcess()) {
+            result.put("serverVirtualThreads", config.isServerVirtualThreads());
+            result.put("serverPoolSize", config.getServerPoolSize());
+        }
+        result.put("measuredSeconds", seconds);
+        result.put("operations", operations);
+        result.put("errorsByStatus", stats.getErrorsByStatus());
+
+        File reportFile = new File(config.getReportFile());
+        if (reportFile.getParentFile() != null) {
+            reportFile.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, result);
+        System.out.println("Load test result is saved to " + reportFile.getPath());
+    }
+
+    private static Map<String, Object> summarize(String name, Histogram successes, long errors, double seconds) {
+        long requests = successes.getTotalCount() + errors;
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("operation", name);
+        row.put("requests", requests);
+        row.put("errors", errors);
+        row.put("errorRate", requests == 0 ? 0.0 : errors * 100.0 / requests);
+        row.put("throughput", requests / seconds);
+        row.put("p50Ms", millis(successes.getValueAtPercentile(50)));
+        row.put("p90Ms", millis(successes.getValueAtPercentile(90)));
+        row.put("p99Ms", millis(successes.getValueAtPercentile(99)));
+        row.put("p999Ms", millis(successes.getValueAtPercentile(99.9)));
+        row.put("maxMs", millis(successes.getMaxValue()));
+        return row;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.ims.loadtest;
+
+/**
+ * REST traffic the load generator can issue, with the default share of the mix.
+ */
+public enum Operation {
+    CREATE_ORDER("createOrder", 30),
+    CONFIRM_ORDER("confirmOrder", 10),
+    RESERVE_STOCK("reserve", 25),
+    SEARCH_PRODUCTS("search", 25),
+    DASHBOARD("dashboard", 10);
+
+    private final String key;
+    private final int defaultWeight;
+
+    Operation(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation in mix: " + key);
+    }
+}
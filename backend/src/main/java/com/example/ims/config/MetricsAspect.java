@@ -0,0 +1,117 @@
+package com.example.ims.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for service methods, hand-written repository queries and scheduled jobs.
+ * Spring Data repositories are timed by Boot itself (spring.data.repository.invocations).
+ *
+ * Runs outside the transaction advice so commit time is included. Success timers are
+ * cached per method so the hot path is a map lookup and a clock read; the failure path
+ * registers a timer tagged with the exception type.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricsAspect {
+    public static final String SERVICE_TIMER = "ims.service.method";
+    public static final String SCHEDULED_TIMER = "ims.scheduled.job";
+    // Same name and tag keys Boot uses for Spring Data repositories, so all queries share one metric
+    public static final String REPOSITORY_TIMER = "spring.data.repository.invocations";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Method, Timer> serviceTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Method, Timer> scheduledTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Method, Timer> repositoryTimers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.example.ims.service..*(..))")
+    public Object timeServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            serviceTimers.computeIfAbsent(method, key -> serviceTimer(key, "none"))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            serviceTimer(method, e.getClass().getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    @Around("@annotation(org.springframework.scheduling.annotation.Scheduled)")
+    public Object timeScheduledJob(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            scheduledTimers.computeIfAbsent(method, key -> scheduledTimer(key, "none"))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            scheduledTimer(method, e.getClass().getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /**
+     * Repository classes that are not Spring Data interfaces, e.g. InventoryAnalyticsRepository
+     */
+    @Around("execution(public * com.example.ims.repository..*(..)) && !within(org.springframework.data.repository.Repository+)")
+    public Object timeRepositoryQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            repositoryTimers.computeIfAbsent(method, key -> repositoryTimer(key, "SUCCESS", "None"))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            repositoryTimer(method, "ERROR", e.getClass().getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer serviceTimer(Method method, String exception) {
+        return Timer.builder(SERVICE_TIMER)
+            .description("Service method execution time")
+            .tag("class", method.getDeclaringClass().getSimpleName())
+            .tag("method", method.getName())
+            .tag("exception", exception)
+            .register(meterRegistry);
+    }
+
+    private Timer scheduledTimer(Method method, String exception) {
+        return Timer.builder(SCHEDULED_TIMER)
+            .description("Scheduled job run time")
+            .tag("job", method.getDeclaringClass().getSimpleName() + "." + method.getName())
+            .tag("exception", exception)
+            .register(meterRegistry);
+    }
+
+    private Timer repositoryTimer(Method method, String state, String exception) {
+        return Timer.builder(REPOSITORY_TIMER)
+            .description("Duration of repository invocations")
+            .tag("repository", method.getDeclaringClass().getSimpleName())
+            .tag("method", method.getName())
+            .tag("state", state)
+            .tag("exception", exception)
+            .register(meterRegistry);
+    }
+}
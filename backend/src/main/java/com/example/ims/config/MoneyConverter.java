@@ -0,0 +1,29 @@
+package com.example.ims.config;
+
+import com.example.ims.model.Money;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps long minor units in the entity to a NUMERIC(19, 2) column in major units, so SQL
+ * sees ordinary decimal prices and aggregates them exactly.
+ *
+ * In JPQL arithmetic, cast the attribute to BigDecimal (CAST(p.unitPriceMinor AS BigDecimal)):
+ * the database value is in major units, and the cast makes the result come back as a
+ * BigDecimal instead of being read as a Long.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long minor) {
+        return Money.toDecimalOrNull(minor);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal amount) {
+        return amount == null ? null : Money.toMinor(amount);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.ims.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Transactional outbox relay (app.outbox.*). Services write outbox rows whenever the
+ * outbox is enabled; this configuration adds the relay and the sink it delivers to.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+public class OutboxConfig {
+
+    @Value("${app.outbox.sink:file}")
+    private String sinkType;
+
+    @Value("${app.outbox.file.path:outbox/events.jsonl}")
+    private String filePath;
+
+    @Value("${app.outbox.http.url:}")
+    private String httpUrl;
+
+    @Value("${app.outbox.http.timeout-ms:5000}")
+    private long httpTimeoutMs;
+
+    @Value("${app.outbox.queue.capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.outbox.queue.offer-timeout-ms:100}")
+    private long queueOfferTimeoutMs;
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxSink outboxSink(ObjectMapper objectMapper) {
+        switch (sinkType) {
+            case "file":
+                return new FileOutboxSink(Path.of(filePath), objectMapper);
+            case "http":
+                if (httpUrl.isBlank()) {
+                    throw new IllegalArgumentException("app.outbox.http.url is required for the http outbox sink");
+                }
+                return new HttpOutboxSink(URI.create(httpUrl), Duration.ofMillis(httpTimeoutMs), objectMapper);
+            case "queue":
+                return new QueueOutboxSink(queueCapacity, queueOfferTimeoutMs, objectMapper);
+            default:
+                throw new IllegalArgumentException("Unknown app.outbox.sink " + sinkType + ", expected file, http or queue");
+        }
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   OutboxSink outboxSink, MeterRegistry meterRegistry) {
+        System.out.println("Outbox relay enabled, delivering to the " + outboxSink.getName() + " sink");
+        return new OutboxRelay(jdbcTemplate, transactionTemplate, outboxSink, batchSize, maxBatchesPerRun,
+            Duration.ofHours(retentionHours).toMillis(), meterRegistry);
+    }
+}
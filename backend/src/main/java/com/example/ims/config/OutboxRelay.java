@@ -0,0 +1,169 @@
+package com.example.ims.config;
+
+import com.example.ims.model.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains unpublished outbox rows to the sink in id order, one batch per transaction.
+ *
+ * Rows are locked while their batch is delivered, so relays on several instances take
+ * turns instead of interleaving. Delivery stops at the first failed batch and retries it
+ * on the next run: later events never overtake an undelivered one for the same aggregate.
+ */
+public class OutboxRelay {
+    private static final String SELECT_BATCH =
+        "SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at FROM outbox_events " +
+        "WHERE published_at IS NULL ORDER BY id LIMIT ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long retentionMs;
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagMs = new AtomicLong();
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, OutboxSink sink,
+                       int batchSize, int maxBatchesPerRun, long retentionMs, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retentionMs = retentionMs;
+        this.publishedCounter = Counter.builder("ims.outbox.published")
+            .description("Outbox events delivered to the sink")
+            .tag("sink", sink.getName())
+            .register(meterRegistry);
+        this.failureCounter = Counter.builder("ims.outbox.failures")
+            .description("Outbox batches the sink rejected")
+            .tag("sink", sink.getName())
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("ims.outbox.batch")
+            .description("Time to deliver one outbox batch")
+            .tag("sink", sink.getName())
+            .register(meterRegistry);
+        Gauge.builder("ims.outbox.lag", lagMs, AtomicLong::get)
+            .description("Age of the oldest unpublished outbox event")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        try {
+            relayPending();
+        } catch (Exception e) {
+            System.err.println("Outbox relay failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deliver full batches until the outbox is drained, a batch fails or max-batches-per-run is reached
+     *
+     * @return number of events delivered
+     */
+    public int relayPending() {
+        int total = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer delivered = transactionTemplate.execute(status -> relayBatch());
+                total += delivered;
+                if (delivered < batchSize) {
+                    break;
+                }
+            }
+        } finally {
+            updateLag();
+        }
+        return total;
+    }
+
+    /**
+     * Delete published events older than the retention, keeping the outbox table small
+     */
+    @Scheduled(cron = "${app.outbox.purge-cron:0 45 * * * *}")
+    public void purgePublished() {
+        try {
+            jdbcTemplate.update("DELETE FROM outbox_events WHERE published_at < ?",
+                new Timestamp(System.currentTimeMillis() - retentionMs));
+        } catch (Exception e) {
+            System.err.println("Failed to purge published outbox events: " + e.getMessage());
+        }
+    }
+
+    public long getLagMs() {
+        return lagMs.get();
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = jdbcTemplate.query(SELECT_BATCH, (rs, rowNum) -> {
+            OutboxEvent event = new OutboxEvent();
+            event.setId(rs.getLong("id"));
+            event.setAggregateType(rs.getString("aggregate_type"));
+            event.setAggregateId(rs.getString("aggregate_id"));
+            event.setEventType(rs.getString("event_type"));
+            event.setPayload(rs.getString("payload"));
+            event.setCreatedAt(rs.getTimestamp("created_at"));
+            return event;
+        }, batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> ids = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            ids.add(new Object[] {event.getId()});
+        }
+
+        long start = System.nanoTime();
+        try {
+            sink.publish(events);
+        } catch (Exception e) {
+            failureCounter.increment();
+            System.err.println("Outbox sink " + sink.getName() + " rejected " + events.size()
+                + " events starting at id " + events.get(0).getId() + ": " + e.getMessage());
+            String error = String.valueOf(e.getMessage());
+            List<Object[]> failures = new ArrayList<>(ids.size());
+            for (Object[] id : ids) {
+                failures.add(new Object[] {error, id[0]});
+            }
+            jdbcTemplate.batchUpdate(
+                "UPDATE outbox_events SET attempts = attempts + 1, last_error = ? WHERE id = ?", failures);
+            return 0;
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        Timestamp publishedAt = new Timestamp(System.currentTimeMillis());
+        List<Object[]> published = new ArrayList<>(ids.size());
+        for (Object[] id : ids) {
+            published.add(new Object[] {publishedAt, id[0]});
+        }
+        jdbcTemplate.batchUpdate(
+            "UPDATE outbox_events SET published_at = ?, attempts = attempts + 1, last_error = NULL WHERE id = ?", published);
+        publishedCounter.increment(events.size());
+        return events.size();
+    }
+
+    private void updateLag() {
+        Timestamp oldest = jdbcTemplate.queryForObject(
+            "SELECT MIN(created_at) FROM outbox_events WHERE published_at IS NULL", Timestamp.class);
+        lagMs.set(oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest.getTime()));
+    }
+}
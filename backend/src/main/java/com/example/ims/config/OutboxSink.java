@@ -0,0 +1,20 @@
+package com.example.ims.config;
+
+import com.example.ims.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events. Define a bean of this type to replace the
+ * file, HTTP and queue sinks selected by app.outbox.sink.
+ */
+public interface OutboxSink {
+
+    /**
+     * Deliver events in the order given. Throwing leaves the whole batch unpublished,
+     * so it is delivered again: consumers must tolerate duplicates (dedupe on event id).
+     */
+    void publish(List<OutboxEvent> events) throws Exception;
+
+    String getName();
+}
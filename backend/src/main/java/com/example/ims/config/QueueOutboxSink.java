@@ -0,0 +1,50 @@
+package com.example.ims.config;
+
+import com.example.ims.model.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process bounded queue standing in for a message broker. A full queue fails the
+ * batch, and events already enqueued from it are delivered again on the retry.
+ */
+public class QueueOutboxSink implements OutboxSink {
+    private final BlockingQueue<String> queue;
+    private final long offerTimeoutMs;
+    private final ObjectMapper objectMapper;
+
+    public QueueOutboxSink(int capacity, long offerTimeoutMs, ObjectMapper objectMapper) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) throws Exception {
+        for (OutboxEvent event : events) {
+            if (!queue.offer(objectMapper.writeValueAsString(event), offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Outbox queue is full (" + queue.size() + " events)");
+            }
+        }
+    }
+
+    /**
+     * Next event as JSON, or null if none arrives within the timeout
+     */
+    public String poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public String getName() {
+        return "queue";
+    }
+}
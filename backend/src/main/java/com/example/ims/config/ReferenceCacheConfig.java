@@ -0,0 +1,89 @@
+package com.example.ims.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for small reference tables (app.reference-cache.*):
+ * warehouses, categories and users, plus the queries that look them up by name.
+ * Caffeine-backed and local to this JVM; changes made through JPA update the cache,
+ * anything else must go through {@link com.example.ims.service.ReferenceCacheService}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.reference-cache.enabled", havingValue = "true")
+public class ReferenceCacheConfig {
+    public static final String WAREHOUSE_REGION = "reference.warehouse";
+    public static final String CATEGORY_REGION = "reference.category";
+    public static final String USER_REGION = "reference.user";
+    public static final String QUERY_REGION = "reference.queries";
+    public static final String DEFAULT_QUERY_REGION = "default-query-results-region";
+    public static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    public static final List<String> ENTITY_REGIONS = List.of(WAREHOUSE_REGION, CATEGORY_REGION, USER_REGION);
+    public static final List<String> QUERY_REGIONS = List.of(QUERY_REGION, DEFAULT_QUERY_REGION);
+
+    @Value("${app.reference-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${app.reference-cache.max-entries:10000}")
+    private long maxEntries;
+
+    /**
+     * One cache manager per application context, so test contexts in the same JVM
+     * never share regions
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager referenceCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+            URI.create("ims-reference-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String region : ENTITY_REGIONS) {
+            cacheManager.createCache(region, regionConfiguration(maxEntries, ttlSeconds));
+        }
+        for (String region : QUERY_REGIONS) {
+            cacheManager.createCache(region, regionConfiguration(maxEntries, ttlSeconds));
+        }
+        // Update timestamps must outlive every cached query result, so they never expire
+        cacheManager.createCache(TIMESTAMPS_REGION, regionConfiguration(maxEntries, 0));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer referenceCacheSettings(CacheManager referenceCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, referenceCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Hit and miss counters for /admin/cache and Prometheus; only paid for while the cache is on
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(long maxEntries, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        return configuration;
+    }
+}
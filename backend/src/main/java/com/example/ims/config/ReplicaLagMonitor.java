@@ -0,0 +1,67 @@
+package com.example.ims.config;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Polls the replica's replay lag and takes it out of rotation while it is
+ * behind by more than max-lag-ms or cannot be reached
+ */
+public class ReplicaLagMonitor {
+    /**
+     * Seconds behind the primary; 0 when everything received has been replayed
+     * or the server is not a standby
+     */
+    public static final String POSTGRES_LAG_QUERY =
+        "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+        "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private volatile boolean replicaUsable;
+    private volatile long lagMs = -1;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, String lagQuery, long maxLagMs) {
+        this.jdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        boolean usable;
+        try {
+            Number lagSeconds = jdbcTemplate.queryForObject(lagQuery, Number.class);
+            lagMs = lagSeconds == null ? 0 : Math.round(lagSeconds.doubleValue() * 1000);
+            usable = lagMs <= maxLagMs;
+            if (!usable && replicaUsable) {
+                System.err.println("Replica is " + lagMs + " ms behind (max " + maxLagMs + " ms), reading from primary");
+            }
+        } catch (DataAccessException e) {
+            lagMs = -1;
+            usable = false;
+            if (replicaUsable) {
+                System.err.println("Replica lag check failed, reading from primary: " + e.getMessage());
+            }
+        }
+        if (usable && !replicaUsable) {
+            System.out.println("Replica is " + lagMs + " ms behind, routing read-only transactions to it");
+        }
+        replicaUsable = usable;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /**
+     * Last measured lag in milliseconds, -1 when the replica could not be reached
+     */
+    public long getLagMs() {
+        return lagMs;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.ims.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Read replica routing (app.datasource.replica.*). Replaces the auto-configured DataSource
+ * with a primary and a replica pool behind {@link ReplicaRoutingDataSource}; the primary
+ * pool keeps the spring.datasource.* settings.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Value("${app.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    @Value("${app.datasource.replica.sticky-after-write-ms:5000}")
+    private long stickyAfterWriteMs;
+
+    @Value("${app.datasource.replica.lag-query:" + ReplicaLagMonitor.POSTGRES_LAG_QUERY + "}")
+    private String lagQuery;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(properties.determineDriverClassName())
+            .url(replicaUrl)
+            .username(replicaUsername)
+            .password(replicaPassword)
+            .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource replicaDataSource, MeterRegistry meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaDataSource, lagQuery, maxLagMs);
+        monitor.checkLag();
+        Gauge.builder("ims.datasource.replica.lag", monitor, ReplicaLagMonitor::getLagMs)
+            .description("Replica replay lag in milliseconds, -1 when unreachable")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        Gauge.builder("ims.datasource.replica.usable", monitor, m -> m.isReplicaUsable() ? 1 : 0)
+            .description("1 while read-only transactions are routed to the replica")
+            .register(meterRegistry);
+        return monitor;
+    }
+
+    /**
+     * Open-in-view keeps one Hibernate session for the whole request, and by default the session
+     * holds its connection from the first transaction on, so a write after a read-only call would
+     * reuse the replica connection. Releasing it after every transaction lets each transaction
+     * be routed on its own.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    /**
+     * The lazy proxy defers fetching a connection until the first statement, after
+     * the transaction's read-only flag has been set
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor, MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaLagMonitor, stickyAfterWriteMs);
+        routing.setTargetDataSources(Map.of(
+            ReplicaRoutingDataSource.Target.PRIMARY, primaryDataSource,
+            ReplicaRoutingDataSource.Target.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+
+        FunctionCounter.builder("ims.datasource.routing", routing, ReplicaRoutingDataSource::getPrimaryRoutings)
+            .tag("target", "primary")
+            .register(meterRegistry);
+        FunctionCounter.builder("ims.datasource.routing", routing, ReplicaRoutingDataSource::getReplicaRoutings)
+            .tag("target", "replica")
+            .register(meterRegistry);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
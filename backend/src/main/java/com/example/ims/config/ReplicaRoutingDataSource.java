@@ -0,0 +1,105 @@
+package com.example.ims.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ *
+ * Reads stay on the primary when the replica is lagging or unreachable, for the rest of
+ * a request that has written, and for sticky-after-write-ms after the same user's last write.
+ * Must sit behind a LazyConnectionDataSourceProxy so the read-only flag is known when
+ * the connection is fetched.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public enum Target { PRIMARY, REPLICA }
+
+    private static final String WROTE_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".WROTE";
+    private static final int MAX_TRACKED_WRITERS = 10_000;
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final long stickyAfterWriteMs;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final AtomicLong primaryRoutings = new AtomicLong();
+    private final AtomicLong replicaRoutings = new AtomicLong();
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor, long stickyAfterWriteMs) {
+        this.lagMonitor = lagMonitor;
+        this.stickyAfterWriteMs = stickyAfterWriteMs;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Target target = route();
+        (target == Target.REPLICA ? replicaRoutings : primaryRoutings).incrementAndGet();
+        return target;
+    }
+
+    private Target route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWrite();
+            }
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable() || requestHasWritten() || userWroteRecently()) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    private void recordWrite() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(WROTE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        String user = currentUser();
+        if (user != null && stickyAfterWriteMs > 0) {
+            long now = System.currentTimeMillis();
+            if (lastWriteByUser.size() >= MAX_TRACKED_WRITERS) {
+                lastWriteByUser.values().removeIf(writtenAt -> now - writtenAt > stickyAfterWriteMs);
+            }
+            lastWriteByUser.put(user, now);
+        }
+    }
+
+    private boolean requestHasWritten() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null && request.getAttribute(WROTE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    private boolean userWroteRecently() {
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteByUser.get(user);
+        return writtenAt != null && System.currentTimeMillis() - writtenAt <= stickyAfterWriteMs;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    public long getPrimaryRoutings() {
+        return primaryRoutings.get();
+    }
+
+    public long getReplicaRoutings() {
+        return replicaRoutings.get();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.ims.config;
 
 import com.example.ims.security.CustomUserDetailsService;
 import com.example.ims.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -44,6 +45,9 @@ public class SecurityConfig {
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/error").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                // Completion of an already authorized event stream
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 
                 // Admin only endpoints
                 .requestMatchers("/warehouses/**").hasRole("ADMIN")
@@ -51,7 +55,9 @@ public class SecurityConfig {
                 .requestMatchers("/purchase-orders/**").hasRole("ADMIN")
                 .requestMatchers("/alerts/**").hasRole("ADMIN")
                 .requestMatchers("/dashboard/**").hasRole("ADMIN")
+                .requestMatchers("/live/**").hasRole("ADMIN")
                 .requestMatchers("/users/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                 // Product endpoints - GET requires authentication (both roles), others require ADMIN
                 .requestMatchers(HttpMethod.GET, "/products/**").authenticated()
@@ -77,7 +83,7 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-SQL-Statements", "X-SQL-Time-Ms"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,55 @@
+package com.example.ims.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-request SQL statement budget and N+1 detection (app.sql-budget.*).
+ * Off in production; nothing is registered with Hibernate unless enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-budget.enabled", havingValue = "true")
+public class SqlBudgetConfig {
+
+    @Value("${app.sql-budget.max-statements:50}")
+    private int maxStatements;
+
+    @Value("${app.sql-budget.overrides:}")
+    private String overrides;
+
+    @Value("${app.sql-budget.repeat-threshold:10}")
+    private int repeatThreshold;
+
+    @Value("${app.sql-budget.headers:true}")
+    private boolean exposeHeaders;
+
+    @Value("${app.sql-budget.fail-on-exceed:false}")
+    private boolean failOnExceed;
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementTracking() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, SqlStatementInspector.class.getName());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingSessionListener.class.getName());
+        };
+    }
+
+    /**
+     * Registered ahead of Spring Security so user lookups during authentication count too
+     */
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(ObjectMapper objectMapper) {
+        SqlBudgetFilter filter = new SqlBudgetFilter(maxStatements, SqlBudgetFilter.parseOverrides(overrides),
+            repeatThreshold, exposeHeaders, failOnExceed, objectMapper);
+        FilterRegistrationBean<SqlBudgetFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
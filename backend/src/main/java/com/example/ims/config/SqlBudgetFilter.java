@@ -0,0 +1,134 @@
+package com.example.ims.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tracks SQL statements and database time per HTTP request, reports them as
+ * X-SQL-Statements / X-SQL-Time-Ms headers and checks them against a budget.
+ *
+ * Headers and failing over budget need the response body held back until the
+ * request finishes, so those modes buffer the response; event streams are never buffered.
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final int defaultBudget;
+    private final Map<String, Integer> budgetOverrides;
+    private final int repeatThreshold;
+    private final boolean exposeHeaders;
+    private final boolean failOnExceed;
+    private final ObjectMapper objectMapper;
+
+    public SqlBudgetFilter(int defaultBudget, Map<String, Integer> budgetOverrides, int repeatThreshold,
+                           boolean exposeHeaders, boolean failOnExceed, ObjectMapper objectMapper) {
+        this.defaultBudget = defaultBudget;
+        this.budgetOverrides = budgetOverrides;
+        this.repeatThreshold = repeatThreshold;
+        this.exposeHeaders = exposeHeaders;
+        this.failOnExceed = failOnExceed;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String accept = request.getHeader("Accept");
+        boolean buffer = (exposeHeaders || failOnExceed)
+            && (accept == null || !accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE));
+        ContentCachingResponseWrapper wrapper = buffer ? new ContentCachingResponseWrapper(response) : null;
+
+        SqlStatementStats stats = SqlStatementStats.begin();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, buffer ? wrapper : response);
+            completed = true;
+        } finally {
+            SqlStatementStats.end();
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            int budget = budgetFor(path);
+            boolean exceeded = check(request.getMethod() + " " + path, budget, stats);
+
+            if (wrapper != null) {
+                if (exceeded && failOnExceed && completed) {
+                    rejectOverBudget(wrapper, path, budget, stats);
+                }
+                if (exposeHeaders) {
+                    wrapper.setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatementCount()));
+                    wrapper.setHeader(TIME_HEADER, String.valueOf(stats.getExecutionMillis()));
+                }
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    /**
+     * Budget for a path: the first matching override, otherwise the default
+     */
+    public int budgetFor(String path) {
+        for (Map.Entry<String, Integer> override : budgetOverrides.entrySet()) {
+            if (pathMatcher.match(override.getKey(), path)) {
+                return override.getValue();
+            }
+        }
+        return defaultBudget;
+    }
+
+    private boolean check(String endpoint, int budget, SqlStatementStats stats) {
+        boolean exceeded = stats.getStatementCount() > budget;
+        if (exceeded) {
+            System.err.println("=== SQL BUDGET EXCEEDED === " + endpoint + ": " + stats.getStatementCount()
+                + " statements (budget " + budget + "), " + stats.getExecutionMillis() + " ms");
+        }
+
+        Map.Entry<String, Integer> repeated = stats.getMostRepeated();
+        if (repeated != null && repeated.getValue() >= repeatThreshold) {
+            System.err.println("=== POSSIBLE N+1 === " + endpoint + " ran the same statement "
+                + repeated.getValue() + " times: " + repeated.getKey());
+        }
+        return exceeded;
+    }
+
+    private void rejectOverBudget(ContentCachingResponseWrapper wrapper, String path, int budget, SqlStatementStats stats)
+            throws IOException {
+        Map<String, Object> errorResponse = new LinkedHashMap<>();
+        errorResponse.put("error", "SQL budget exceeded");
+        errorResponse.put("message", path + " issued " + stats.getStatementCount() + " statements, budget is " + budget);
+
+        wrapper.resetBuffer();
+        wrapper.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        wrapper.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        wrapper.getOutputStream().write(objectMapper.writeValueAsBytes(errorResponse));
+    }
+
+    /**
+     * Parses "pattern=budget" pairs separated by commas, e.g. "/dashboard/**=200,/inventory=80"
+     */
+    public static Map<String, Integer> parseOverrides(String spec) {
+        Map<String, Integer> overrides = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return overrides;
+        }
+        for (String entry : spec.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("SQL budget overrides must look like pattern=budget, got " + entry);
+            }
+            overrides.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+        return overrides;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ims.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statements and database time for the current HTTP request.
+ * Only populated between {@link #begin()} and {@link #end()}, so scheduled
+ * jobs and other background work are not tracked.
+ */
+public final class SqlStatementStats {
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statementCount;
+    private long executionNanos;
+    private final Map<String, Integer> countsBySql = new HashMap<>();
+
+    private SqlStatementStats() {
+    }
+
+    public static SqlStatementStats begin() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    void recordStatement(String sql) {
+        statementCount++;
+        countsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    void recordExecution(long nanos) {
+        executionNanos += nanos;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getExecutionMillis() {
+        return executionNanos / 1_000_000;
+    }
+
+    /**
+     * The statement issued most often in this request; many identical statements usually mean an N+1 lazy load
+     */
+    public Map.Entry<String, Integer> getMostRepeated() {
+        Map.Entry<String, Integer> mostRepeated = null;
+        for (Map.Entry<String, Integer> entry : countsBySql.entrySet()) {
+            if (mostRepeated == null || entry.getValue() > mostRepeated.getValue()) {
+                mostRepeated = entry;
+            }
+        }
+        return mostRepeated;
+    }
+}
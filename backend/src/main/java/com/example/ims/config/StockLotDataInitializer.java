@@ -0,0 +1,52 @@
+package com.example.ims.config;
+
+import com.example.ims.model.Inventory;
+import com.example.ims.model.StockLot;
+import com.example.ims.repository.InventoryRepository;
+import com.example.ims.repository.StockLotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class StockLotDataInitializer implements CommandLineRunner {
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockLotRepository stockLotRepository;
+
+    @Override
+    public void run(String... args) throws Exception {
+        // Only backfill once, when upgrading a database that predates lot tracking
+        if (stockLotRepository.count() == 0) {
+            backfillOpeningLots();
+        }
+    }
+
+    /**
+     * Seed one opening lot per stocked inventory row. The true receipt date is unknown,
+     * so lastUpdated is the closest approximation available.
+     */
+    private void backfillOpeningLots() {
+        List<StockLot> openingLots = new ArrayList<>();
+
+        for (Inventory inventory : inventoryRepository.findAll()) {
+            if (inventory.getQuantityAvailable() > 0) {
+                StockLot lot = new StockLot();
+                lot.setProduct(inventory.getProduct());
+                lot.setWarehouse(inventory.getWarehouse());
+                lot.setQuantityReceived(inventory.getQuantityAvailable());
+                lot.setQuantityRemaining(inventory.getQuantityAvailable());
+                lot.setReceivedAt(inventory.getLastUpdated());
+                openingLots.add(lot);
+            }
+        }
+
+        stockLotRepository.saveAll(openingLots);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.ims.config;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version 7 UUIDs (RFC 9562): a 48-bit millisecond timestamp, a 12-bit sequence and 62
+ * random bits. New ids sort after older ones, so inserts append to the right edge of the
+ * primary key and foreign key indexes instead of landing on random pages as version 4
+ * ids do.
+ *
+ * Ids from one JVM are strictly increasing: the sequence counts within a millisecond, and
+ * when it runs out the timestamp moves on ahead of the clock until the clock catches up.
+ */
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+
+    /** Last issued timestamp and sequence, as (millis << 12) | sequence */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return nextString();
+    }
+
+    public static String nextString() {
+        return next().toString();
+    }
+
+    public static UUID next() {
+        long floor = System.currentTimeMillis() << 12;
+        long stamp = LAST.updateAndGet(last -> Math.max(last + 1, floor));
+        long mostSignificant = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        long leastSignificant = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.ims.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: schedules and expires items in constant time per item.
+ *
+ * Level 0 has one bucket per tick; each level above covers the whole span of the one
+ * below in each of its buckets. An item goes to the lowest level whose span reaches its
+ * deadline and moves down a level each time its bucket comes round, so with 512 buckets
+ * of one second, three levels cover about four years. Items are never removed early:
+ * callers check on expiry whether the item still needs handling.
+ */
+public class TimingWheel<T> {
+    private final long tickMs;
+    private final int bucketsPerLevel;
+    private final List<List<Entry<T>>[]> levels = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMs, int bucketsPerLevel, long startMs) {
+        if (tickMs <= 0 || bucketsPerLevel < 2) {
+            throw new IllegalArgumentException("Timing wheel needs a positive tick and at least two buckets");
+        }
+        this.tickMs = tickMs;
+        this.bucketsPerLevel = bucketsPerLevel;
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Schedule an item; an item already due is returned by the next {@link #advance}
+     */
+    public synchronized void schedule(T item, long deadlineMs) {
+        // Rounded up, so an item never comes out before its deadline
+        long deadlineTick = deadlineMs / tickMs + (deadlineMs % tickMs == 0 ? 0 : 1);
+        place(new Entry<>(item, Math.max(deadlineTick, currentTick)));
+        size++;
+    }
+
+    /**
+     * Move the wheel forward to nowMs
+     *
+     * @return the items whose deadline has passed, in deadline order to the tick
+     */
+    public synchronized List<T> advance(long nowMs) {
+        List<T> due = new ArrayList<>();
+        long targetTick = nowMs / tickMs;
+        drain(0, currentTick, due);
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade from the top so entries can fall through several levels in one tick
+            long span = 1;
+            for (int level = 1; level < levels.size(); level++) {
+                span *= bucketsPerLevel;
+            }
+            for (int level = levels.size() - 1; level >= 1; level--) {
+                if (currentTick % span == 0) {
+                    List<Entry<T>> cascading = take(level, currentTick / span);
+                    if (cascading != null) {
+                        for (Entry<T> entry : cascading) {
+                            place(entry);
+                        }
+                    }
+                }
+                span /= bucketsPerLevel;
+            }
+            drain(0, currentTick, due);
+        }
+        size -= due.size();
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void drain(int level, long tick, List<T> due) {
+        List<Entry<T>> bucket = take(level, tick);
+        if (bucket != null) {
+            for (Entry<T> entry : bucket) {
+                due.add(entry.item);
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        // Deadlines are never behind currentTick; one due now lands in the bucket advance() drains first
+        long delta = entry.deadlineTick - currentTick;
+        int level = 0;
+        long span = 1;
+        while (delta >= span * bucketsPerLevel && span <= Long.MAX_VALUE / bucketsPerLevel / bucketsPerLevel) {
+            span *= bucketsPerLevel;
+            level++;
+        }
+        List<Entry<T>>[] buckets = level(level);
+        int index = (int) (entry.deadlineTick / span % bucketsPerLevel);
+        if (buckets[index] == null) {
+            buckets[index] = new ArrayList<>();
+        }
+        buckets[index].add(entry);
+    }
+
+    private List<Entry<T>> take(int level, long slot) {
+        if (level >= levels.size()) {
+            return null;
+        }
+        List<Entry<T>>[] buckets = levels.get(level);
+        int index = (int) (slot % bucketsPerLevel);
+        List<Entry<T>> bucket = buckets[index];
+        buckets[index] = null;
+        return bucket;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Entry<T>>[] level(int level) {
+        while (levels.size() <= level) {
+            levels.add(new List[bucketsPerLevel]);
+        }
+        return levels.get(level);
+    }
+
+    private record Entry<T>(T item, long deadlineTick) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.ims.config;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.usertype.EnhancedUserType;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Stores a String id in a native uuid column (16 bytes instead of a 36-character VARCHAR),
+ * so entities, DTOs and the API keep their String ids. Foreign keys to a column of this
+ * type get the same type.
+ *
+ * A value that is not a UUID, such as a mistyped id in a URL, is bound as the nil UUID,
+ * which no row has; lookups then find nothing, as they did with VARCHAR ids.
+ *
+ * It is an EnhancedUserType because Hibernate needs the string conversions for types used
+ * on identifiers.
+ */
+public class UuidStringType implements EnhancedUserType<String> {
+
+    private static final UUID NO_MATCH = new UUID(0L, 0L);
+
+    @Override
+    public int getSqlType() {
+        return SqlTypes.UUID;
+    }
+
+    @Override
+    public Class<String> returnedClass() {
+        return String.class;
+    }
+
+    @Override
+    public boolean equals(String x, String y) {
+        return Objects.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(String x) {
+        return Objects.hashCode(x);
+    }
+
+    @Override
+    public String nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+            throws SQLException {
+        UUID value = rs.getObject(position, UUID.class);
+        return value == null ? null : value.toString();
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, String value, int index, SharedSessionContractImplementor session)
+            throws SQLException {
+        if (value == null) {
+            st.setNull(index, Types.OTHER);
+        } else {
+            st.setObject(index, parse(value));
+        }
+    }
+
+    @Override
+    public String deepCopy(String value) {
+        return value;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Serializable disassemble(String value) {
+        return value;
+    }
+
+    @Override
+    public String assemble(Serializable cached, Object owner) {
+        return (String) cached;
+    }
+
+    @Override
+    public String replace(String detached, String managed, Object owner) {
+        return detached;
+    }
+
+    @Override
+    public String toSqlLiteral(String value) {
+        return "'" + parse(value) + "'";
+    }
+
+    @Override
+    public String toString(String value) {
+        return value;
+    }
+
+    @Override
+    public String fromStringValue(CharSequence sequence) {
+        return sequence == null ? null : sequence.toString();
+    }
+
+    private static UUID parse(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return NO_MATCH;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.ims.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Serves HTTP requests and @Scheduled jobs on virtual threads (app.virtual-threads.*).
+ * Needs a Java 21 runtime; startup fails on older JVMs when enabled.
+ *
+ * Blocking JDBC calls unmount the virtual thread instead of holding an OS thread, so the
+ * limit on concurrent work becomes the connection pool and app.virtual-threads.max-concurrent-requests.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Value("${app.virtual-threads.max-concurrent-requests:200}")
+    private int maxConcurrentRequests;
+
+    @Value("${app.virtual-threads.acquire-timeout-ms:2000}")
+    private long acquireTimeoutMs;
+
+    @Value("${app.virtual-threads.scheduler-pool-size:4}")
+    private int schedulerPoolSize;
+
+    @Value("${app.virtual-threads.trace-pinning:}")
+    private String tracePinning;
+
+    /**
+     * jdk.tracePinnedThreads is read when the first virtual thread is created,
+     * so it is set here before any of the executors below exist
+     */
+    @PostConstruct
+    public void configurePinningDiagnostics() {
+        VirtualThreads.requireAvailable();
+        if (!tracePinning.isBlank()) {
+            System.setProperty("jdk.tracePinnedThreads", tracePinning);
+        }
+        System.out.println("Virtual threads enabled on Java " + Runtime.version().feature()
+            + ", max concurrent requests " + maxConcurrentRequests
+            + (tracePinning.isBlank() ? "" : ", tracing pinned threads (" + tracePinning + ")"));
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("tomcat-vt-"));
+    }
+
+    /**
+     * Replaces the auto-configured scheduler; scheduled jobs block on JDBC like requests do
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(schedulerPoolSize);
+        scheduler.setThreadFactory(VirtualThreads.newThreadFactory("scheduling-vt-"));
+        return scheduler;
+    }
+
+    /**
+     * Registered ahead of the SQL budget filter so rejected requests are not tracked
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ObjectMapper objectMapper,
+                                                                                 MeterRegistry meterRegistry) {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(maxConcurrentRequests, acquireTimeoutMs, objectMapper);
+        Gauge.builder("ims.requests.permits.available", filter, ConcurrencyLimitFilter::getAvailablePermits)
+            .description("Requests that can start without waiting")
+            .register(meterRegistry);
+        Gauge.builder("ims.requests.permits.waiting", filter, ConcurrencyLimitFilter::getQueueLength)
+            .description("Requests waiting for a permit")
+            .register(meterRegistry);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.ims.controller;
 
 import com.example.ims.model.Alert;
 import com.example.ims.model.AlertStatus;
+import com.example.ims.service.AlertArchiveService;
 import com.example.ims.service.AlertService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
@@ -24,6 +25,9 @@ public class AlertController {
     @Autowired
     private AlertService alertService;
 
+    @Autowired
+    private AlertArchiveService alertArchiveService;
+
     @GetMapping
     public ResponseEntity<?> getAllAlerts() {
         try {
@@ -187,6 +191,22 @@ public class AlertController {
         }
     }
 
+    @PostMapping("/archive")
+    public ResponseEntity<?> archiveResolvedAlerts() {
+        try {
+            int archived = alertArchiveService.archiveAll();
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Resolved alerts archived successfully");
+            response.put("archivedCount", archived);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to archive resolved alerts");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
     @GetMapping("/active")
     public ResponseEntity<?> getActiveAlerts() {
         try {
@@ -0,0 +1,66 @@
+package com.example.ims.controller;
+
+import com.example.ims.service.ReferenceCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/cache")
+@PreAuthorize("hasRole('ADMIN')")
+public class CacheController {
+
+    @Autowired
+    private ReferenceCacheService referenceCacheService;
+
+    @GetMapping
+    public ResponseEntity<?> getStatistics() {
+        try {
+            return ResponseEntity.ok(referenceCacheService.getStatistics());
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to retrieve cache statistics");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> evictAll() {
+        try {
+            referenceCacheService.evictAll();
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Reference caches evicted");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to evict caches");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    @DeleteMapping("/{region}")
+    public ResponseEntity<?> evictRegion(@PathVariable String region) {
+        try {
+            referenceCacheService.evictRegion(region);
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Cache region " + region + " evicted");
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Invalid cache region");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(400).body(errorResponse);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to evict cache region");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.ims.controller;
 
+import com.example.ims.model.TurnoverDimension;
 import com.example.ims.service.DashboardService;
+import com.example.ims.service.ReorderPlanningService;
+import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Date;
@@ -13,10 +17,14 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/dashboard")
+@Validated
 public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private ReorderPlanningService reorderPlanningService;
+
     @GetMapping("/overview")
     public ResponseEntity<?> getInventoryOverview() {
         try {
@@ -33,13 +41,16 @@ public class DashboardController {
     @GetMapping("/turnover")
     public ResponseEntity<?> getInventoryTurnover(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate,
+            @RequestParam(defaultValue = "sku") String groupBy,
+            @RequestParam(defaultValue = "100") @Min(1) int limit) {
         try {
-            Map<String, Object> turnover = dashboardService.getInventoryTurnover(startDate, endDate);
+            TurnoverDimension dimension = TurnoverDimension.valueOf(groupBy.toUpperCase());
+            Map<String, Object> turnover = dashboardService.getInventoryTurnover(startDate, endDate, dimension, limit);
             return ResponseEntity.ok(turnover);
         } catch (IllegalArgumentException e) {
             Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Invalid date range");
+            errorResponse.put("error", "Invalid turnover request");
             errorResponse.put("message", e.getMessage());
             return ResponseEntity.status(400).body(errorResponse);
         } catch (Exception e) {
@@ -63,6 +74,22 @@ public class DashboardController {
         }
     }
 
+    @PostMapping("/reorder-recommendations/recalculate")
+    public ResponseEntity<?> recalculateReorderPlans() {
+        try {
+            int plans = reorderPlanningService.recalculateAll();
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Reorder plans recalculated successfully");
+            response.put("plansCalculated", plans);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to recalculate reorder plans");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
     @GetMapping("/warehouse-utilization")
     public ResponseEntity<?> getWarehouseUtilization() {
         try {
@@ -77,9 +104,11 @@ public class DashboardController {
     }
 
     @GetMapping("/alert-metrics")
-    public ResponseEntity<?> getAlertMetrics() {
+    public ResponseEntity<?> getAlertMetrics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date since,
+            @RequestParam(defaultValue = "5") @Min(1) int limit) {
         try {
-            Map<String, Object> metrics = dashboardService.getAlertMetrics();
+            Map<String, Object> metrics = dashboardService.getAlertMetrics(since, limit);
             return ResponseEntity.ok(metrics);
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -110,9 +110,10 @@ public class InventoryController {
     @PostMapping("/{id}/reserve")
     public ResponseEntity<?> reserveStock(
             @PathVariable String id,
-            @RequestParam @Min(1) int quantity) {
+            @RequestParam @Min(1) int quantity,
+            @RequestParam(required = false) @Min(1) Integer ttlMinutes) {
         try {
-            Inventory inventory = inventoryService.reserveStock(id, quantity);
+            Inventory inventory = inventoryService.reserveStock(id, quantity, null, ttlMinutes);
             return ResponseEntity.ok(inventory);
         } catch (EntityNotFoundException e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -301,6 +302,25 @@ public class InventoryController {
         }
     }
 
+    @GetMapping("/product/{productId}/warehouse/{warehouseId}/availability")
+    public ResponseEntity<?> getAvailability(
+            @PathVariable String productId,
+            @PathVariable String warehouseId) {
+        try {
+            return ResponseEntity.ok(inventoryService.getAvailability(productId, warehouseId));
+        } catch (EntityNotFoundException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Inventory not found");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(404).body(errorResponse);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to retrieve availability");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
     @GetMapping("/low-stock")
     public ResponseEntity<?> getLowStockInventories() {
         try {
@@ -0,0 +1,67 @@
+package com.example.ims.controller;
+
+import com.example.ims.dto.LiveUpdateEvent;
+import com.example.ims.service.LiveUpdateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@RestController
+@RequestMapping("/live")
+public class LiveUpdateController {
+    private static final Set<String> TOPICS = Set.of(LiveUpdateEvent.TOPIC_STOCK, LiveUpdateEvent.TOPIC_ALERTS);
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    /**
+     * Server-sent event stream of stock and alert changes, e.g.
+     * /live/stream?topic=stock&warehouseId=a&warehouseId=b
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<SseEmitter> stream(
+            @RequestParam(required = false) List<String> warehouseId,
+            @RequestParam(required = false) List<String> topic) {
+        Set<String> topics = new TreeSet<>(topic != null ? topic : TOPICS);
+        if (!TOPICS.containsAll(topics)) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Invalid topic");
+            errorResponse.put("message", "Topics must be among " + new TreeSet<>(TOPICS));
+            return ResponseEntity.status(400).body(errorStream(errorResponse));
+        }
+
+        try {
+            Set<String> warehouseIds = new TreeSet<>(warehouseId != null ? warehouseId : List.of());
+            SseEmitter emitter = liveUpdateService.subscribe(warehouseIds, topics);
+            return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+        } catch (IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Too many live update subscribers");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(503).header("Retry-After", "30").body(errorStream(errorResponse));
+        }
+    }
+
+    /**
+     * Stream endpoints can only answer with an event stream, so errors are sent as a single "error" event
+     */
+    private SseEmitter errorStream(Map<String, Object> errorResponse) {
+        SseEmitter emitter = new SseEmitter();
+        try {
+            emitter.send(SseEmitter.event().name("error").data(errorResponse, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+}
@@ -2,6 +2,8 @@ package com.example.ims.controller;
 
 import com.example.ims.dto.ProductWithStockDTO;
 import com.example.ims.model.Product;
+import com.example.ims.service.FacetIndex;
+import com.example.ims.service.ProductFacetService;
 import com.example.ims.service.ProductService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +22,9 @@ public class ProductController {
     
     @Autowired
     private ProductService productService;
+
+    @Autowired
+    private ProductFacetService productFacetService;
     
     @GetMapping
     public ResponseEntity<List<Product>> getAllProducts() {
@@ -202,6 +207,56 @@ public class ProductController {
         }
     }
     
+    /**
+     * Filter by any mix of category ids, brands, price bands ("25-50", "1000+"), stock and
+     * specification keys; repeat a parameter to match any of its values. Returns one page of
+     * products and the count of every facet value under the other filters.
+     */
+    @GetMapping("/browse")
+    public ResponseEntity<?> browseProducts(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> brand,
+            @RequestParam(required = false) List<String> price,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) List<String> spec,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "24") int size) {
+        try {
+            Map<String, List<String>> selected = new HashMap<>();
+            selected.put(FacetIndex.CATEGORY, category);
+            selected.put(FacetIndex.BRAND, brand);
+            selected.put(FacetIndex.PRICE, price);
+            selected.put(FacetIndex.IN_STOCK, inStock == null ? null : List.of(inStock.toString()));
+            selected.put(FacetIndex.SPECIFICATION, spec);
+            return ResponseEntity.ok(productFacetService.browse(selected, Math.max(page, 0), Math.min(Math.max(size, 1), 200)));
+        } catch (IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Product browsing unavailable");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(503).body(errorResponse);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to browse products");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+    
+    @GetMapping("/specification")
+    public ResponseEntity<List<Product>> getProductsBySpecification(
+            @RequestParam String key,
+            @RequestParam(required = false) String value) {
+        try {
+            List<Product> products = productService.getProductsBySpecification(key, value);
+            return ResponseEntity.ok(products);
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to fetch products by specification");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+    
     @GetMapping("/search")
     public ResponseEntity<List<Product>> searchProducts(@RequestParam String q) {
         try {
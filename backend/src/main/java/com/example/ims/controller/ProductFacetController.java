@@ -0,0 +1,51 @@
+package com.example.ims.controller;
+
+import com.example.ims.service.ProductFacetService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/facets")
+@PreAuthorize("hasRole('ADMIN')")
+public class ProductFacetController {
+
+    @Autowired
+    private ProductFacetService productFacetService;
+
+    @GetMapping
+    public ResponseEntity<?> getStatistics() {
+        try {
+            return ResponseEntity.ok(productFacetService.getStatistics());
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to retrieve facet index statistics");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    /**
+     * Rebuild the index now, e.g. after products were changed with SQL
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<?> reload() {
+        try {
+            return ResponseEntity.ok(productFacetService.reload());
+        } catch (IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Facet index unavailable");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(503).body(errorResponse);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to rebuild facet index");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+}
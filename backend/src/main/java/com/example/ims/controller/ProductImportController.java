@@ -0,0 +1,114 @@
+package com.example.ims.controller;
+
+import com.example.ims.model.ProductImportJob;
+import com.example.ims.service.ProductImportReader;
+import com.example.ims.service.ProductImportService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/products/import")
+@PreAuthorize("hasRole('ADMIN')")
+public class ProductImportController {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    /**
+     * Upload a CSV or NDJSON file as the raw request body. The format comes from the format
+     * parameter, or else the content type (text/csv, application/x-ndjson).
+     */
+    @PostMapping
+    public ResponseEntity<?> startImport(
+            HttpServletRequest request,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String warehouseId) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            ProductImportJob job = productImportService.startImport(request.getInputStream(),
+                format != null ? format.toLowerCase() : formatOf(request.getContentType()), warehouseId,
+                authentication == null ? null : authentication.getName());
+            return ResponseEntity.accepted().body(job);
+        } catch (EntityNotFoundException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Warehouse not found");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(404).body(errorResponse);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Invalid import");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(400).body(errorResponse);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to start import");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getRecentJobs() {
+        try {
+            return ResponseEntity.ok(productImportService.getRecentJobs());
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to retrieve import jobs");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(productImportService.getJob(jobId));
+        } catch (EntityNotFoundException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Import job not found");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(404).body(errorResponse);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to retrieve import job");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    @GetMapping("/{jobId}/errors")
+    public ResponseEntity<?> getErrors(
+            @PathVariable String jobId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        try {
+            return ResponseEntity.ok(productImportService.getErrors(jobId, Math.max(page, 0), Math.min(Math.max(size, 1), 1000)));
+        } catch (EntityNotFoundException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Import job not found");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(404).body(errorResponse);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to retrieve import errors");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    private static String formatOf(String contentType) {
+        if (contentType != null && contentType.toLowerCase().contains("ndjson")) {
+            return ProductImportReader.FORMAT_NDJSON;
+        }
+        return ProductImportReader.FORMAT_CSV;
+    }
+}
@@ -4,6 +4,7 @@ import com.example.ims.model.PurchaseOrder;
 import com.example.ims.model.PurchaseOrderItem;
 import com.example.ims.model.PurchaseOrderStatus;
 import com.example.ims.model.CreatePurchaseOrderItemRequest;
+import com.example.ims.model.Money;
 import com.example.ims.service.PurchaseOrderService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
@@ -84,7 +85,7 @@ public class PurchaseOrderController {
                         CreatePurchaseOrderItemRequest request = new CreatePurchaseOrderItemRequest();
                         request.setProductId((String) itemMap.get("productId"));
                         request.setQuantityOrdered(((Number) itemMap.get("quantityOrdered")).intValue());
-                        request.setUnitPrice(((Number) itemMap.get("unitPrice")).doubleValue());
+                        request.setUnitPriceMinor(Money.toMinor((Number) itemMap.get("unitPrice")));
                         request.setNotes((String) itemMap.get("notes"));
                         return request;
                     }
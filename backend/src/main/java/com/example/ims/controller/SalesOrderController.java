@@ -10,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -72,6 +73,51 @@ public class SalesOrderController {
         }
     }
 
+    /**
+     * Like POST /sales-orders, but splits the items across warehouses; warehouseId is only a preference
+     */
+    @PostMapping("/allocate")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<?> createAllocatedSalesOrders(@RequestBody Map<String, Object> request) {
+        try {
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> itemsData = (List<Map<String, Object>>) request.get("items");
+
+            List<SalesOrder> orders = salesOrderService.createAllocatedSalesOrders(
+                (String) request.get("warehouseId"),
+                (String) request.get("customerName"),
+                (String) request.get("customerEmail"),
+                (String) request.get("shippingAddress"),
+                (String) request.get("billingAddress"),
+                (String) request.get("notes"),
+                itemsData
+            );
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("allocationGroupId", orders.get(0).getAllocationGroupId());
+            response.put("shipments", orders.size());
+            response.put("orders", orders);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Order cannot be allocated");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            System.err.println("Failed to allocate sales order: " + e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to allocate sales order");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    @GetMapping("/allocation/{allocationGroupId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<SalesOrder>> getSalesOrdersByAllocationGroup(@PathVariable String allocationGroupId) {
+        return ResponseEntity.ok(salesOrderService.getSalesOrdersByAllocationGroup(allocationGroupId));
+    }
+
     @PutMapping("/{id}/status")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<SalesOrder> updateOrderStatus(
@@ -0,0 +1,68 @@
+package com.example.ims.controller;
+
+import com.example.ims.service.StockGridService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/stock-grid")
+@PreAuthorize("hasRole('ADMIN')")
+public class StockGridController {
+
+    @Autowired
+    private StockGridService stockGridService;
+
+    @GetMapping
+    public ResponseEntity<?> getStatistics() {
+        try {
+            return ResponseEntity.ok(stockGridService.getStatistics());
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to retrieve stock grid statistics");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    /**
+     * Compare the grid with the inventory table; repair=true also fixes the cells that differ
+     */
+    @GetMapping("/check")
+    public ResponseEntity<?> check(@RequestParam(defaultValue = "false") boolean repair) {
+        try {
+            return ResponseEntity.ok(stockGridService.check(repair));
+        } catch (IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Stock grid unavailable");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(503).body(errorResponse);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to check stock grid");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    @PostMapping("/reload")
+    public ResponseEntity<?> reload() {
+        try {
+            return ResponseEntity.ok(stockGridService.reload());
+        } catch (IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Stock grid unavailable");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(503).body(errorResponse);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to reload stock grid");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.ims.controller;
+
+import com.example.ims.service.StockReservationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/reservations")
+@PreAuthorize("hasRole('ADMIN')")
+public class StockReservationController {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @GetMapping
+    public ResponseEntity<?> getStatistics() {
+        try {
+            return ResponseEntity.ok(stockReservationService.getStatistics());
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to retrieve reservation statistics");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    @GetMapping("/order/{salesOrderId}")
+    public ResponseEntity<?> getReservationsForOrder(@PathVariable String salesOrderId) {
+        try {
+            return ResponseEntity.ok(stockReservationService.getReservationsForOrder(salesOrderId));
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to retrieve reservations");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    /**
+     * Release every reservation past its expiry now instead of waiting for the next sweep
+     */
+    @PostMapping("/sweep")
+    public ResponseEntity<?> sweep() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("released", stockReservationService.sweepExpired());
+        return ResponseEntity.ok(response);
+    }
+}
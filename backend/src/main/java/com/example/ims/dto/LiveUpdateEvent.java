@@ -0,0 +1,68 @@
+package com.example.ims.dto;
+
+import com.example.ims.model.Alert;
+import com.example.ims.model.Inventory;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A change pushed to live-update subscribers: the latest state of one inventory cell or alert.
+ * Events for the same topic and key replace each other until the next push.
+ */
+@Data
+public class LiveUpdateEvent {
+    public static final String TOPIC_STOCK = "stock";
+    public static final String TOPIC_ALERTS = "alerts";
+
+    private final String topic;
+    private final String warehouseId;
+    private final String key;
+    private final boolean deleted;
+    private final Map<String, Object> data;
+
+    @JsonIgnore
+    public String getCoalescingKey() {
+        return topic + ":" + key;
+    }
+
+    public static LiveUpdateEvent stock(Inventory inventory) {
+        return new LiveUpdateEvent(TOPIC_STOCK, inventory.getWarehouse().getWarehouseId(),
+            inventory.getInventoryId(), false, stockData(inventory));
+    }
+
+    public static LiveUpdateEvent stockDeleted(Inventory inventory) {
+        return new LiveUpdateEvent(TOPIC_STOCK, inventory.getWarehouse().getWarehouseId(),
+            inventory.getInventoryId(), true, stockData(inventory));
+    }
+
+    public static LiveUpdateEvent alert(Alert alert) {
+        return new LiveUpdateEvent(TOPIC_ALERTS, alert.getWarehouse().getWarehouseId(),
+            alert.getAlertId(), false, alertData(alert));
+    }
+
+    public static LiveUpdateEvent alertDeleted(Alert alert) {
+        return new LiveUpdateEvent(TOPIC_ALERTS, alert.getWarehouse().getWarehouseId(),
+            alert.getAlertId(), true, alertData(alert));
+    }
+
+    private static Map<String, Object> stockData(Inventory inventory) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("productId", inventory.getProduct().getProductId());
+        data.put("quantityAvailable", inventory.getQuantityAvailable());
+        data.put("quantityReserved", inventory.getQuantityReserved());
+        data.put("quantityDamaged", inventory.getQuantityDamaged());
+        return data;
+    }
+
+    private static Map<String, Object> alertData(Alert alert) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("productId", alert.getProduct().getProductId());
+        data.put("status", alert.getStatus());
+        data.put("threshold", alert.getThreshold());
+        data.put("currentStock", alert.getCurrentStock());
+        return data;
+    }
+}
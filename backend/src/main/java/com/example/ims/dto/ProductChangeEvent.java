@@ -0,0 +1,32 @@
+package com.example.ims.dto;
+
+import com.example.ims.model.Product;
+import lombok.Data;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A product was created, changed or deleted; carries the attributes the facet index needs,
+ * so listeners do not have to read the product back.
+ */
+@Data
+public class ProductChangeEvent {
+    private final String productId;
+    private final boolean deleted;
+    private final String categoryId;
+    private final String brand;
+    private final Long unitPriceMinor;
+    private final Collection<String> specificationKeys;
+
+    public static ProductChangeEvent of(Product product) {
+        return new ProductChangeEvent(product.getProductId(), false,
+            product.getCategory() == null ? null : product.getCategory().getCategoryId(),
+            product.getBrand(), product.getUnitPriceMinor(),
+            product.getSpecifications() == null ? List.of() : List.copyOf(product.getSpecifications().keySet()));
+    }
+
+    public static ProductChangeEvent deleted(String productId) {
+        return new ProductChangeEvent(productId, true, null, null, null, List.of());
+    }
+}
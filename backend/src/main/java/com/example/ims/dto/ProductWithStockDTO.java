@@ -3,6 +3,9 @@ package com.example.ims.dto;
 import com.example.ims.model.Product;
 import com.example.ims.model.Category;
 import com.example.ims.model.Inventory;
+import com.example.ims.model.Money;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -17,7 +20,9 @@ public class ProductWithStockDTO {
     private Category category;  // Changed from String to Category
     private String brand;
     private String model;
-    private Double unitPrice;
+    @JsonProperty("unitPrice")
+    @JsonSerialize(using = Money.Serializer.class)
+    private Long unitPriceMinor;
     private String sku;
     private int minimumStockThreshold;
     private Map<String, String> specifications;
@@ -41,7 +46,7 @@ public class ProductWithStockDTO {
         dto.setCategory(product.getCategory());  // Now correctly sets Category object
         dto.setBrand(product.getBrand());
         dto.setModel(product.getModel());
-        dto.setUnitPrice(product.getUnitPrice());
+        dto.setUnitPriceMinor(product.getUnitPriceMinor());
         dto.setSku(product.getSku());
         dto.setMinimumStockThreshold(product.getMinimumStockThreshold());
         dto.setSpecifications(product.getSpecifications());
@@ -1,22 +1,29 @@
 package com.example.ims.model;
 
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.config.UuidStringType;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
 
 import java.util.Date;
 
 @Data
 @Entity
-@Table(name = "alerts")
+@Table(name = "alerts", indexes = {
+    @Index(name = "idx_alerts_status_created", columnList = "status, createdAt"),
+    @Index(name = "idx_alerts_cell_status", columnList = "product_id, warehouse_id, status")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Alert {
     @Id
-    @GeneratedValue(generator = "uuid2")
-    @GenericGenerator(name = "uuid2", strategy = "uuid2")
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = TimeOrderedUuidGenerator.class)
+    @Type(UuidStringType.class)
     private String alertId;
 
     @ManyToOne(fetch = FetchType.LAZY)
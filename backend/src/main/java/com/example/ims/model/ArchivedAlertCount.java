@@ -0,0 +1,48 @@
+package com.example.ims.model;
+
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.config.UuidStringType;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
+
+import java.time.LocalDate;
+
+/**
+ * Daily count of archived alerts per product, warehouse and final status, bucketed by
+ * the day the alert was raised. Lets alert metrics cover history without reading it.
+ */
+@Data
+@Entity
+@Table(name = "archived_alert_counts",
+    uniqueConstraints = @UniqueConstraint(name = "uk_archived_alert_counts_cell_day_status",
+        columnNames = {"product_id", "warehouse_id", "bucket_date", "status"}),
+    indexes = @Index(name = "idx_archived_alert_counts_day", columnList = "bucket_date"))
+public class ArchivedAlertCount {
+    @Id
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = TimeOrderedUuidGenerator.class)
+    @Type(UuidStringType.class)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    @JsonIgnoreProperties({"inventories", "purchaseOrderItems", "salesOrderItems", "hibernateLazyInitializer"})
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    @JsonIgnoreProperties({"inventories", "salesOrders", "purchaseOrders", "hibernateLazyInitializer"})
+    private Warehouse warehouse;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AlertStatus status;
+
+    private long alertCount;
+}
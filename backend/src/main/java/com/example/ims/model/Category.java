@@ -1,24 +1,31 @@
 package com.example.ims.model;
 
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.config.UuidStringType;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Table(name = "categories")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference.category")
 @Data
 @JsonIgnoreProperties({"hibernateLazyInitializer"})
 public class Category {
     
     @Id
-    @GeneratedValue(generator = "uuid2")
-    @GenericGenerator(name = "uuid2", strategy = "uuid2")
-    @Column(name = "category_id", columnDefinition = "VARCHAR(36)")
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = TimeOrderedUuidGenerator.class)
+    @Type(UuidStringType.class)
+    @Column(name = "category_id")
     private String categoryId;
     
     @NotBlank(message = "Category name is required")
@@ -1,5 +1,8 @@
 package com.example.ims.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -18,7 +21,10 @@ public class CreatePurchaseOrderItemRequest {
     
     @NotNull(message = "Unit price is required")
     @Positive(message = "Unit price must be positive")
-    private double unitPrice;
+    @JsonProperty("unitPrice")
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private long unitPriceMinor;
     
     private String notes;
     
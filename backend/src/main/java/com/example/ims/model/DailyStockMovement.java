@@ -0,0 +1,64 @@
+package com.example.ims.model;
+
+import com.example.ims.config.MoneyConverter;
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.config.UuidStringType;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
+
+import java.time.LocalDate;
+
+/**
+ * Daily rollup of confirmed sales and received purchases per product and warehouse.
+ * Sales are bucketed by order creation day, receipts by the day the PO was received.
+ */
+@Data
+@Entity
+@Table(name = "daily_stock_movements",
+    uniqueConstraints = @UniqueConstraint(name = "uk_daily_stock_movements_cell_day",
+        columnNames = {"product_id", "warehouse_id", "bucket_date"}),
+    indexes = @Index(name = "idx_daily_stock_movements_day", columnList = "bucket_date"))
+public class DailyStockMovement {
+    @Id
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = TimeOrderedUuidGenerator.class)
+    @Type(UuidStringType.class)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    @JsonIgnoreProperties({"inventories", "purchaseOrderItems", "salesOrderItems", "hibernateLazyInitializer"})
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    @JsonIgnoreProperties({"inventories", "salesOrders", "purchaseOrders", "hibernateLazyInitializer"})
+    private Warehouse warehouse;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    private long quantitySold;
+
+    @Column(name = "sales_amount", nullable = false, precision = 19, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    @JsonProperty("salesAmount")
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private long salesAmountMinor;
+
+    private long quantityReceived;
+
+    @Column(name = "purchase_amount", nullable = false, precision = 19, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    @JsonProperty("purchaseAmount")
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private long purchaseAmountMinor;
+}
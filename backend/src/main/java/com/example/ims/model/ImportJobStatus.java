@@ -0,0 +1,8 @@
+package com.example.ims.model;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -1,10 +1,13 @@
 package com.example.ims.model;
 
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.config.UuidStringType;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import lombok.Data;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
 
 import java.util.Date;
 
@@ -13,8 +16,9 @@ import java.util.Date;
 @Table(name = "inventory")
 public class Inventory {
     @Id
-    @GeneratedValue(generator = "uuid2")
-    @GenericGenerator(name = "uuid2", strategy = "uuid2")
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = TimeOrderedUuidGenerator.class)
+    @Type(UuidStringType.class)
     private String inventoryId;
 
     @ManyToOne(fetch = FetchType.LAZY)
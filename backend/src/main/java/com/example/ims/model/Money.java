@@ -0,0 +1,108 @@
+package com.example.ims.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amounts of money as long minor units (cents). Sums and products are exact and need no
+ * boxing; overflow throws instead of wrapping.
+ *
+ * The database keeps amounts as NUMERIC(19, 2) in major units (see MoneyConverter), and
+ * the API reads and writes them as decimal numbers through {@link Serializer} and
+ * {@link Deserializer}, so neither sees the minor units. Amounts with more than two
+ * decimals are rounded half up when they come in.
+ */
+public final class Money {
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    public static long toMinor(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Minor units of a query result or JSON number; decimals are taken exactly, doubles by their shortest decimal form
+     */
+    public static long toMinor(Number amount) {
+        if (amount instanceof BigDecimal decimal) {
+            return toMinor(decimal);
+        }
+        if (amount instanceof Long || amount instanceof Integer || amount instanceof Short || amount instanceof Byte) {
+            return Math.multiplyExact(amount.longValue(), 100L);
+        }
+        return toMinor(BigDecimal.valueOf(amount.doubleValue()));
+    }
+
+    public static Long toMinorOrNull(Number amount) {
+        return amount == null ? null : toMinor(amount);
+    }
+
+    /**
+     * @throws NumberFormatException when the text is not a decimal number
+     */
+    public static long parse(String amount) {
+        return toMinor(new BigDecimal(amount.trim()));
+    }
+
+    public static BigDecimal toDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    public static BigDecimal toDecimalOrNull(Long minor) {
+        return minor == null ? null : toDecimal(minor);
+    }
+
+    public static long times(long minor, long quantity) {
+        return Math.multiplyExact(minor, quantity);
+    }
+
+    /**
+     * Writes minor units as a decimal number, e.g. 1999 as 19.99
+     */
+    public static class Serializer extends StdSerializer<Long> {
+        public Serializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(toDecimal(value));
+        }
+    }
+
+    /**
+     * Reads a decimal number, or a string holding one, as minor units
+     */
+    public static class Deserializer extends StdDeserializer<Long> {
+        public Deserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                String text = parser.getText();
+                if (text.isBlank()) {
+                    return null;
+                }
+                try {
+                    return parse(text);
+                } catch (NumberFormatException e) {
+                    return (Long) context.handleWeirdStringValue(Long.class, text, "not a decimal amount");
+                }
+            }
+            return toMinor(parser.getDecimalValue());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.ims.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * A change to an inventory cell or order, written in the same transaction as the change
+ * and relayed to downstream systems afterwards. The id comes from a database sequence
+ * and is taken after the aggregate row is locked, so it orders events per aggregate.
+ */
+@Data
+@Entity
+@Table(name = "outbox_events",
+    indexes = @Index(name = "idx_outbox_events_unpublished", columnList = "published_at, id"))
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private String aggregateId;
+
+    @Column(nullable = false, length = 64)
+    private String eventType;
+
+    @JsonRawValue
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+    @JsonIgnore
+    @Column(name = "published_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date publishedAt;
+
+    @JsonIgnore
+    private int attempts;
+
+    @JsonIgnore
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = new Date();
+    }
+}
@@ -1,17 +1,26 @@
 package com.example.ims.model;
 
+import com.example.ims.config.MoneyConverter;
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.config.UuidStringType;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 @Entity
 @Table(name = "products")
@@ -20,9 +29,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 public class Product {
     
     @Id
-    @GeneratedValue(generator = "uuid2")
-    @GenericGenerator(name = "uuid2", strategy = "uuid2")
-    @Column(name = "product_id", columnDefinition = "VARCHAR(36)")
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = TimeOrderedUuidGenerator.class)
+    @Type(UuidStringType.class)
+    @Column(name = "product_id")
     private String productId;
     
     @NotBlank(message = "Product name is required")
@@ -49,18 +59,32 @@ public class Product {
     
     @NotNull(message = "Unit price is required")
     @Positive(message = "Unit price must be positive")
-    @Column(name = "unit_price", nullable = false)
-    private Double unitPrice;
-    
-    @Column(name = "cost_price")
-    private Double costPrice;
+    @Column(name = "unit_price", nullable = false, precision = 19, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    @JsonProperty("unitPrice")
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private Long unitPriceMinor;
+    
+    @Column(name = "cost_price", precision = 19, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    @JsonProperty("costPrice")
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private Long costPriceMinor;
     
     @Column(name = "minimum_stock_threshold")
     private Integer minimumStockThreshold = 10;
     
+    /**
+     * Loaded for every product of a query in one statement the first time any of them is read.
+     * The (key, value) index serves specification filters.
+     */
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "product_specifications", 
-                     joinColumns = @JoinColumn(name = "product_id"))
+                     joinColumns = @JoinColumn(name = "product_id"),
+                     indexes = @Index(name = "idx_product_specifications_key_value", columnList = "spec_key, spec_value"))
     @MapKeyColumn(name = "spec_key")
     @Column(name = "spec_value")
     private Map<String, String> specifications = new HashMap<>();
@@ -0,0 +1,35 @@
+package com.example.ims.model;
+
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.config.UuidStringType;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
+
+/**
+ * A row an import rejected, by its line in the uploaded file
+ */
+@Data
+@Entity
+@Table(name = "product_import_errors",
+    indexes = @Index(name = "idx_product_import_errors_job_line", columnList = "job_id, line_number"))
+public class ProductImportError {
+    @Id
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = TimeOrderedUuidGenerator.class)
+    @Type(UuidStringType.class)
+    private String errorId;
+
+    @Column(name = "job_id", nullable = false)
+    @Type(UuidStringType.class)
+    private String jobId;
+
+    @Column(name = "line_number", nullable = false)
+    private long lineNumber;
+
+    private String sku;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+}
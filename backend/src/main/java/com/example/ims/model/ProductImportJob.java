@@ -0,0 +1,68 @@
+package com.example.ims.model;
+
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.config.UuidStringType;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
+
+import java.util.Date;
+
+/**
+ * A bulk product import. Counters are updated in the same transaction as each chunk of
+ * products, so they always match what has been committed.
+ */
+@Data
+@Entity
+@Table(name = "product_import_jobs")
+public class ProductImportJob {
+    @Id
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = TimeOrderedUuidGenerator.class)
+    @Type(UuidStringType.class)
+    private String jobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportJobStatus status;
+
+    @Column(nullable = false, length = 16)
+    private String format;
+
+    // Warehouse for rows that do not name one; may be null
+    @Type(UuidStringType.class)
+    private String defaultWarehouseId;
+
+    private String requestedBy;
+
+    private long rowsRead;
+
+    private long imported;
+
+    // Rows whose SKU already existed
+    private long skipped;
+
+    private long failed;
+
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    @Column(nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date startedAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = new Date();
+        if (status == null) {
+            status = ImportJobStatus.QUEUED;
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.ims.model;
 
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.config.UuidStringType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Data;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -13,11 +18,15 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "purchase_orders")
+@Table(name = "purchase_orders", indexes = {
+    @Index(name = "idx_purchase_orders_updated_at", columnList = "updatedAt"),
+    @Index(name = "idx_purchase_orders_received_at", columnList = "receivedAt")
+})
 public class PurchaseOrder {
     @Id
-    @GeneratedValue(generator = "uuid2")
-    @GenericGenerator(name = "uuid2", strategy = "uuid2")
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = TimeOrderedUuidGenerator.class)
+    @Type(UuidStringType.class)
     private String poId;
 
     @NotBlank(message = "Supplier name is required")
@@ -43,6 +52,10 @@ public class PurchaseOrder {
     @Temporal(TemporalType.TIMESTAMP)
     private Date updatedAt;
 
+    // Set once when the order reaches RECEIVED; later edits only move updatedAt
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date receivedAt;
+
     private String notes;
 
     @OneToMany(mappedBy = "purchaseOrder", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -68,16 +81,28 @@ public class PurchaseOrder {
         if (status == null) {
             status = PurchaseOrderStatus.PENDING;
         }
+        stampReceivedAt();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = new Date();
+        stampReceivedAt();
+    }
+
+    private void stampReceivedAt() {
+        if (status == PurchaseOrderStatus.RECEIVED && receivedAt == null) {
+            receivedAt = updatedAt;
+        }
     }
 
-    public double getTotalAmount() {
-        return items.stream()
-            .mapToDouble(item -> item.getQuantityOrdered() * item.getUnitPrice())
-            .sum();
+    @JsonProperty("totalAmount")
+    @JsonSerialize(using = Money.Serializer.class)
+    public long getTotalAmountMinor() {
+        long total = 0;
+        for (PurchaseOrderItem item : items) {
+            total = Math.addExact(total, item.getSubtotalMinor());
+        }
+        return total;
     }
 }
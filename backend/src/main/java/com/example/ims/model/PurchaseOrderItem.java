@@ -1,20 +1,28 @@
 package com.example.ims.model;
 
+import com.example.ims.config.MoneyConverter;
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.config.UuidStringType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Data;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
 
 @Data
 @Entity
 @Table(name = "purchase_order_items")
 public class PurchaseOrderItem {
     @Id
-    @GeneratedValue(generator = "uuid2")
-    @GenericGenerator(name = "uuid2", strategy = "uuid2")
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = TimeOrderedUuidGenerator.class)
+    @Type(UuidStringType.class)
     private String id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -28,7 +36,12 @@ public class PurchaseOrderItem {
 
     @NotNull(message = "Unit price is required")
     @Positive(message = "Unit price must be positive")
-    private double unitPrice;
+    @Column(name = "unit_price", nullable = false, precision = 19, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    @JsonProperty("unitPrice")
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private long unitPriceMinor;
 
     private int quantityReceived;
 
@@ -40,8 +53,10 @@ public class PurchaseOrderItem {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
-    public double getSubtotal() {
-        return quantityOrdered * unitPrice;
+    @JsonProperty("subtotal")
+    @JsonSerialize(using = Money.Serializer.class)
+    public long getSubtotalMinor() {
+        return Money.times(unitPriceMinor, quantityOrdered);
     }
 
     public boolean isFullyReceived() {
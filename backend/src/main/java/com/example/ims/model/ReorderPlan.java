@@ -0,0 +1,53 @@
+package com.example.ims.model;
+
+import com.example.ims.config.UuidStringType;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Type;
+
+import java.util.Date;
+
+/**
+ * Demand-driven stocking levels for one product in one warehouse,
+ * recalculated in bulk by ReorderPlanningService.
+ */
+@Data
+@Entity
+@Table(name = "reorder_plans",
+    uniqueConstraints = @UniqueConstraint(name = "uk_reorder_plans_cell", columnNames = {"product_id", "warehouse_id"}))
+public class ReorderPlan {
+    @Id
+    @Column(name = "plan_id")
+    @Type(UuidStringType.class)
+    private String planId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    @JsonIgnoreProperties({"inventories", "purchaseOrderItems", "salesOrderItems", "hibernateLazyInitializer"})
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    @JsonIgnoreProperties({"inventories", "salesOrders", "purchaseOrders", "hibernateLazyInitializer"})
+    private Warehouse warehouse;
+
+    @Column(name = "average_daily_demand", nullable = false)
+    private double averageDailyDemand;
+
+    @Column(name = "demand_std_dev", nullable = false)
+    private double demandStdDev;
+
+    @Column(name = "safety_stock", nullable = false)
+    private int safetyStock;
+
+    @Column(name = "reorder_point", nullable = false)
+    private int reorderPoint;
+
+    @Column(name = "optimal_stock_level", nullable = false)
+    private int optimalStockLevel;
+
+    @Column(name = "calculated_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date calculatedAt;
+}
@@ -0,0 +1,8 @@
+package com.example.ims.model;
+
+public enum ReservationStatus {
+    ACTIVE,
+    RELEASED,
+    EXPIRED,
+    FULFILLED
+}
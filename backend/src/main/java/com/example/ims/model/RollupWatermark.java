@@ -0,0 +1,22 @@
+package com.example.ims.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * Persisted progress marker for an incremental job: source rows updated
+ * at or before processedUntil have already been folded into the rollup.
+ */
+@Data
+@Entity
+@Table(name = "rollup_watermarks")
+public class RollupWatermark {
+    @Id
+    private String jobName;
+
+    @Column(nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date processedUntil;
+}
@@ -1,11 +1,16 @@
 package com.example.ims.model;
 
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.config.UuidStringType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Data;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -13,11 +18,15 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "sales_orders")
+@Table(name = "sales_orders", indexes = {
+    @Index(name = "idx_sales_orders_updated_at", columnList = "updatedAt"),
+    @Index(name = "idx_sales_orders_allocation_group", columnList = "allocation_group_id")
+})
 public class SalesOrder {
     @Id
-    @GeneratedValue(generator = "uuid2")
-    @GenericGenerator(name = "uuid2", strategy = "uuid2")
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = TimeOrderedUuidGenerator.class)
+    @Type(UuidStringType.class)
     private String orderId;
 
     @NotBlank(message = "Customer name is required")
@@ -51,6 +60,11 @@ public class SalesOrder {
 
     private String notes;
 
+    /** Shared by the per-warehouse orders an allocated order was split into; null for single-warehouse orders */
+    @Column(name = "allocation_group_id")
+    @Type(UuidStringType.class)
+    private String allocationGroupId;
+
     @OneToMany(mappedBy = "salesOrder", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnoreProperties("salesOrder")
     private List<SalesOrderItem> items = new ArrayList<>();
@@ -81,9 +95,13 @@ public class SalesOrder {
         updatedAt = new Date();
     }
 
-    public double getTotalAmount() {
-        return items.stream()
-            .mapToDouble(item -> item.getQuantity() * item.getUnitPrice())
-            .sum();
+    @JsonProperty("totalAmount")
+    @JsonSerialize(using = Money.Serializer.class)
+    public long getTotalAmountMinor() {
+        long total = 0;
+        for (SalesOrderItem item : items) {
+            total = Math.addExact(total, item.getSubtotalMinor());
+        }
+        return total;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.example.ims.model;
+
+import com.example.ims.config.MoneyConverter;
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.config.UuidStringType;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
+
+import java.util.Date;
+
+/**
+ * A FIFO cost layer: stock received into a warehouse at a point in time.
+ * Outbound movements drain the oldest layers first, so receivedAt on the
+ * remaining layers is the true age of the stock on hand.
+ */
+@Data
+@Entity
+@Table(name = "stock_lots", indexes = {
+    @Index(name = "idx_stock_lots_cell_received", columnList = "product_id, warehouse_id, received_at"),
+    @Index(name = "idx_stock_lots_received", columnList = "received_at")
+})
+public class StockLot {
+    @Id
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = TimeOrderedUuidGenerator.class)
+    @Type(UuidStringType.class)
+    private String lotId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    @JsonIgnoreProperties({"inventories", "purchaseOrderItems", "salesOrderItems", "hibernateLazyInitializer"})
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    @JsonIgnoreProperties({"inventories", "salesOrders", "purchaseOrders", "hibernateLazyInitializer"})
+    private Warehouse warehouse;
+
+    // Purchase order that brought the stock in; null for opening balances and manual adjustments
+    @Type(UuidStringType.class)
+    private String purchaseOrderId;
+
+    @Min(value = 1, message = "Received quantity must be at least 1")
+    private int quantityReceived;
+
+    @Min(value = 0, message = "Remaining quantity cannot be negative")
+    private int quantityRemaining;
+
+    @Column(name = "unit_cost", precision = 19, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    @JsonProperty("unitCost")
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private Long unitCostMinor;
+
+    @Column(name = "received_at", nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date receivedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (receivedAt == null) {
+            receivedAt = new Date();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.ims.model;
+
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.config.UuidStringType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
+
+import java.util.Date;
+
+/**
+ * Stock moved from available to reserved for a limited time.
+ * Active reservations past expiresAt are returned to available stock by the expiry scheduler.
+ */
+@Data
+@Entity
+@Table(name = "stock_reservations", indexes = {
+    @Index(name = "idx_stock_reservations_status_expires", columnList = "status, expires_at"),
+    @Index(name = "idx_stock_reservations_order", columnList = "sales_order_id"),
+    @Index(name = "idx_stock_reservations_inventory", columnList = "inventory_id, status")
+})
+public class StockReservation {
+    @Id
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = TimeOrderedUuidGenerator.class)
+    @Type(UuidStringType.class)
+    private String reservationId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "inventory_id", nullable = false)
+    @JsonIgnore
+    private Inventory inventory;
+
+    // Order the stock is held for; null for reservations made directly on inventory
+    @Column(name = "sales_order_id")
+    @Type(UuidStringType.class)
+    private String salesOrderId;
+
+    @Min(value = 1, message = "Reserved quantity must be at least 1")
+    private int quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReservationStatus status;
+
+    // Null for stock held for a confirmed order, which is only closed with the order
+    @Column(name = "expires_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date expiresAt;
+
+    @Column(nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date closedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = new Date();
+        if (status == null) {
+            status = ReservationStatus.ACTIVE;
+        }
+    }
+
+    public String getInventoryId() {
+        return inventory == null ? null : inventory.getInventoryId();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.ims.model;
+
+public enum TurnoverDimension {
+    SKU,
+    CATEGORY,
+    WAREHOUSE
+}
@@ -0,0 +1,128 @@
+package com.example.ims.repository;
+
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Cold storage for resolved alerts. On PostgreSQL alert_history is range-partitioned
+ * by month of created_at, so old months can be detached or dropped without a DELETE;
+ * other databases get a plain table with the same columns.
+ */
+@Repository
+public class AlertHistoryRepository {
+
+    private static final String SELECT_ARCHIVABLE =
+        "SELECT alert_id, product_id, warehouse_id, status, threshold, current_stock, created_at, updated_at " +
+        "FROM alerts WHERE status = 'RESOLVED' AND updated_at < ? ORDER BY updated_at LIMIT ? FOR UPDATE";
+
+    private static final String INSERT_HISTORY =
+        "INSERT INTO alert_history (alert_id, product_id, warehouse_id, status, threshold, current_stock, " +
+        "created_at, resolved_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_COUNT =
+        "UPDATE archived_alert_counts SET alert_count = alert_count + ? " +
+        "WHERE product_id = ? AND warehouse_id = ? AND bucket_date = ? AND status = ?";
+
+    private static final String INSERT_COUNT =
+        "INSERT INTO archived_alert_counts (id, product_id, warehouse_id, bucket_date, status, alert_count) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private boolean partitioned;
+
+    @PostConstruct
+    public void ensureSchema() {
+        String product = jdbcTemplate.execute(
+            (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        partitioned = "PostgreSQL".equalsIgnoreCase(product);
+
+        String columns = "alert_id UUID NOT NULL, product_id UUID NOT NULL, " +
+            "warehouse_id UUID NOT NULL, status VARCHAR(32) NOT NULL, threshold INTEGER NOT NULL, " +
+            "current_stock INTEGER NOT NULL, created_at TIMESTAMP NOT NULL, resolved_at TIMESTAMP NOT NULL, " +
+            "PRIMARY KEY (alert_id, created_at)";
+        if (partitioned) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS alert_history (" + columns + ") PARTITION BY RANGE (created_at)");
+        } else {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS alert_history (" + columns + ")");
+        }
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_alert_history_product_created " +
+            "ON alert_history (product_id, created_at)");
+    }
+
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    /**
+     * Move up to batchSize alerts resolved before the cutoff into alert_history,
+     * add them to the daily archived_alert_counts rollup and delete them from alerts
+     *
+     * @return number of alerts archived
+     */
+    @Transactional
+    public int archiveBatch(Date resolvedBefore, int batchSize) {
+        List<Object[]> rows = jdbcTemplate.query(SELECT_ARCHIVABLE, (rs, rowNum) -> new Object[] {
+            rs.getString("alert_id"), rs.getString("product_id"), rs.getString("warehouse_id"),
+            rs.getString("status"), rs.getInt("threshold"), rs.getInt("current_stock"),
+            rs.getTimestamp("created_at"), rs.getTimestamp("updated_at")
+        }, new Timestamp(resolvedBefore.getTime()), batchSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Object[]> counts = new LinkedHashMap<>();
+        Set<YearMonth> months = new TreeSet<>();
+        List<Object[]> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            LocalDate day = ((Timestamp) row[6]).toLocalDateTime().toLocalDate();
+            months.add(YearMonth.from(day));
+            String key = row[1] + "|" + row[2] + "|" + day + "|" + row[3];
+            Object[] count = counts.computeIfAbsent(key, k -> new Object[] {0L, row[1], row[2], day, row[3]});
+            count[0] = (Long) count[0] + 1;
+            ids.add(new Object[] {row[0]});
+        }
+
+        if (partitioned) {
+            months.forEach(this::ensurePartition);
+        }
+        jdbcTemplate.batchUpdate(INSERT_HISTORY, rows);
+        for (Object[] count : counts.values()) {
+            if (jdbcTemplate.update(UPDATE_COUNT, count) == 0) {
+                jdbcTemplate.update(INSERT_COUNT, TimeOrderedUuidGenerator.nextString(),
+                    count[1], count[2], count[3], count[4], count[0]);
+            }
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM alerts WHERE alert_id = ?", ids);
+        return rows.size();
+    }
+
+    /**
+     * Create the partition for created_at values in the given month. Runs inside the
+     * archiving transaction, so a rolled-back batch never leaves a half-made partition.
+     */
+    private void ensurePartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        String name = String.format("alert_history_y%04dm%02d", month.getYear(), month.getMonthValue());
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF alert_history " +
+            "FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+}
@@ -4,7 +4,9 @@ import com.example.ims.model.Alert;
 import com.example.ims.model.AlertStatus;
 import com.example.ims.model.Product;
 import com.example.ims.model.Warehouse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -26,4 +28,27 @@ public interface AlertRepository extends JpaRepository<Alert, String> {
     List<Alert> findActiveAlertsBelowThreshold(AlertStatus status);
     
     long countByStatus(AlertStatus status);
+
+    /**
+     * Rows of [productId, warehouseId] for every alert in the given status
+     */
+    @Query("SELECT a.product.productId, a.warehouse.warehouseId FROM Alert a WHERE a.status = ?1")
+    List<Object[]> findCellsByStatus(AlertStatus status);
+
+    /**
+     * Rows of [status, alert count] for alerts created since the given time
+     */
+    @Query("SELECT a.status, COUNT(a) FROM Alert a WHERE a.createdAt >= ?1 GROUP BY a.status")
+    List<Object[]> countByStatusSince(Date since);
+
+    /**
+     * Rows of [productId, productName, alert count] for alerts created since the given time, most alerts first
+     */
+    @Query("SELECT a.product.productId, a.product.name, COUNT(a) FROM Alert a WHERE a.createdAt >= ?1 " +
+           "GROUP BY a.product.productId, a.product.name ORDER BY COUNT(a) DESC")
+    List<Object[]> findTopProductsByAlertCount(Date since, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Alert a WHERE a.product.productId = ?1")
+    int deleteByProductId(String productId);
 }
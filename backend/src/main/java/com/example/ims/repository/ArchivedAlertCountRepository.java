@@ -0,0 +1,22 @@
+package com.example.ims.repository;
+
+import com.example.ims.model.ArchivedAlertCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ArchivedAlertCountRepository extends JpaRepository<ArchivedAlertCount, String> {
+
+    /**
+     * Rows of [status, archived alert count] for alerts created on or after the given day
+     */
+    @Query("SELECT c.status, SUM(c.alertCount) FROM ArchivedAlertCount c WHERE c.bucketDate >= ?1 GROUP BY c.status")
+    List<Object[]> sumByStatusSince(LocalDate since);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedAlertCount c WHERE c.product.productId = ?1")
+    int deleteByProductId(String productId);
+}
@@ -0,0 +1,54 @@
+package com.example.ims.repository;
+
+import com.example.ims.model.DailyStockMovement;
+import com.example.ims.model.PurchaseOrderStatus;
+import com.example.ims.model.SalesOrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface DailyStockMovementRepository extends JpaRepository<DailyStockMovement, String> {
+    List<DailyStockMovement> findByBucketDateBetween(LocalDate start, LocalDate end);
+
+    @Modifying
+    @Query("DELETE FROM DailyStockMovement m WHERE m.bucketDate IN ?1")
+    int deleteByBucketDateIn(Collection<LocalDate> days);
+
+    @Modifying
+    @Query("DELETE FROM DailyStockMovement m WHERE m.product.productId = ?1")
+    int deleteByProductId(String productId);
+
+    // Creation times of sales orders changed in (since, until]; the caller maps them to days
+    @Query("SELECT DISTINCT o.createdAt FROM SalesOrder o WHERE o.updatedAt > ?1 AND o.updatedAt <= ?2")
+    List<Date> findSalesCreatedAtChangedBetween(Date since, Date until);
+
+    // Receipt times of received purchase orders changed in (since, until]; the caller maps them to days
+    @Query("SELECT DISTINCT o.receivedAt FROM PurchaseOrder o " +
+           "WHERE o.status = ?3 AND o.receivedAt IS NOT NULL AND o.updatedAt > ?1 AND o.updatedAt <= ?2")
+    List<Date> findReceivedAtChangedBetween(Date since, Date until, PurchaseOrderStatus status);
+
+    /**
+     * Rows of [productId, warehouseId, quantity, amount] for sales created in [start, end)
+     */
+    @Query("SELECT i.product.productId, o.warehouse.warehouseId, " +
+           "SUM(i.quantity), SUM(i.quantity * CAST(i.unitPriceMinor AS BigDecimal)) " +
+           "FROM SalesOrderItem i JOIN i.salesOrder o " +
+           "WHERE o.status IN ?3 AND o.createdAt >= ?1 AND o.createdAt < ?2 " +
+           "GROUP BY i.product.productId, o.warehouse.warehouseId")
+    List<Object[]> aggregateSales(Date start, Date end, Collection<SalesOrderStatus> statuses);
+
+    /**
+     * Rows of [productId, warehouseId, quantity, amount] for purchase orders received in [start, end)
+     */
+    @Query("SELECT i.product.productId, o.warehouse.warehouseId, " +
+           "SUM(i.quantityReceived), SUM(i.quantityReceived * CAST(i.unitPriceMinor AS BigDecimal)) " +
+           "FROM PurchaseOrderItem i JOIN i.purchaseOrder o " +
+           "WHERE o.status = ?3 AND o.receivedAt >= ?1 AND o.receivedAt < ?2 " +
+           "GROUP BY i.product.productId, o.warehouse.warehouseId")
+    List<Object[]> aggregateReceipts(Date start, Date end, PurchaseOrderStatus status);
+}
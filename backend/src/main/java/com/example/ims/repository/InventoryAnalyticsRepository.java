@@ -0,0 +1,141 @@
+package com.example.ims.repository;
+
+import com.example.ims.model.PurchaseOrderStatus;
+import com.example.ims.model.SalesOrderStatus;
+import com.example.ims.model.TurnoverDimension;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Aggregate queries for inventory analytics. Every query returns rows of
+ * [groupKey, groupName, quantity, amount] for the requested dimension.
+ * Amounts are exact BigDecimal sums of the NUMERIC money columns.
+ */
+@Repository
+public class InventoryAnalyticsRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public static final List<SalesOrderStatus> SOLD_STATUSES = List.of(
+        SalesOrderStatus.CONFIRMED, SalesOrderStatus.SHIPPED, SalesOrderStatus.DELIVERED);
+
+    /**
+     * Units and revenue sold in [start, end) from sales order lines
+     */
+    public List<Object[]> sumSalesByDimension(TurnoverDimension dimension, Date start, Date end) {
+        return sumSales(dimension, start, end, "i.unitPriceMinor");
+    }
+
+    /**
+     * Units sold in [start, end) from sales order lines, valued at the products' list price
+     */
+    public List<Object[]> sumSalesAtListPriceByDimension(TurnoverDimension dimension, Date start, Date end) {
+        return sumSales(dimension, start, end, "p.unitPriceMinor");
+    }
+
+    private List<Object[]> sumSales(TurnoverDimension dimension, Date start, Date end, String price) {
+        String group = groupColumns(dimension);
+        return entityManager.createQuery(
+                "SELECT " + group + ", SUM(i.quantity), SUM(i.quantity * CAST(" + price + " AS BigDecimal)) " +
+                "FROM SalesOrderItem i JOIN i.salesOrder o JOIN i.product p JOIN p.category c JOIN o.warehouse w " +
+                "WHERE o.status IN :statuses AND o.createdAt >= :start AND o.createdAt < :end " +
+                "GROUP BY " + group, Object[].class)
+            .setParameter("statuses", SOLD_STATUSES)
+            .setParameter("start", start)
+            .setParameter("end", end)
+            .getResultList();
+    }
+
+    /**
+     * Units and cost received in [start, end) from lines of RECEIVED purchase orders.
+     * Orders are placed by receivedAt, which is set once when the order is received.
+     */
+    public List<Object[]> sumReceiptsByDimension(TurnoverDimension dimension, Date start, Date end) {
+        return sumReceipts(dimension, start, end, "i.unitPriceMinor");
+    }
+
+    /**
+     * Units received in [start, end), valued at the products' list price
+     */
+    public List<Object[]> sumReceiptsAtListPriceByDimension(TurnoverDimension dimension, Date start, Date end) {
+        return sumReceipts(dimension, start, end, "p.unitPriceMinor");
+    }
+
+    private List<Object[]> sumReceipts(TurnoverDimension dimension, Date start, Date end, String price) {
+        String group = groupColumns(dimension);
+        return entityManager.createQuery(
+                "SELECT " + group + ", SUM(i.quantityReceived), SUM(i.quantityReceived * CAST(" + price + " AS BigDecimal)) " +
+                "FROM PurchaseOrderItem i JOIN i.purchaseOrder o JOIN i.product p JOIN p.category c JOIN o.warehouse w " +
+                "WHERE o.status = :status AND o.receivedAt >= :start AND o.receivedAt < :end " +
+                "GROUP BY " + group, Object[].class)
+            .setParameter("status", PurchaseOrderStatus.RECEIVED)
+            .setParameter("start", start)
+            .setParameter("end", end)
+            .getResultList();
+    }
+
+    /**
+     * Rows of [groupKey, groupName, unitsSold, salesAmount, unitsReceived, purchaseAmount]
+     * from the daily rollup for the inclusive day range
+     */
+    public List<Object[]> sumDailyMovementsByDimension(TurnoverDimension dimension, LocalDate firstDay, LocalDate lastDay) {
+        String group = groupColumns(dimension);
+        return entityManager.createQuery(
+                "SELECT " + group + ", SUM(m.quantitySold), SUM(CAST(m.salesAmountMinor AS BigDecimal)), " +
+                "SUM(m.quantityReceived), SUM(CAST(m.purchaseAmountMinor AS BigDecimal)) " +
+                "FROM DailyStockMovement m JOIN m.product p JOIN p.category c JOIN m.warehouse w " +
+                "WHERE m.bucketDate >= :firstDay AND m.bucketDate <= :lastDay " +
+                "GROUP BY " + group, Object[].class)
+            .setParameter("firstDay", firstDay)
+            .setParameter("lastDay", lastDay)
+            .getResultList();
+    }
+
+    /**
+     * Rows of [groupKey, groupName, unitsReceived - unitsSold, that net quantity at list price]
+     * from the daily rollup for the inclusive day range
+     */
+    public List<Object[]> sumDailyNetMovementsAtListPriceByDimension(TurnoverDimension dimension,
+                                                                     LocalDate firstDay, LocalDate lastDay) {
+        String group = groupColumns(dimension);
+        return entityManager.createQuery(
+                "SELECT " + group + ", SUM(m.quantityReceived - m.quantitySold), " +
+                "SUM((m.quantityReceived - m.quantitySold) * CAST(p.unitPriceMinor AS BigDecimal)) " +
+                "FROM DailyStockMovement m JOIN m.product p JOIN p.category c JOIN m.warehouse w " +
+                "WHERE m.bucketDate >= :firstDay AND m.bucketDate <= :lastDay " +
+                "GROUP BY " + group, Object[].class)
+            .setParameter("firstDay", firstDay)
+            .setParameter("lastDay", lastDay)
+            .getResultList();
+    }
+
+    /**
+     * Units on hand now (available + reserved) and their value at list price
+     */
+    public List<Object[]> sumOnHandByDimension(TurnoverDimension dimension) {
+        String group = groupColumns(dimension);
+        return entityManager.createQuery(
+                "SELECT " + group + ", SUM(i.quantityAvailable + i.quantityReserved), " +
+                "SUM((i.quantityAvailable + i.quantityReserved) * CAST(p.unitPriceMinor AS BigDecimal)) " +
+                "FROM Inventory i JOIN i.product p JOIN p.category c JOIN i.warehouse w " +
+                "GROUP BY " + group, Object[].class)
+            .getResultList();
+    }
+
+    private String groupColumns(TurnoverDimension dimension) {
+        switch (dimension) {
+            case CATEGORY:
+                return "c.categoryId, c.name";
+            case WAREHOUSE:
+                return "w.warehouseId, w.name";
+            case SKU:
+            default:
+                return "p.sku, p.name";
+        }
+    }
+}
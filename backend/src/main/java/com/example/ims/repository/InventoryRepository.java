@@ -3,9 +3,14 @@ package com.example.ims.repository;
 import com.example.ims.model.Inventory;
 import com.example.ims.model.Product;
 import com.example.ims.model.Warehouse;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 public interface InventoryRepository extends JpaRepository<Inventory, String> {
@@ -16,7 +21,40 @@ public interface InventoryRepository extends JpaRepository<Inventory, String> {
     @Query("SELECT i FROM Inventory i WHERE i.quantityAvailable <= i.product.minimumStockThreshold")
     List<Inventory> findLowStockInventories();
     
+    long countByQuantityAvailable(int quantityAvailable);
+
+    /**
+     * Value of available stock at list price, summed exactly in the database; null when there is no inventory
+     */
+    @Query("SELECT SUM(i.quantityAvailable * CAST(p.unitPriceMinor AS BigDecimal)) FROM Inventory i JOIN i.product p")
+    BigDecimal sumAvailableValue();
+
+    /**
+     * Rows of [warehouseId, cells, lowStockCells, availableValue] for warehouses holding inventory
+     */
+    @Query("SELECT i.warehouse.warehouseId, COUNT(i), " +
+           "SUM(CASE WHEN i.quantityAvailable <= p.minimumStockThreshold THEN 1 ELSE 0 END), " +
+           "SUM(i.quantityAvailable * CAST(p.unitPriceMinor AS BigDecimal)) " +
+           "FROM Inventory i JOIN i.product p GROUP BY i.warehouse.warehouseId")
+    List<Object[]> summarizeByWarehouse();
+    
     boolean existsByWarehouseWarehouseId(String warehouseId);
     
     List<Inventory> findByWarehouseWarehouseId(String warehouseId);
+
+    /**
+     * Lock a set of inventory rows, in id order so concurrent callers cannot deadlock
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.inventoryId IN :ids ORDER BY i.inventoryId")
+    List<Inventory> lockAllById(@Param("ids") Collection<String> ids);
+
+    /**
+     * Lock the cells of the given products in the given warehouses, in id order like lockAllById
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.product.productId IN :productIds " +
+           "AND i.warehouse.warehouseId IN :warehouseIds ORDER BY i.inventoryId")
+    List<Inventory> lockCells(@Param("productIds") Collection<String> productIds,
+                              @Param("warehouseIds") Collection<String> warehouseIds);
 }
@@ -0,0 +1,11 @@
+package com.example.ims.repository;
+
+import com.example.ims.model.ProductImportError;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ProductImportErrorRepository extends JpaRepository<ProductImportError, String> {
+
+    Page<ProductImportError> findByJobIdOrderByLineNumber(String jobId, Pageable pageable);
+}
@@ -0,0 +1,15 @@
+package com.example.ims.repository;
+
+import com.example.ims.model.ImportJobStatus;
+import com.example.ims.model.ProductImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductImportJobRepository extends JpaRepository<ProductImportJob, String> {
+
+    List<ProductImportJob> findTop50ByOrderByCreatedAtDesc();
+
+    List<ProductImportJob> findByStatusIn(Collection<ImportJobStatus> statuses);
+}
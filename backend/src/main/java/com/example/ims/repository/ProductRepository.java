@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,9 @@ public interface ProductRepository extends JpaRepository<Product, String> {
     Optional<Product> findBySku(String sku);
     
     boolean existsBySku(String sku);
+
+    @Query("SELECT p.sku FROM Product p WHERE p.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
     
     List<Product> findByCategory(Category category);
     
@@ -25,8 +29,14 @@ public interface ProductRepository extends JpaRepository<Product, String> {
     @Query("SELECT p FROM Product p WHERE p.category.name = :categoryName")
     List<Product> findByCategoryName(@Param("categoryName") String categoryName);
     
-    @Query("SELECT p FROM Product p WHERE p.unitPrice BETWEEN :minPrice AND :maxPrice")
-    List<Product> findByPriceRange(@Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice);
+    @Query("SELECT p FROM Product p JOIN p.specifications s WHERE KEY(s) = :key AND VALUE(s) = :value")
+    List<Product> findBySpecification(@Param("key") String key, @Param("value") String value);
+
+    @Query("SELECT p FROM Product p JOIN p.specifications s WHERE KEY(s) = :key")
+    List<Product> findBySpecificationKey(@Param("key") String key);
+    
+    @Query("SELECT p FROM Product p WHERE p.unitPriceMinor BETWEEN :minPriceMinor AND :maxPriceMinor")
+    List<Product> findByPriceRange(@Param("minPriceMinor") Long minPriceMinor, @Param("maxPriceMinor") Long maxPriceMinor);
     
     @Query("SELECT p FROM Product p WHERE p.category.isActive = true")
     List<Product> findActiveProducts();
@@ -0,0 +1,58 @@
+package com.example.ims.repository;
+
+import com.example.ims.model.Product;
+import com.example.ims.model.ReorderPlan;
+import com.example.ims.model.Warehouse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+public interface ReorderPlanRepository extends JpaRepository<ReorderPlan, String> {
+    ReorderPlan findByProductAndWarehouse(Product product, Warehouse warehouse);
+
+    /**
+     * Rows of [Inventory, ReorderPlan or null] for every cell at or below its reorder point.
+     * Cells without a plan fall back to the product's minimum stock threshold.
+     */
+    @Query("SELECT i, r FROM Inventory i JOIN FETCH i.product p JOIN FETCH i.warehouse w " +
+           "LEFT JOIN ReorderPlan r ON r.product = p AND r.warehouse = w " +
+           "WHERE i.quantityAvailable <= COALESCE(r.reorderPoint, p.minimumStockThreshold)")
+    List<Object[]> findCellsAtOrBelowReorderPoint();
+
+    /**
+     * At most one row of [Inventory, ReorderPlan or null] for a single cell, so the
+     * per-mutation alert check loads both in one statement
+     */
+    @Query("SELECT i, r FROM Inventory i JOIN FETCH i.product p JOIN FETCH i.warehouse w " +
+           "LEFT JOIN ReorderPlan r ON r.product = p AND r.warehouse = w " +
+           "WHERE p.productId = ?1 AND w.warehouseId = ?2")
+    List<Object[]> findCellWithPlan(String productId, String warehouseId);
+
+    /**
+     * Rows of [productId, warehouseId, minimumStockThreshold] for every inventory cell
+     */
+    @Query("SELECT i.product.productId, i.warehouse.warehouseId, p.minimumStockThreshold " +
+           "FROM Inventory i JOIN i.product p")
+    List<Object[]> findAllCells();
+
+    /**
+     * Rows of [productId, warehouseId, sum of daily units sold, sum of squared daily units sold]
+     * over the rollup days in [firstDay, lastDay]
+     */
+    @Query("SELECT m.product.productId, m.warehouse.warehouseId, SUM(m.quantitySold), " +
+           "SUM(m.quantitySold * m.quantitySold) FROM DailyStockMovement m " +
+           "WHERE m.bucketDate >= ?1 AND m.bucketDate <= ?2 AND m.quantitySold > 0 " +
+           "GROUP BY m.product.productId, m.warehouse.warehouseId")
+    List<Object[]> sumDailyDemand(LocalDate firstDay, LocalDate lastDay);
+
+    @Query("SELECT MAX(r.calculatedAt) FROM ReorderPlan r")
+    Date findLastCalculatedAt();
+
+    @Modifying
+    @Query("DELETE FROM ReorderPlan r WHERE r.product.productId = ?1")
+    int deleteByProductId(String productId);
+}
@@ -0,0 +1,7 @@
+package com.example.ims.repository;
+
+import com.example.ims.model.RollupWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RollupWatermarkRepository extends JpaRepository<RollupWatermark, String> {
+}
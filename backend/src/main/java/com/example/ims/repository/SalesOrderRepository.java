@@ -15,4 +15,6 @@ public interface SalesOrderRepository extends JpaRepository<SalesOrder, String>
     List<SalesOrder> findByStatus(SalesOrderStatus status);
     
     List<SalesOrder> findByWarehouseWarehouseId(String warehouseId);
+
+    List<SalesOrder> findByAllocationGroupId(String allocationGroupId);
 } 
\ No newline at end of file
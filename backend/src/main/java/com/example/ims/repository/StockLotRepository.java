@@ -0,0 +1,48 @@
+package com.example.ims.repository;
+
+import com.example.ims.model.Product;
+import com.example.ims.model.StockLot;
+import com.example.ims.model.Warehouse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Date;
+import java.util.List;
+
+public interface StockLotRepository extends JpaRepository<StockLot, String> {
+    List<StockLot> findByProductAndWarehouseAndQuantityRemainingGreaterThanOrderByReceivedAtAsc(
+            Product product, Warehouse warehouse, int quantity);
+
+    /**
+     * Lots of the cell that have been drained at least in part, most recently received first
+     */
+    @Query("SELECT l FROM StockLot l WHERE l.product = ?1 AND l.warehouse = ?2 " +
+           "AND l.quantityRemaining < l.quantityReceived ORDER BY l.receivedAt DESC")
+    List<StockLot> findDrainedLots(Product product, Warehouse warehouse, Pageable pageable);
+
+    /**
+     * Quantity and value on hand per aging bucket (0-30, 31-60, 61-90, 90+ days) in a single row.
+     * Columns: qty0to30, qty31to60, qty61to90, qtyOver90, value0to30, value31to60, value61to90, valueOver90
+     */
+    @Query("SELECT " +
+           "COALESCE(SUM(CASE WHEN l.receivedAt >= ?1 THEN l.quantityRemaining ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN l.receivedAt < ?1 AND l.receivedAt >= ?2 THEN l.quantityRemaining ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN l.receivedAt < ?2 AND l.receivedAt >= ?3 THEN l.quantityRemaining ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN l.receivedAt < ?3 THEN l.quantityRemaining ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN l.receivedAt >= ?1 THEN l.quantityRemaining * CAST(p.unitPriceMinor AS BigDecimal) ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN l.receivedAt < ?1 AND l.receivedAt >= ?2 THEN l.quantityRemaining * CAST(p.unitPriceMinor AS BigDecimal) ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN l.receivedAt < ?2 AND l.receivedAt >= ?3 THEN l.quantityRemaining * CAST(p.unitPriceMinor AS BigDecimal) ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN l.receivedAt < ?3 THEN l.quantityRemaining * CAST(p.unitPriceMinor AS BigDecimal) ELSE 0 END), 0) " +
+           "FROM StockLot l JOIN l.product p WHERE l.quantityRemaining > 0")
+    List<Object[]> summarizeAging(Date cutoff30, Date cutoff60, Date cutoff90);
+
+    @Query("SELECT l FROM StockLot l JOIN FETCH l.product JOIN FETCH l.warehouse " +
+           "WHERE l.quantityRemaining > 0 ORDER BY l.receivedAt ASC")
+    List<StockLot> findOldestOpenLots(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM StockLot l WHERE l.product.productId = ?1")
+    int deleteByProductId(String productId);
+}
@@ -0,0 +1,61 @@
+package com.example.ims.repository;
+
+import com.example.ims.model.ReservationStatus;
+import com.example.ims.model.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    List<StockReservation> findBySalesOrderId(String salesOrderId);
+
+    long countByStatus(ReservationStatus status);
+
+    /**
+     * Lock those of the given reservations still active and past expiredBy.
+     * Rows of [reservationId, inventoryId, quantity], so a batch does not load an entity per reservation.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.reservationId, r.inventory.inventoryId, r.quantity FROM StockReservation r " +
+           "WHERE r.reservationId IN :ids AND r.status = com.example.ims.model.ReservationStatus.ACTIVE AND r.expiresAt <= :expiredBy")
+    List<Object[]> lockActiveExpired(@Param("ids") Collection<String> ids, @Param("expiredBy") Date expiredBy);
+
+    /**
+     * Rows of [reservationId, inventoryId, quantity] for an order's active reservations, locked
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.reservationId, r.inventory.inventoryId, r.quantity FROM StockReservation r " +
+           "WHERE r.salesOrderId = :salesOrderId AND r.status = com.example.ims.model.ReservationStatus.ACTIVE")
+    List<Object[]> lockActiveForOrder(@Param("salesOrderId") String salesOrderId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.inventory.inventoryId = :inventoryId " +
+           "AND r.status = com.example.ims.model.ReservationStatus.ACTIVE " +
+           "ORDER BY CASE WHEN r.expiresAt IS NULL THEN 1 ELSE 0 END, r.expiresAt")
+    List<StockReservation> lockActiveForInventory(@Param("inventoryId") String inventoryId);
+
+    /**
+     * Close reservations already locked by the caller in one statement
+     */
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :status, r.closedAt = :closedAt WHERE r.reservationId IN :ids")
+    int close(@Param("ids") Collection<String> ids, @Param("status") ReservationStatus status, @Param("closedAt") Date closedAt);
+
+    @Query("SELECT r.reservationId FROM StockReservation r WHERE r.status = com.example.ims.model.ReservationStatus.ACTIVE " +
+           "AND r.expiresAt <= :expiredBy ORDER BY r.expiresAt")
+    List<String> findExpiredIds(@Param("expiredBy") Date expiredBy, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.inventory IN " +
+           "(SELECT i FROM Inventory i WHERE i.product.productId = :productId)")
+    int deleteByProductId(@Param("productId") String productId);
+}
@@ -0,0 +1,56 @@
+package com.example.ims.service;
+
+import com.example.ims.repository.AlertHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+@Service
+public class AlertArchiveService {
+
+    @Autowired
+    private AlertHistoryRepository alertHistoryRepository;
+
+    @Value("${app.alerts.archive.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${app.alerts.archive.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Move alerts resolved more than the retention period ago out of the hot alerts table nightly
+     */
+    @Scheduled(cron = "${app.alerts.archive.cron:0 15 3 * * *}")
+    public void archiveResolvedAlerts() {
+        try {
+            int archived = archiveAll();
+            if (archived > 0) {
+                System.out.println("Archived " + archived + " resolved alerts");
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to archive resolved alerts: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Archive in batches, each in its own transaction, so locks stay short and
+     * a failure only rolls back the batch in progress
+     *
+     * @return number of alerts archived
+     */
+    public int archiveAll() {
+        Date cutoff = Date.from(Instant.now().minus(retentionDays, ChronoUnit.DAYS));
+        int total = 0;
+        int archived;
+        do {
+            archived = alertHistoryRepository.archiveBatch(cutoff, batchSize);
+            total += archived;
+        } while (archived == batchSize);
+        return total;
+    }
+}
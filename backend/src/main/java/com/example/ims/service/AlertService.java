@@ -1,9 +1,11 @@
 package com.example.ims.service;
 
+import com.example.ims.dto.LiveUpdateEvent;
 import com.example.ims.model.*;
 import com.example.ims.repository.*;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,6 +15,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
 
 @Service
 public class AlertService {
@@ -28,6 +32,13 @@ public class AlertService {
     @Autowired
     private InventoryRepository inventoryRepository;
 
+    @Autowired
+    private ReorderPlanRepository reorderPlanRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
     public List<Alert> getAllAlerts() {
         List<Alert> alerts = alertRepository.findAll();
 
@@ -65,14 +76,24 @@ public class AlertService {
             throw new IllegalStateException("No inventory found for this product in the warehouse");
         }
 
+        ReorderPlan plan = reorderPlanRepository.findByProductAndWarehouse(product, warehouse);
+        return openAlert(inventory, plan, threshold, notes);
+    }
+
+    /**
+     * Saves a new active alert for the cell with reorder suggestions from its plan
+     */
+    private Alert openAlert(Inventory inventory, ReorderPlan plan, int threshold, String notes) {
         // Calculate reorder suggestions
         int currentStock = inventory.getQuantityAvailable();
-        int optimalStockLevel = calculateOptimalStockLevel(product, threshold);
-        int suggestedReorderQuantity = calculateSuggestedReorderQuantity(currentStock, optimalStockLevel);
+        int optimalStockLevel = plan != null
+            ? plan.getOptimalStockLevel()
+            : ReorderPlanningService.fallbackOptimalStockLevel(threshold);
+        int suggestedReorderQuantity = ReorderPlanningService.suggestedOrderQuantity(currentStock, optimalStockLevel);
 
         Alert alert = new Alert();
-        alert.setProduct(product);
-        alert.setWarehouse(warehouse);
+        alert.setProduct(inventory.getProduct());
+        alert.setWarehouse(inventory.getWarehouse());
         alert.setThreshold(threshold);
         alert.setCurrentStock(currentStock);
         alert.setSuggestedReorderQuantity(suggestedReorderQuantity);
@@ -80,7 +101,9 @@ public class AlertService {
         alert.setNotes(notes);
         alert.setStatus(AlertStatus.ACTIVE);
 
-        return alertRepository.save(alert);
+        Alert savedAlert = alertRepository.save(alert);
+        eventPublisher.publishEvent(LiveUpdateEvent.alert(savedAlert));
+        return savedAlert;
     }
 
     @Transactional
@@ -96,7 +119,9 @@ public class AlertService {
             alert.setNotes(notes);
         }
 
-        return alertRepository.save(alert);
+        Alert savedAlert = alertRepository.save(alert);
+        eventPublisher.publishEvent(LiveUpdateEvent.alert(savedAlert));
+        return savedAlert;
     }
 
     @Transactional
@@ -108,7 +133,9 @@ public class AlertService {
         }
 
         alert.setStatus(AlertStatus.ACKNOWLEDGED);
-        return alertRepository.save(alert);
+        Alert savedAlert = alertRepository.save(alert);
+        eventPublisher.publishEvent(LiveUpdateEvent.alert(savedAlert));
+        return savedAlert;
     }
 
     @Transactional
@@ -131,6 +158,7 @@ public class AlertService {
             }
             
             alertRepository.save(alert);
+            eventPublisher.publishEvent(LiveUpdateEvent.alert(alert));
         }
     }
 
@@ -142,20 +170,35 @@ public class AlertService {
 
     }
 
+    /**
+     * Loads the cells at or below their reorder point (the same rule as the reorder
+     * recommendations), their plans and the existing active alerts up front and inserts
+     * the new alerts with one saveAll, so no query in between forces a flush per alert and
+     * Hibernate can send them as JDBC batches
+     */
     @Transactional
     public void checkLowStockLevelsInternal() {
-        List<Inventory> lowStockInventories = inventoryRepository.findLowStockInventories();
-        
-        for (Inventory inventory : lowStockInventories) {
-            Alert existingAlert = alertRepository.findByProductAndWarehouseAndStatus(
-                inventory.getProduct(), inventory.getWarehouse(), AlertStatus.ACTIVE);
-            
-            if (existingAlert == null) {
+        List<Object[]> lowStockCells = reorderPlanRepository.findCellsAtOrBelowReorderPoint();
+
+        Set<String> alertedCells = new HashSet<>();
+        for (Object[] row : alertRepository.findCellsByStatus(AlertStatus.ACTIVE)) {
+            alertedCells.add(row[0] + ":" + row[1]);
+        }
+
+        List<Alert> newAlerts = new ArrayList<>();
+        for (Object[] row : lowStockCells) {
+            Inventory inventory = (Inventory) row[0];
+            ReorderPlan plan = (ReorderPlan) row[1];
+            String cell = inventory.getProduct().getProductId() + ":" + inventory.getWarehouse().getWarehouseId();
+
+            if (alertedCells.add(cell)) {
                 // Calculate reorder suggestions
                 int currentStock = inventory.getQuantityAvailable();
-                int threshold = inventory.getProduct().getMinimumStockThreshold();
-                int optimalStockLevel = calculateOptimalStockLevel(inventory.getProduct(), threshold);
-                int suggestedReorderQuantity = calculateSuggestedReorderQuantity(currentStock, optimalStockLevel);
+                int threshold = ReorderPlanningService.reorderPoint(plan, inventory.getProduct());
+                int optimalStockLevel = plan != null
+                    ? plan.getOptimalStockLevel()
+                    : ReorderPlanningService.fallbackOptimalStockLevel(threshold);
+                int suggestedReorderQuantity = ReorderPlanningService.suggestedOrderQuantity(currentStock, optimalStockLevel);
 
                 Alert alert = new Alert();
                 alert.setProduct(inventory.getProduct());
@@ -166,40 +209,50 @@ public class AlertService {
                 alert.setOptimalStockLevel(optimalStockLevel);
                 alert.setStatus(AlertStatus.ACTIVE);
                 alert.setNotes("Automatically generated low stock alert with reorder suggestions");
-                
-                alertRepository.save(alert);
+
+                newAlerts.add(alert);
             }
         }
+
+        alertRepository.saveAll(newAlerts);
+        newAlerts.forEach(alert -> eventPublisher.publishEvent(LiveUpdateEvent.alert(alert)));
     }
 
+    @Transactional(readOnly = true)
     public List<Alert> getActiveAlerts() {
         return alertRepository.findByStatus(AlertStatus.ACTIVE);
     }
 
+    @Transactional(readOnly = true)
     public List<Alert> getAlertsByProduct(String productId) {
         Product product = productRepository.findById(productId)
             .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + productId));
         return alertRepository.findByProduct(product);
     }
 
+    @Transactional(readOnly = true)
     public List<Alert> getAlertsByWarehouse(String warehouseId) {
         Warehouse warehouse = warehouseRepository.findById(warehouseId)
             .orElseThrow(() -> new EntityNotFoundException("Warehouse not found with id: " + warehouseId));
         return alertRepository.findByWarehouse(warehouse);
     }
 
+    @Transactional(readOnly = true)
     public List<Alert> getAlertsByStatus(AlertStatus status) {
         return alertRepository.findByStatus(status);
     }
 
+    @Transactional(readOnly = true)
     public List<Alert> getAlertsCreatedAfter(Date date) {
         return alertRepository.findAlertsCreatedAfter(date);
     }
 
+    @Transactional(readOnly = true)
     public List<Alert> getActiveAlertsBelowThreshold() {
         return alertRepository.findActiveAlertsBelowThreshold(AlertStatus.ACTIVE);
     }
 
+    @Transactional(readOnly = true)
     public long getLowStockAlertsCount() {
         return alertRepository.countByStatus(AlertStatus.ACTIVE);
     }
@@ -221,30 +274,27 @@ public class AlertService {
     public void checkAndCreateAlertForProduct(String productId, String warehouseId) {
 
         try {
-            Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
-            
-            Warehouse warehouse = warehouseRepository.findById(warehouseId)
-                .orElseThrow(() -> new EntityNotFoundException("Warehouse not found"));
-            
-            Inventory inventory = inventoryRepository.findByProductAndWarehouse(product, warehouse);
-            
-            if (inventory != null) {
-                // Check if stock is below threshold - create alert
-                if (inventory.getQuantityAvailable() <= product.getMinimumStockThreshold()) {
+            for (Object[] row : reorderPlanRepository.findCellWithPlan(productId, warehouseId)) {
+                Inventory inventory = (Inventory) row[0];
+                ReorderPlan plan = (ReorderPlan) row[1];
+                Product product = inventory.getProduct();
+                Warehouse warehouse = inventory.getWarehouse();
+                int reorderPoint = ReorderPlanningService.reorderPoint(plan, product);
+
+                // Check if stock is at or below the reorder point - create alert
+                if (inventory.getQuantityAvailable() <= reorderPoint) {
                     Alert existingAlert = alertRepository.findByProductAndWarehouseAndStatus(product, warehouse, AlertStatus.ACTIVE);
                     if (existingAlert == null) {
-                        createAlert(productId, warehouseId, product.getMinimumStockThreshold(), 
-                            "Automatically generated alert for low stock product");
-            
+                        openAlert(inventory, plan, reorderPoint, "Automatically generated alert for low stock product");
                     }
                 } else {
-                    // Stock is above threshold - resolve any active alerts
+                    // Stock is above the reorder point - resolve any active alerts
                     Alert existingAlert = alertRepository.findByProductAndWarehouseAndStatus(product, warehouse, AlertStatus.ACTIVE);
                     if (existingAlert != null) {
                         existingAlert.setStatus(AlertStatus.RESOLVED);
                         existingAlert.setNotes("Stock restored above threshold - automatically resolved");
                         alertRepository.save(existingAlert);
+                        eventPublisher.publishEvent(LiveUpdateEvent.alert(existingAlert));
             
                     }
                 }
@@ -254,33 +304,6 @@ public class AlertService {
         }
     }
 
-    /**
-     * Calculate optimal stock level based on product characteristics
-     * Formula: threshold * 3 (for safety stock + lead time buffer)
-     */
-    private int calculateOptimalStockLevel(Product product, int threshold) {
-        // Base calculation: threshold * 3 for safety stock
-        int baseOptimal = threshold * 3;
-        
-        // Adjust based on product price (higher value = more safety stock)
-        if (product.getUnitPrice() > 1000) {
-            baseOptimal = (int) (baseOptimal * 1.5); // 50% more for expensive items
-        }
-        
-        // Minimum optimal level should be at least threshold * 2
-        return Math.max(baseOptimal, threshold * 2);
-    }
-
-    /**
-     * Calculate suggested reorder quantity
-     * Formula: optimal stock level - current stock + safety buffer
-     */
-    private int calculateSuggestedReorderQuantity(int currentStock, int optimalStockLevel) {
-        int deficit = optimalStockLevel - currentStock;
-        int safetyBuffer = (int) (deficit * 0.2); // 20% safety buffer
-        return Math.max(deficit + safetyBuffer, 1); // Minimum 1 unit
-    }
-
     @Transactional
     public void deleteAlert(String id) {
         Alert alert = getAlertById(id);
@@ -290,11 +313,13 @@ public class AlertService {
         }
         
         alertRepository.delete(alert);
+        eventPublisher.publishEvent(LiveUpdateEvent.alertDeleted(alert));
     }
 
     /**
      * Debug method to check inventory status
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getInventoryDebugInfo() {
         Map<String, Object> debugInfo = new HashMap<>();
         
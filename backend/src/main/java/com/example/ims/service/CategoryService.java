@@ -17,10 +17,12 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
     
+    @Transactional(readOnly = true)
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public List<Category> getAllActiveCategories() {
         return categoryRepository.findAllActiveCategories();
     }
@@ -3,8 +3,15 @@ package com.example.ims.service;
 import com.example.ims.model.*;
 import com.example.ims.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -17,121 +24,270 @@ public class DashboardService {
     private ProductRepository productRepository;
 
     @Autowired
-    private PurchaseOrderRepository purchaseOrderRepository;
+    private WarehouseRepository warehouseRepository;
 
     @Autowired
-    private WarehouseRepository warehouseRepository;
+    private ArchivedAlertCountRepository archivedAlertCountRepository;
 
     @Autowired
     private AlertRepository alertRepository;
 
+    @Autowired
+    private StockLotRepository stockLotRepository;
+
+    @Autowired
+    private InventoryAnalyticsRepository inventoryAnalyticsRepository;
+
+    @Autowired
+    private ReorderPlanRepository reorderPlanRepository;
+
+    private static final int OLDEST_LOTS_LIMIT = 20;
+
+    @Transactional(readOnly = true)
     public Map<String, Object> getInventoryOverview() {
         Map<String, Object> overview = new HashMap<>();
         
         // Total number of products
         long totalProducts = productRepository.count();
         
-        // Total stock value
-        double totalValue = inventoryRepository.findAll().stream()
-            .mapToDouble(inv -> inv.getQuantityAvailable() * inv.getProduct().getUnitPrice())
-            .sum();
+        // Total stock value, summed exactly in the database
+        BigDecimal totalValue = inventoryRepository.sumAvailableValue();
         
         // Low stock items count
         long lowStockCount = inventoryRepository.findLowStockInventories().size();
         
         // Out of stock items count
-        long outOfStockCount = inventoryRepository.findAll().stream()
-            .filter(inv -> inv.getQuantityAvailable() == 0)
-            .count();
+        long outOfStockCount = inventoryRepository.countByQuantityAvailable(0);
 
         overview.put("totalProducts", totalProducts);
-        overview.put("totalStockValue", totalValue);
+        overview.put("totalStockValue", Money.toDecimal(totalValue == null ? 0 : Money.toMinor(totalValue)));
         overview.put("lowStockItemsCount", lowStockCount);
         overview.put("outOfStockItemsCount", outOfStockCount);
         
         return overview;
     }
 
-    public Map<String, Object> getInventoryTurnover(Date startDate, Date endDate) {
+    /**
+     * Turnover per SKU, category or warehouse for the inclusive date range.
+     * Turnover ratio = units sold / average units on hand, where the closing balance is
+     * today's stock less the receipts and plus the sales after endDate, and the opening
+     * balance is reconstructed as closing - received + sold.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getInventoryTurnover(Date startDate, Date endDate, TurnoverDimension groupBy, int limit) {
+        if (startDate.after(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate firstDay = startDate.toInstant().atZone(zone).toLocalDate();
+        LocalDate lastDay = endDate.toInstant().atZone(zone).toLocalDate();
+        LocalDate today = LocalDate.now(zone);
+
+        Map<String, TurnoverRow> rows = new HashMap<>();
+
+        // Closed days are read from the daily rollup
+        LocalDate lastRolledUpDay = lastDay.isBefore(today) ? lastDay : today.minusDays(1);
+        if (!firstDay.isAfter(lastRolledUpDay)) {
+            for (Object[] r : inventoryAnalyticsRepository.sumDailyMovementsByDimension(groupBy, firstDay, lastRolledUpDay)) {
+                TurnoverRow row = rowFor(rows, r);
+                row.unitsSold += ((Number) r[2]).longValue();
+                row.salesValue += Money.toMinor((Number) r[3]);
+                row.unitsReceived += ((Number) r[4]).longValue();
+                row.receivedValue += Money.toMinor((Number) r[5]);
+            }
+        }
+
+        // Today is still changing, so it is aggregated from the order lines
+        if (!lastDay.isBefore(today)) {
+            LocalDate liveFrom = firstDay.isAfter(today) ? firstDay : today;
+            Date liveStart = Date.from(liveFrom.atStartOfDay(zone).toInstant());
+            Date liveEnd = Date.from(lastDay.plusDays(1).atStartOfDay(zone).toInstant());
+
+            for (Object[] r : inventoryAnalyticsRepository.sumSalesByDimension(groupBy, liveStart, liveEnd)) {
+                TurnoverRow row = rowFor(rows, r);
+                row.unitsSold += ((Number) r[2]).longValue();
+                row.salesValue += Money.toMinor((Number) r[3]);
+            }
+            for (Object[] r : inventoryAnalyticsRepository.sumReceiptsByDimension(groupBy, liveStart, liveEnd)) {
+                TurnoverRow row = rowFor(rows, r);
+                row.unitsReceived += ((Number) r[2]).longValue();
+                row.receivedValue += Money.toMinor((Number) r[3]);
+            }
+        }
+
+        for (Object[] r : inventoryAnalyticsRepository.sumOnHandByDimension(groupBy)) {
+            TurnoverRow row = rowFor(rows, r);
+            row.closingUnits = ((Number) r[2]).longValue();
+            row.closingValue = Money.toMinor((Number) r[3]);
+        }
+
+        // On-hand stock is as of now, so a range ending before today backs out the later movements
+        if (lastDay.isBefore(today)) {
+            LocalDate firstLaterDay = lastDay.plusDays(1);
+            if (firstLaterDay.isBefore(today)) {
+                for (Object[] r : inventoryAnalyticsRepository.sumDailyNetMovementsAtListPriceByDimension(
+                        groupBy, firstLaterDay, today.minusDays(1))) {
+                    TurnoverRow row = rowFor(rows, r);
+                    row.closingUnits -= ((Number) r[2]).longValue();
+                    row.closingValue -= Money.toMinor((Number) r[3]);
+                }
+            }
+
+            Date todayStart = Date.from(today.atStartOfDay(zone).toInstant());
+            Date todayEnd = Date.from(today.plusDays(1).atStartOfDay(zone).toInstant());
+            for (Object[] r : inventoryAnalyticsRepository.sumReceiptsAtListPriceByDimension(groupBy, todayStart, todayEnd)) {
+                TurnoverRow row = rowFor(rows, r);
+                row.closingUnits -= ((Number) r[2]).longValue();
+                row.closingValue -= Money.toMinor((Number) r[3]);
+            }
+            for (Object[] r : inventoryAnalyticsRepository.sumSalesAtListPriceByDimension(groupBy, todayStart, todayEnd)) {
+                TurnoverRow row = rowFor(rows, r);
+                row.closingUnits += ((Number) r[2]).longValue();
+                row.closingValue += Money.toMinor((Number) r[3]);
+            }
+        }
+
+        TurnoverRow total = new TurnoverRow("total", "All");
+        for (TurnoverRow row : rows.values()) {
+            total.unitsSold += row.unitsSold;
+            total.salesValue += row.salesValue;
+            total.unitsReceived += row.unitsReceived;
+            total.receivedValue += row.receivedValue;
+            total.closingUnits += row.closingUnits;
+            total.closingValue += row.closingValue;
+        }
+
+        List<Map<String, Object>> groups = rows.values().stream()
+            .sorted(Comparator.comparingLong((TurnoverRow row) -> row.unitsSold).reversed())
+            .limit(limit)
+            .map(TurnoverRow::toMap)
+            .collect(Collectors.toList());
+
         Map<String, Object> turnover = new HashMap<>();
-        
-        // Get all completed purchase orders in date range
-        List<PurchaseOrder> completedOrders = purchaseOrderRepository
-            .findByStatusAndCreatedAfter(PurchaseOrderStatus.RECEIVED, startDate);
-        
-        // Calculate total items received
-        int totalReceived = completedOrders.stream()
-            .flatMap(po -> po.getItems().stream())
-            .mapToInt(PurchaseOrderItem::getQuantityReceived)
-            .sum();
-        
-        // Calculate average inventory level
-        double avgInventoryLevel = inventoryRepository.findAll().stream()
-            .mapToInt(Inventory::getQuantityAvailable)
-            .average()
-            .orElse(0.0);
-        
-        // Calculate turnover ratio
-        double turnoverRatio = avgInventoryLevel > 0 ? totalReceived / avgInventoryLevel : 0;
-        
-        turnover.put("totalReceived", totalReceived);
-        turnover.put("averageInventoryLevel", avgInventoryLevel);
-        turnover.put("turnoverRatio", turnoverRatio);
-        
+        turnover.put("startDate", startDate);
+        turnover.put("endDate", endDate);
+        turnover.put("groupBy", groupBy.name());
+        turnover.put("totalGroups", rows.size());
+        turnover.put("totals", total.toMap());
+        turnover.put("groups", groups);
+
+        // Summary fields kept for existing consumers
+        turnover.put("totalReceived", total.unitsReceived);
+        turnover.put("averageInventoryLevel", total.averageUnits());
+        turnover.put("turnoverRatio", total.turnoverRatio());
+
         return turnover;
     }
 
+    private static TurnoverRow rowFor(Map<String, TurnoverRow> rows, Object[] r) {
+        return rows.computeIfAbsent((String) r[0], key -> new TurnoverRow(key, (String) r[1]));
+    }
+
+    private static class TurnoverRow {
+        private final String key;
+        private final String name;
+        private long unitsSold;
+        // Values are in minor units
+        private long salesValue;
+        private long unitsReceived;
+        private long receivedValue;
+        private long closingUnits;
+        private long closingValue;
+
+        TurnoverRow(String key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+
+        double averageUnits() {
+            long openingUnits = Math.max(closingUnits - unitsReceived + unitsSold, 0);
+            return (openingUnits + closingUnits) / 2.0;
+        }
+
+        double turnoverRatio() {
+            double average = averageUnits();
+            return average > 0 ? unitsSold / average : 0;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("key", key);
+            map.put("name", name);
+            map.put("unitsSold", unitsSold);
+            map.put("salesValue", Money.toDecimal(salesValue));
+            map.put("unitsReceived", unitsReceived);
+            map.put("receivedValue", Money.toDecimal(receivedValue));
+            map.put("closingInventory", closingUnits);
+            map.put("closingInventoryValue", Money.toDecimal(closingValue));
+            map.put("averageInventory", averageUnits());
+            map.put("turnoverRatio", turnoverRatio());
+            return map;
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getReorderRecommendations() {
         List<Map<String, Object>> recommendations = new ArrayList<>();
-        
-        // Get all low stock inventories
-        List<Inventory> lowStockItems = inventoryRepository.findLowStockInventories();
-        
-        for (Inventory inv : lowStockItems) {
-            Map<String, Object> recommendation = new HashMap<>();
+
+        // Cells at or below their demand-based reorder point (or threshold when not yet planned)
+        for (Object[] row : reorderPlanRepository.findCellsAtOrBelowReorderPoint()) {
+            Inventory inv = (Inventory) row[0];
+            ReorderPlan plan = (ReorderPlan) row[1];
             Product product = inv.getProduct();
-            
-            // Calculate recommended order quantity
+
             int currentStock = inv.getQuantityAvailable();
             int threshold = product.getMinimumStockThreshold();
-            int recommendedQuantity = threshold * 2 - currentStock; // Order up to 2x threshold
-            
+            int optimalStockLevel = plan != null
+                ? plan.getOptimalStockLevel()
+                : ReorderPlanningService.fallbackOptimalStockLevel(threshold);
+            int recommendedQuantity = ReorderPlanningService.suggestedOrderQuantity(currentStock, optimalStockLevel);
+
+            Map<String, Object> recommendation = new HashMap<>();
             recommendation.put("productId", product.getProductId());
             recommendation.put("productName", product.getName());
+            recommendation.put("warehouseId", inv.getWarehouse().getWarehouseId());
+            recommendation.put("warehouseName", inv.getWarehouse().getName());
             recommendation.put("currentStock", currentStock);
             recommendation.put("threshold", threshold);
+            recommendation.put("reorderPoint", ReorderPlanningService.reorderPoint(plan, product));
+            recommendation.put("safetyStock", plan != null ? plan.getSafetyStock() : 0);
+            recommendation.put("averageDailyDemand", plan != null ? plan.getAverageDailyDemand() : 0.0);
+            recommendation.put("optimalStockLevel", optimalStockLevel);
             recommendation.put("recommendedOrderQuantity", recommendedQuantity);
-            recommendation.put("estimatedCost", recommendedQuantity * product.getUnitPrice());
-            
+            recommendation.put("estimatedCost", Money.toDecimal(Money.times(product.getUnitPriceMinor(), recommendedQuantity)));
+
             recommendations.add(recommendation);
         }
-        
+
         return recommendations;
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Object> getWarehouseUtilization() {
         Map<String, Object> utilization = new HashMap<>();
         List<Map<String, Object>> warehouseStats = new ArrayList<>();
         
+        // Counts and value per warehouse come from one grouped query; empty warehouses have no row
+        Map<String, Object[]> summaries = new HashMap<>();
+        for (Object[] row : inventoryRepository.summarizeByWarehouse()) {
+            summaries.put((String) row[0], row);
+        }
+
         List<Warehouse> warehouses = warehouseRepository.findAll();
         for (Warehouse warehouse : warehouses) {
             Map<String, Object> stats = new HashMap<>();
-            List<Inventory> warehouseInventory = inventoryRepository.findByWarehouse(warehouse);
+            Object[] summary = summaries.get(warehouse.getWarehouseId());
             
-            // Calculate warehouse statistics
-            long totalProducts = warehouseInventory.size();
-            long lowStockItems = warehouseInventory.stream()
-                .filter(inv -> inv.getQuantityAvailable() <= inv.getProduct().getMinimumStockThreshold())
-                .count();
-            double totalValue = warehouseInventory.stream()
-                .mapToDouble(inv -> inv.getQuantityAvailable() * inv.getProduct().getUnitPrice())
-                .sum();
+            long totalProducts = summary != null ? ((Number) summary[1]).longValue() : 0;
+            long lowStockItems = summary != null ? ((Number) summary[2]).longValue() : 0;
+            long totalValue = summary != null ? Money.toMinor((Number) summary[3]) : 0;
             
             stats.put("warehouseId", warehouse.getWarehouseId());
             stats.put("warehouseName", warehouse.getName());
             stats.put("totalProducts", totalProducts);
             stats.put("lowStockItems", lowStockItems);
-            stats.put("totalValue", totalValue);
+            stats.put("totalValue", Money.toDecimal(totalValue));
             
             warehouseStats.add(stats);
         }
@@ -140,58 +296,93 @@ public class DashboardService {
         return utilization;
     }
 
-    public Map<String, Object> getAlertMetrics() {
+    /**
+     * Alert counts by status (live and archived) and the products with the most alerts
+     *
+     * @param since only count alerts created from this time on, or all alerts when null
+     * @param limit number of products to return
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAlertMetrics(Date since, int limit) {
         Map<String, Object> metrics = new HashMap<>();
-        
-        // Get counts by status
-        Map<AlertStatus, Long> statusCounts = alertRepository.findAll().stream()
-            .collect(Collectors.groupingBy(Alert::getStatus, Collectors.counting()));
-        
-        // Get most frequent alert products
-        List<Map<String, Object>> frequentAlerts = alertRepository.findAll().stream()
-            .collect(Collectors.groupingBy(Alert::getProduct))
-            .entrySet().stream()
-            .map(entry -> {
-                Map<String, Object> alert = new HashMap<>();
-                alert.put("productId", entry.getKey().getProductId());
-                alert.put("productName", entry.getKey().getName());
-                alert.put("alertCount", entry.getValue().size());
-                return alert;
-            })
-            .sorted((a, b) -> ((Long) b.get("alertCount")).compareTo((Long) a.get("alertCount")))
-            .limit(5)
-            .collect(Collectors.toList());
-        
+        Date from = since != null ? since : new Date(0);
+
+        Map<AlertStatus, Long> statusCounts = new HashMap<>();
+        for (Object[] row : alertRepository.countByStatusSince(from)) {
+            statusCounts.put((AlertStatus) row[0], ((Number) row[1]).longValue());
+        }
+
+        // Archived alerts are counted from their daily rollup rather than alert_history
+        LocalDate fromDay = from.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        for (Object[] row : archivedAlertCountRepository.sumByStatusSince(fromDay)) {
+            statusCounts.merge((AlertStatus) row[0], ((Number) row[1]).longValue(), Long::sum);
+        }
+
+        // Most frequent alert products among alerts still in the alerts table
+        List<Map<String, Object>> frequentAlerts = new ArrayList<>();
+        for (Object[] row : alertRepository.findTopProductsByAlertCount(from, PageRequest.of(0, limit))) {
+            Map<String, Object> alert = new HashMap<>();
+            alert.put("productId", row[0]);
+            alert.put("productName", row[1]);
+            alert.put("alertCount", ((Number) row[2]).longValue());
+            frequentAlerts.add(alert);
+        }
+
         metrics.put("statusCounts", statusCounts);
         metrics.put("frequentAlerts", frequentAlerts);
-        
+
         return metrics;
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Object> getInventoryAging() {
         Map<String, Object> aging = new HashMap<>();
-        List<Map<String, Object>> agingProducts = new ArrayList<>();
-        
-        // Get all inventory items
-        List<Inventory> inventories = inventoryRepository.findAll();
-        
-        for (Inventory inv : inventories) {
-            if (inv.getQuantityAvailable() > 0) {
-                Map<String, Object> product = new HashMap<>();
-                product.put("productId", inv.getProduct().getProductId());
-                product.put("productName", inv.getProduct().getName());
-                product.put("quantity", inv.getQuantityAvailable());
-                product.put("value", inv.getQuantityAvailable() * inv.getProduct().getUnitPrice());
-                product.put("lastUpdated", inv.getLastUpdated());
-                
-                agingProducts.add(product);
-            }
+
+        Instant now = Instant.now();
+        Date cutoff30 = Date.from(now.minus(30, ChronoUnit.DAYS));
+        Date cutoff60 = Date.from(now.minus(60, ChronoUnit.DAYS));
+        Date cutoff90 = Date.from(now.minus(90, ChronoUnit.DAYS));
+
+        // Bucket totals are aggregated in the database from the remaining FIFO lots
+        Object[] row = stockLotRepository.summarizeAging(cutoff30, cutoff60, cutoff90).get(0);
+        String[] ranges = {"0-30", "31-60", "61-90", "90+"};
+
+        List<Map<String, Object>> buckets = new ArrayList<>();
+        long totalQuantity = 0;
+        long totalValue = 0;
+        for (int i = 0; i < ranges.length; i++) {
+            long quantity = ((Number) row[i]).longValue();
+            long value = Money.toMinor((Number) row[i + ranges.length]);
+
+            Map<String, Object> bucket = new HashMap<>();
+            bucket.put("range", ranges[i]);
+            bucket.put("quantity", quantity);
+            bucket.put("value", Money.toDecimal(value));
+            buckets.add(bucket);
+
+            totalQuantity += quantity;
+            totalValue += value;
         }
-        
-        // Sort by last updated date (oldest first)
-        agingProducts.sort((a, b) -> ((Date) a.get("lastUpdated")).compareTo((Date) b.get("lastUpdated")));
-        
-        aging.put("agingProducts", agingProducts);
+
+        // Oldest stock still on hand
+        List<Map<String, Object>> oldestLots = new ArrayList<>();
+        for (StockLot lot : stockLotRepository.findOldestOpenLots(PageRequest.of(0, OLDEST_LOTS_LIMIT))) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("lotId", lot.getLotId());
+            entry.put("productId", lot.getProduct().getProductId());
+            entry.put("productName", lot.getProduct().getName());
+            entry.put("warehouseName", lot.getWarehouse().getName());
+            entry.put("quantity", lot.getQuantityRemaining());
+            entry.put("value", Money.toDecimal(Money.times(lot.getProduct().getUnitPriceMinor(), lot.getQuantityRemaining())));
+            entry.put("receivedAt", lot.getReceivedAt());
+            entry.put("ageDays", ChronoUnit.DAYS.between(lot.getReceivedAt().toInstant(), now));
+            oldestLots.add(entry);
+        }
+
+        aging.put("buckets", buckets);
+        aging.put("totalQuantity", totalQuantity);
+        aging.put("totalValue", Money.toDecimal(totalValue));
+        aging.put("oldestLots", oldestLots);
         return aging;
     }
 }
\ No newline at end of file
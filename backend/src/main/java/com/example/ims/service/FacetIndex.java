@@ -0,0 +1,617 @@
+package com.example.ims.service;
+
+import com.example.ims.model.Money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Facet values of every product, held as a set of documents per value.
+ *
+ * Products are interned to dense int documents. Each facet value keeps the documents that
+ * have it in a {@link DocSet}: a sorted int array while the value is rare, a bitmap once it
+ * covers more than 1/32 of the catalogue, so memory stays near four bytes per (product, value)
+ * pair. A query ORs the selected values of each dimension into a bitmap, ANDs the dimensions,
+ * and counts every value against the other dimensions' filters, so a selected brand still
+ * shows how many products the other brands would give.
+ *
+ * Deleted products leave their document unused until the index is rebuilt. Reads share a
+ * lock; writes are exclusive.
+ */
+public final class FacetIndex {
+    public static final String CATEGORY = "category";
+    public static final String BRAND = "brand";
+    public static final String PRICE = "price";
+    public static final String IN_STOCK = "inStock";
+    public static final String SPECIFICATION = "specification";
+
+    private static final int[] NO_VALUES = new int[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> documents = new HashMap<>();
+    private final DocSet live = new DocSet();
+    private final Dimension category = new Dimension(CATEGORY, false);
+    private final Dimension brand = new Dimension(BRAND, false);
+    private final Dimension price = new Dimension(PRICE, false);
+    private final Dimension inStock = new Dimension(IN_STOCK, false);
+    private final Dimension specification = new Dimension(SPECIFICATION, true);
+    private final Dimension[] dimensions = {category, brand, price, inStock, specification};
+    private final double[] priceBounds;
+    private final long[] priceBoundsMinor;
+    private final int inStockTrue;
+    private final int inStockFalse;
+
+    private String[] productIds;
+    private int documentCount;
+
+    /**
+     * @param priceBounds ascending upper bounds of the price bands; prices at or above the last form the top band
+     */
+    public FacetIndex(int expectedProducts, double[] priceBounds) {
+        this.priceBounds = priceBounds.clone();
+        Arrays.sort(this.priceBounds);
+        priceBoundsMinor = Arrays.stream(this.priceBounds).mapToLong(bound -> Money.toMinor(BigDecimal.valueOf(bound))).toArray();
+        productIds = new String[Math.max(16, expectedProducts)];
+        for (Dimension dimension : dimensions) {
+            dimension.grow(productIds.length);
+        }
+        for (int band = 0; band <= this.priceBounds.length; band++) {
+            price.ordinal(priceLabel(band));
+        }
+        inStockTrue = inStock.ordinal("true");
+        inStockFalse = inStock.ordinal("false");
+    }
+
+    /**
+     * Add a product or replace its category, brand, price and specification keys; its stock flag is kept
+     */
+    public void put(String productId, String categoryId, String brandName, Long unitPriceMinor, Collection<String> specificationKeys) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = documents.get(productId);
+            int document = existing != null ? existing : allocate(productId);
+            category.set(document, categoryId == null ? -1 : category.ordinal(categoryId));
+            brand.set(document, brandName == null || brandName.isBlank() ? -1 : brand.ordinal(brandName));
+            price.set(document, unitPriceMinor == null ? -1 : priceBand(unitPriceMinor));
+            int[] keys = NO_VALUES;
+            if (specificationKeys != null && !specificationKeys.isEmpty()) {
+                keys = new int[specificationKeys.size()];
+                int count = 0;
+                for (String key : specificationKeys) {
+                    keys[count++] = specification.ordinal(key);
+                }
+                keys = Arrays.stream(keys).sorted().distinct().toArray();
+            }
+            specification.setAll(document, keys);
+            if (existing == null) {
+                inStock.set(document, inStockFalse);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add one specification key to a product, for loading the index key by key
+     */
+    public void addSpecification(String productId, String key) {
+        lock.writeLock().lock();
+        try {
+            Integer document = documents.get(productId);
+            if (document != null) {
+                specification.add(document, specification.ordinal(key));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return false when the product is not in the index
+     */
+    public boolean setInStock(String productId, boolean stocked) {
+        lock.writeLock().lock();
+        try {
+            Integer document = documents.get(productId);
+            if (document == null) {
+                return false;
+            }
+            inStock.set(document, stocked ? inStockTrue : inStockFalse);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isInStock(String productId) {
+        lock.readLock().lock();
+        try {
+            Integer document = documents.get(productId);
+            return document != null && inStock.single[document] == inStockTrue;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String productId) {
+        lock.readLock().lock();
+        try {
+            return documents.containsKey(productId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            Integer document = documents.remove(productId);
+            if (document == null) {
+                return;
+            }
+            for (Dimension dimension : dimensions) {
+                dimension.clear(document);
+            }
+            live.remove(document, documentCount);
+            productIds[document] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Products matching every dimension's selection, in document order, and per-dimension value counts
+     *
+     * @param selected values chosen per dimension; several values of one dimension match any of them
+     * @param maxValues most values returned per dimension, the largest counts first; price bands and the stock flag are always complete
+     */
+    public Result query(Map<String, ? extends Collection<String>> selected, int offset, int limit, int maxValues) {
+        lock.readLock().lock();
+        try {
+            int words = (documentCount + 63) >>> 6;
+            long[][] filters = new long[dimensions.length][];
+            for (int d = 0; d < dimensions.length; d++) {
+                Collection<String> values = selected.get(dimensions[d].name);
+                if (values != null && !values.isEmpty()) {
+                    filters[d] = dimensions[d].filter(values, words);
+                }
+            }
+
+            long[] matches = live.toWords(words);
+            for (long[] filter : filters) {
+                if (filter != null) {
+                    and(matches, filter);
+                }
+            }
+
+            long total = 0;
+            List<String> page = new ArrayList<>(Math.min(limit, 1024));
+            long skip = offset;
+            for (int w = 0; w < words; w++) {
+                long word = matches[w];
+                total += Long.bitCount(word);
+                while (word != 0 && page.size() < limit) {
+                    int document = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        page.add(productIds[document]);
+                    }
+                }
+            }
+
+            Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+            for (int d = 0; d < dimensions.length; d++) {
+                long[] mask = matches;
+                if (filters[d] != null) {
+                    // Counts for this dimension ignore its own selection
+                    mask = live.toWords(words);
+                    for (int other = 0; other < dimensions.length; other++) {
+                        if (other != d && filters[other] != null) {
+                            and(mask, filters[other]);
+                        }
+                    }
+                }
+                Dimension dimension = dimensions[d];
+                boolean ranked = dimension != price && dimension != inStock;
+                facets.put(dimension.name, dimension.count(mask, selected.get(dimension.name), ranked ? maxValues : Integer.MAX_VALUE, ranked));
+            }
+            return new Result(total, page, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getProductCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getDocumentCount() {
+        return documentCount;
+    }
+
+    public Map<String, Integer> getValueCounts() {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (Dimension dimension : dimensions) {
+                counts.put(dimension.name, dimension.values.size());
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bytes held by the document sets and per-document value arrays, leaving out the product id strings and map
+     */
+    public long getSetBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = live.bytes();
+            for (Dimension dimension : dimensions) {
+                bytes += dimension.bytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String priceLabel(int band) {
+        String lower = band == 0 ? "0" : format(priceBounds[band - 1]);
+        return band == priceBounds.length ? lower + "+" : lower + "-" + format(priceBounds[band]);
+    }
+
+    private int priceBand(long unitPriceMinor) {
+        int band = 0;
+        while (band < priceBounds.length && unitPriceMinor >= priceBoundsMinor[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    private int allocate(String productId) {
+        if (documentCount == productIds.length) {
+            int capacity = productIds.length * 2;
+            productIds = Arrays.copyOf(productIds, capacity);
+            for (Dimension dimension : dimensions) {
+                dimension.grow(capacity);
+            }
+        }
+        int document = documentCount++;
+        productIds[document] = productId;
+        documents.put(productId, document);
+        live.add(document, documentCount);
+        return document;
+    }
+
+    private static void and(long[] target, long[] filter) {
+        for (int w = 0; w < target.length; w++) {
+            target[w] &= filter[w];
+        }
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    public record Result(long total, List<String> productIds, Map<String, List<FacetCount>> facets) {
+    }
+
+    public record FacetCount(String value, int count, boolean selected) {
+    }
+
+    /**
+     * The values of one facet, each with its document set, and each document's values
+     */
+    private final class Dimension {
+        final String name;
+        final boolean multiValued;
+        final Map<String, Integer> ordinals = new HashMap<>();
+        final List<String> values = new ArrayList<>();
+        final List<DocSet> sets = new ArrayList<>();
+        /** Single-valued: value ordinal per document, -1 for none */
+        int[] single;
+        /** Multi-valued: sorted value ordinals per document */
+        int[][] multiple;
+
+        Dimension(String name, boolean multiValued) {
+            this.name = name;
+            this.multiValued = multiValued;
+        }
+
+        int ordinal(String value) {
+            Integer ordinal = ordinals.get(value);
+            if (ordinal == null) {
+                ordinal = values.size();
+                ordinals.put(value, ordinal);
+                values.add(value);
+                sets.add(new DocSet());
+            }
+            return ordinal;
+        }
+
+        void grow(int capacity) {
+            if (multiValued) {
+                int from = multiple == null ? 0 : multiple.length;
+                multiple = multiple == null ? new int[capacity][] : Arrays.copyOf(multiple, capacity);
+                Arrays.fill(multiple, from, capacity, NO_VALUES);
+            } else {
+                int from = single == null ? 0 : single.length;
+                single = single == null ? new int[capacity] : Arrays.copyOf(single, capacity);
+                Arrays.fill(single, from, capacity, -1);
+            }
+        }
+
+        void set(int document, int ordinal) {
+            int previous = single[document];
+            if (previous == ordinal) {
+                return;
+            }
+            if (previous >= 0) {
+                sets.get(previous).remove(document, documentCount);
+            }
+            if (ordinal >= 0) {
+                sets.get(ordinal).add(document, documentCount);
+            }
+            single[document] = ordinal;
+        }
+
+        void setAll(int document, int[] ordinals) {
+            int[] previous = multiple[document];
+            for (int ordinal : previous) {
+                if (Arrays.binarySearch(ordinals, ordinal) < 0) {
+                    sets.get(ordinal).remove(document, documentCount);
+                }
+            }
+            for (int ordinal : ordinals) {
+                if (Arrays.binarySearch(previous, ordinal) < 0) {
+                    sets.get(ordinal).add(document, documentCount);
+                }
+            }
+            multiple[document] = ordinals;
+        }
+
+        void add(int document, int ordinal) {
+            int[] previous = multiple[document];
+            int at = Arrays.binarySearch(previous, ordinal);
+            if (at >= 0) {
+                return;
+            }
+            int insert = -at - 1;
+            int[] next = new int[previous.length + 1];
+            System.arraycopy(previous, 0, next, 0, insert);
+            next[insert] = ordinal;
+            System.arraycopy(previous, insert, next, insert + 1, previous.length - insert);
+            multiple[document] = next;
+            sets.get(ordinal).add(document, documentCount);
+        }
+
+        void clear(int document) {
+            if (multiValued) {
+                setAll(document, NO_VALUES);
+            } else {
+                set(document, -1);
+            }
+        }
+
+        long[] filter(Collection<String> selected, int words) {
+            long[] filter = new long[words];
+            for (String value : selected) {
+                Integer ordinal = ordinals.get(value);
+                if (ordinal != null) {
+                    sets.get(ordinal).orInto(filter);
+                }
+            }
+            return filter;
+        }
+
+        List<FacetCount> count(long[] mask, Collection<String> selected, int maxValues, boolean ranked) {
+            Set<String> chosen = selected == null ? Set.of() : new TreeSet<>(selected);
+            List<FacetCount> counts = new ArrayList<>();
+            for (int ordinal = 0; ordinal < values.size(); ordinal++) {
+                String value = values.get(ordinal);
+                int count = sets.get(ordinal).countAnd(mask);
+                if (count > 0 || chosen.contains(value)) {
+                    counts.add(new FacetCount(value, count, chosen.contains(value)));
+                }
+            }
+            if (ranked) {
+                counts.sort(Comparator.comparingInt(FacetCount::count).reversed().thenComparing(FacetCount::value));
+            }
+            if (counts.size() <= maxValues) {
+                return counts;
+            }
+            // Selected values stay listed even when they fall outside the top values
+            List<FacetCount> top = new ArrayList<>(counts.subList(0, maxValues));
+            for (FacetCount count : counts.subList(maxValues, counts.size())) {
+                if (count.selected()) {
+                    top.add(count);
+                }
+            }
+            return top;
+        }
+
+        long bytes() {
+            long bytes = multiValued ? (long) multiple.length * 4 : (long) single.length * 4;
+            if (multiValued) {
+                for (int[] documentValues : multiple) {
+                    if (documentValues != null && documentValues.length > 0) {
+                        bytes += 16 + documentValues.length * 4L;
+                    }
+                }
+            }
+            for (DocSet set : sets) {
+                bytes += set.bytes();
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * A set of documents: a sorted array while small, a bitmap once it holds more than 1/32 of
+     * the documents, which is where the bitmap becomes the smaller of the two. It turns back
+     * into an array below 1/64, so a value hovering at the threshold does not flip on every write.
+     */
+    static final class DocSet {
+        private static final int MIN_BITMAP = 64;
+
+        private int[] array = NO_VALUES;
+        private long[] words;
+        private int cardinality;
+
+        /**
+         * @param universe current number of documents, which decides the representation
+         */
+        boolean add(int document, int universe) {
+            if (words != null) {
+                ensureWords(document);
+                long bit = 1L << document;
+                if ((words[document >>> 6] & bit) != 0) {
+                    return false;
+                }
+                words[document >>> 6] |= bit;
+                cardinality++;
+                return true;
+            }
+            int at = cardinality > 0 && array[cardinality - 1] < document
+                ? -(cardinality + 1) : Arrays.binarySearch(array, 0, cardinality, document);
+            if (at >= 0) {
+                return false;
+            }
+            int insert = -at - 1;
+            if (cardinality == array.length) {
+                array = Arrays.copyOf(array, Math.max(4, cardinality + (cardinality >> 1)));
+            }
+            System.arraycopy(array, insert, array, insert + 1, cardinality - insert);
+            array[insert] = document;
+            cardinality++;
+            if (cardinality > Math.max(MIN_BITMAP, universe >>> 5)) {
+                toBitmap();
+            }
+            return true;
+        }
+
+        boolean remove(int document, int universe) {
+            if (words != null) {
+                if (document >>> 6 >= words.length) {
+                    return false;
+                }
+                long bit = 1L << document;
+                if ((words[document >>> 6] & bit) == 0) {
+                    return false;
+                }
+                words[document >>> 6] &= ~bit;
+                cardinality--;
+                if (cardinality < Math.max(MIN_BITMAP, universe >>> 5) / 2) {
+                    toArray();
+                }
+                return true;
+            }
+            int at = Arrays.binarySearch(array, 0, cardinality, document);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(array, at + 1, array, at, cardinality - at - 1);
+            cardinality--;
+            return true;
+        }
+
+        int cardinality() {
+            return cardinality;
+        }
+
+        void orInto(long[] target) {
+            if (words != null) {
+                int length = Math.min(words.length, target.length);
+                for (int w = 0; w < length; w++) {
+                    target[w] |= words[w];
+                }
+                return;
+            }
+            for (int i = 0; i < cardinality; i++) {
+                int document = array[i];
+                target[document >>> 6] |= 1L << document;
+            }
+        }
+
+        /**
+         * @return documents in both this set and the mask
+         */
+        int countAnd(long[] mask) {
+            int count = 0;
+            if (words != null) {
+                int length = Math.min(words.length, mask.length);
+                for (int w = 0; w < length; w++) {
+                    count += Long.bitCount(words[w] & mask[w]);
+                }
+                return count;
+            }
+            for (int i = 0; i < cardinality; i++) {
+                int document = array[i];
+                if ((mask[document >>> 6] & (1L << document)) != 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        long[] toWords(int length) {
+            long[] copy = new long[length];
+            orInto(copy);
+            return copy;
+        }
+
+        long bytes() {
+            return words != null ? words.length * 8L : array.length * 4L;
+        }
+
+        private void ensureWords(int document) {
+            int needed = (document >>> 6) + 1;
+            if (needed > words.length) {
+                words = Arrays.copyOf(words, Math.max(needed, words.length + (words.length >> 1)));
+            }
+        }
+
+        private void toBitmap() {
+            words = new long[(array[cardinality - 1] >>> 6) + 1];
+            for (int i = 0; i < cardinality; i++) {
+                words[array[i] >>> 6] |= 1L << array[i];
+            }
+            array = NO_VALUES;
+        }
+
+        private void toArray() {
+            int[] documents = new int[Math.max(4, cardinality)];
+            int count = 0;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    documents[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            array = documents;
+            words = null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.ims.service;
 
+import com.example.ims.dto.LiveUpdateEvent;
 import com.example.ims.model.Inventory;
 import com.example.ims.model.Product;
 import com.example.ims.model.Warehouse;
@@ -8,10 +9,13 @@ import com.example.ims.repository.ProductRepository;
 import com.example.ims.repository.WarehouseRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class InventoryService {
@@ -27,6 +31,19 @@ public class InventoryService {
     @Autowired
     private AlertService alertService;
 
+    @Autowired
+    private StockLotService stockLotService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StockGridService stockGridService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Transactional(readOnly = true)
     public List<Inventory> getAllInventories() {
         return inventoryRepository.findAll();
     }
@@ -65,6 +82,8 @@ public class InventoryService {
         inventory.setQuantityDamaged(0);
 
         Inventory savedInventory = inventoryRepository.save(inventory);
+        eventPublisher.publishEvent(LiveUpdateEvent.stock(savedInventory));
+        stockLotService.recordReceipt(savedInventory, initialQuantity, product.getCostPriceMinor(), null);
 
         return savedInventory;
     }
@@ -77,11 +96,14 @@ public class InventoryService {
             throw new IllegalArgumentException("Stock quantities cannot be negative");
         }
 
+        stockLotService.adjust(inventory, available - inventory.getQuantityAvailable());
+
         inventory.setQuantityAvailable(available);
         inventory.setQuantityReserved(reserved);
         inventory.setQuantityDamaged(damaged);
 
         Inventory savedInventory = inventoryRepository.save(inventory);
+        eventPublisher.publishEvent(LiveUpdateEvent.stock(savedInventory));
         
         // Check if alert should be generated after stock update
         try {
@@ -93,18 +115,77 @@ public class InventoryService {
         return savedInventory;
     }
 
+    /**
+     * Add stock received against a purchase order and record it as a new FIFO lot
+     */
+    @Transactional
+    public Inventory receiveStock(String inventoryId, int quantity, String purchaseOrderId, Long unitCostMinor) {
+        Inventory inventory = getInventoryById(inventoryId);
+
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Received quantity cannot be negative");
+        }
+
+        inventory.setQuantityAvailable(inventory.getQuantityAvailable() + quantity);
+
+        Inventory savedInventory = inventoryRepository.save(inventory);
+        eventPublisher.publishEvent(LiveUpdateEvent.stock(savedInventory));
+        stockLotService.recordReceipt(savedInventory, quantity, unitCostMinor, purchaseOrderId);
+
+        // Check if alert should be resolved after stock increase
+        try {
+            alertService.checkAndCreateAlertForProduct(inventory.getProduct().getProductId(), inventory.getWarehouse().getWarehouseId());
+        } catch (Exception e) {
+            System.err.println("Failed to check alert after stock receipt: " + e.getMessage());
+        }
+
+        return savedInventory;
+    }
+
     @Transactional
     public Inventory reserveStock(String inventoryId, int quantity) {
+        return reserveStock(inventoryId, quantity, null, null);
+    }
+
+    /**
+     * Move stock from available to reserved until released, fulfilled with its order, or expired
+     *
+     * @param salesOrderId order the stock is held for, may be null
+     * @param ttlMinutes   minutes until the reservation expires, or null for the configured default
+     */
+    @Transactional
+    public Inventory reserveStock(String inventoryId, int quantity, String salesOrderId, Integer ttlMinutes) {
+        return reserveStock(inventoryId, quantity, salesOrderId, ttlMinutes, true);
+    }
+
+    /**
+     * Move stock from available to reserved for a confirmed order, without an expiry
+     */
+    @Transactional
+    public Inventory reserveStockForOrder(String inventoryId, int quantity, String salesOrderId) {
+        return reserveStock(inventoryId, quantity, salesOrderId, null, false);
+    }
+
+    private Inventory reserveStock(String inventoryId, int quantity, String salesOrderId, Integer ttlMinutes,
+                                   boolean expires) {
         Inventory inventory = getInventoryById(inventoryId);
         
         if (quantity > inventory.getQuantityAvailable()) {
             throw new IllegalStateException("Not enough available stock to reserve");
         }
 
+        stockLotService.consume(inventory, quantity);
+
         inventory.setQuantityAvailable(inventory.getQuantityAvailable() - quantity);
         inventory.setQuantityReserved(inventory.getQuantityReserved() + quantity);
 
         Inventory savedInventory = inventoryRepository.save(inventory);
+        if (expires) {
+            stockReservationService.recordReservation(savedInventory, quantity, salesOrderId, ttlMinutes);
+        } else {
+            stockReservationService.recordOrderReservation(savedInventory, quantity, salesOrderId);
+        }
+        eventPublisher.publishEvent(LiveUpdateEvent.stock(savedInventory));
         
         // Check if alert should be generated after stock reduction
         try {
@@ -124,10 +205,16 @@ public class InventoryService {
             throw new IllegalStateException("Cannot release more than reserved quantity");
         }
 
+        // Released stock goes back into the lots it was reserved from, keeping its age
+        stockLotService.restore(inventory, quantity);
+
         inventory.setQuantityReserved(inventory.getQuantityReserved() - quantity);
         inventory.setQuantityAvailable(inventory.getQuantityAvailable() + quantity);
+        stockReservationService.closeReleased(inventoryId, quantity);
 
-        return inventoryRepository.save(inventory);
+        Inventory savedInventory = inventoryRepository.save(inventory);
+        eventPublisher.publishEvent(LiveUpdateEvent.stock(savedInventory));
+        return savedInventory;
     }
 
     @Transactional
@@ -138,10 +225,13 @@ public class InventoryService {
             throw new IllegalStateException("Cannot mark more items as damaged than available");
         }
 
+        stockLotService.consume(inventory, quantity);
+
         inventory.setQuantityAvailable(inventory.getQuantityAvailable() - quantity);
         inventory.setQuantityDamaged(inventory.getQuantityDamaged() + quantity);
 
         Inventory savedInventory = inventoryRepository.save(inventory);
+        eventPublisher.publishEvent(LiveUpdateEvent.stock(savedInventory));
         
         // Check if alert should be generated after stock reduction
         try {
@@ -153,19 +243,26 @@ public class InventoryService {
         return savedInventory;
     }
 
+    @Transactional(readOnly = true)
     public List<Inventory> getInventoryByProduct(String productId) {
         Product product = productRepository.findById(productId)
             .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + productId));
         return inventoryRepository.findByProduct(product);
     }
 
+    @Transactional(readOnly = true)
     public List<Inventory> getInventoryByWarehouse(String warehouseId) {
         Warehouse warehouse = warehouseRepository.findById(warehouseId)
             .orElseThrow(() -> new EntityNotFoundException("Warehouse not found with id: " + warehouseId));
         return inventoryRepository.findByWarehouse(warehouse);
     }
 
+    @Transactional(readOnly = true)
     public int getTotalAvailableStock(String productId) {
+        long fromGrid = stockGridService.getTotalAvailable(productId);
+        if (fromGrid >= 0) {
+            return (int) fromGrid;
+        }
         List<Inventory> inventories = getInventoryByProduct(productId);
         return inventories.stream()
             .mapToInt(Inventory::getQuantityAvailable)
@@ -174,10 +271,9 @@ public class InventoryService {
 
     @Transactional
     public void deleteInventory(String id) {
-        if (!inventoryRepository.existsById(id)) {
-            throw new EntityNotFoundException("Inventory not found with id: " + id);
-        }
-        inventoryRepository.deleteById(id);
+        Inventory inventory = getInventoryById(id);
+        inventoryRepository.delete(inventory);
+        eventPublisher.publishEvent(LiveUpdateEvent.stockDeleted(inventory));
     }
 
     public Inventory getInventoryByProductAndWarehouse(String productId, String warehouseId) {
@@ -195,6 +291,31 @@ public class InventoryService {
         return inventory;
     }
 
+    /**
+     * Available, reserved and damaged counts of one cell, from the stock grid when it is loaded
+     */
+    public Map<String, Object> getAvailability(String productId, String warehouseId) {
+        Map<String, Object> availability = new LinkedHashMap<>();
+        availability.put("productId", productId);
+        availability.put("warehouseId", warehouseId);
+
+        int[] counts = stockGridService.getCounts(productId, warehouseId);
+        if (counts != null) {
+            availability.put("quantityAvailable", counts[StockGrid.AVAILABLE]);
+            availability.put("quantityReserved", counts[StockGrid.RESERVED]);
+            availability.put("quantityDamaged", counts[StockGrid.DAMAGED]);
+            availability.put("source", "grid");
+        } else {
+            Inventory inventory = getInventoryByProductAndWarehouse(productId, warehouseId);
+            availability.put("quantityAvailable", inventory.getQuantityAvailable());
+            availability.put("quantityReserved", inventory.getQuantityReserved());
+            availability.put("quantityDamaged", inventory.getQuantityDamaged());
+            availability.put("source", "database");
+        }
+        return availability;
+    }
+
+    @Transactional(readOnly = true)
     public List<Inventory> getLowStockInventories() {
         return inventoryRepository.findLowStockInventories();
     }
@@ -0,0 +1,238 @@
+package com.example.ims.service;
+
+import com.example.ims.dto.LiveUpdateEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed stock and alert changes to server-sent-event subscribers.
+ *
+ * Changes are collected per inventory cell or alert, so a burst of updates to the same
+ * row becomes one entry, and each subscriber gets at most one message per interval.
+ * Emitters hold no request thread; a small sender pool writes the messages, and a
+ * subscriber still busy with its previous message is told to resync instead of queueing.
+ */
+@Service
+public class LiveUpdateService {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.live.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.live.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${app.live.send-threads:4}")
+    private int sendThreads;
+
+    private final Map<String, LiveUpdateEvent> pending = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private ExecutorService sender;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(sendThreads, runnable -> {
+            Thread thread = new Thread(runnable, "live-update-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("ims.live.subscribers", subscribers, Set::size)
+            .description("Open live-update event streams")
+            .register(meterRegistry);
+        Gauge.builder("ims.live.pending", pending, Map::size)
+            .description("Changes waiting for the next live-update push")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Open an event stream
+     *
+     * @param warehouseIds only changes in these warehouses, or all warehouses when empty
+     * @param topics       {@link LiveUpdateEvent#TOPIC_STOCK} and/or {@link LiveUpdateEvent#TOPIC_ALERTS}
+     * @throws IllegalStateException when the subscriber limit is reached
+     */
+    public SseEmitter subscribe(Set<String> warehouseIds, Set<String> topics) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Live update subscriber limit of " + maxSubscribers + " reached");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, warehouseIds, topics);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Flushes the response headers so the client sees the stream open straight away. Sent
+        // here rather than through the sender pool: the emitter holds it until the request thread
+        // writes it, and an update pushed just after the client sees it is not dropped as busy.
+        try {
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            subscribers.remove(subscriber);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * Queue a change once its transaction commits; changes made outside a transaction queue immediately
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLiveUpdate(LiveUpdateEvent event) {
+        if (!subscribers.isEmpty()) {
+            pending.put(event.getCoalescingKey(), event);
+        }
+    }
+
+    /**
+     * Send each subscriber the queued changes it is interested in, as one "update" event
+     */
+    @Scheduled(fixedDelayString = "${app.live.interval-ms:1000}")
+    public void pushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<LiveUpdateEvent> batch = new ArrayList<>(pending.size());
+        Iterator<LiveUpdateEvent> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+
+        // Subscribers with the same filter share one serialized payload
+        Map<String, String> payloads = new HashMap<>();
+        for (Subscriber subscriber : subscribers) {
+            if (!payloads.containsKey(subscriber.filterKey)) {
+                payloads.put(subscriber.filterKey, serialize(subscriber.select(batch)));
+            }
+            String payload = payloads.get(subscriber.filterKey);
+            if (payload != null) {
+                subscriber.submit(SseEmitter.event().name("update").data(payload, MediaType.APPLICATION_JSON), true);
+            }
+        }
+    }
+
+    /**
+     * Comment lines keep proxies from closing idle streams and surface dead connections
+     */
+    @Scheduled(fixedDelayString = "${app.live.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.submit(SseEmitter.event().comment("ping"), false);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private String serialize(List<LiveUpdateEvent> events) {
+        if (events.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(events);
+        } catch (Exception e) {
+            System.err.println("Failed to serialize live updates: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<String> warehouseIds;
+        private final Set<String> topics;
+        private final String filterKey;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean missedUpdates;
+
+        Subscriber(SseEmitter emitter, Set<String> warehouseIds, Set<String> topics) {
+            this.emitter = emitter;
+            this.warehouseIds = warehouseIds;
+            this.topics = topics;
+            this.filterKey = topics + "|" + warehouseIds;
+        }
+
+        List<LiveUpdateEvent> select(List<LiveUpdateEvent> batch) {
+            List<LiveUpdateEvent> selected = new ArrayList<>();
+            for (LiveUpdateEvent event : batch) {
+                if (topics.contains(event.getTopic())
+                        && (warehouseIds.isEmpty() || warehouseIds.contains(event.getWarehouseId()))) {
+                    selected.add(event);
+                }
+            }
+            return selected;
+        }
+
+        /**
+         * Hand a message to the sender pool unless the previous one is still being written.
+         * A skipped update is replaced by a "resync" event, telling the client to reload;
+         * skipped comments are simply dropped.
+         */
+        void submit(SseEmitter.SseEventBuilder message, boolean update) {
+            if (!sending.compareAndSet(false, true)) {
+                if (update) {
+                    missedUpdates = true;
+                }
+                return;
+            }
+            try {
+                sender.execute(() -> send(message));
+            } catch (RejectedExecutionException e) {
+                sending.set(false);
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder message) {
+            try {
+                if (missedUpdates) {
+                    missedUpdates = false;
+                    emitter.send(SseEmitter.event().name("resync").data("{}", MediaType.APPLICATION_JSON));
+                }
+                emitter.send(message);
+            } catch (Exception e) {
+                // The client went away; the container completes the emitter
+                subscribers.remove(this);
+            } finally {
+                sending.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.ims.service;
+
+import com.example.ims.dto.LiveUpdateEvent;
+import com.example.ims.model.Money;
+import com.example.ims.model.OutboxEvent;
+import com.example.ims.model.PurchaseOrder;
+import com.example.ims.model.PurchaseOrderItem;
+import com.example.ims.model.SalesOrder;
+import com.example.ims.model.SalesOrderItem;
+import com.example.ims.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes outbox rows for inventory and order changes inside the transaction making the change.
+ * Does nothing unless app.outbox.enabled is set, so payloads are not even built.
+ */
+@Service
+public class OutboxService {
+    public static final String INVENTORY = "Inventory";
+    public static final String SALES_ORDER = "SalesOrder";
+    public static final String PURCHASE_ORDER = "PurchaseOrder";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.outbox.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Inventory services already publish every committed-to-be stock change for live updates;
+     * this listener runs synchronously, so the outbox row joins their transaction
+     */
+    @EventListener
+    public void onStockChange(LiveUpdateEvent event) {
+        if (!enabled || !LiveUpdateEvent.TOPIC_STOCK.equals(event.getTopic())) {
+            return;
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("inventoryId", event.getKey());
+        payload.put("warehouseId", event.getWarehouseId());
+        payload.putAll(event.getData());
+        record(INVENTORY, event.getKey(), event.isDeleted() ? "StockDeleted" : "StockChanged", payload);
+    }
+
+    public void salesOrderCreated(SalesOrder order) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Object> payload = orderPayload(order.getOrderId(), order.getWarehouse().getWarehouseId(), order.getStatus());
+        payload.put("customerEmail", order.getCustomerEmail());
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (SalesOrderItem item : order.getItems()) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("productId", item.getProduct().getProductId());
+            line.put("quantity", item.getQuantity());
+            line.put("unitPrice", Money.toDecimal(item.getUnitPriceMinor()));
+            items.add(line);
+        }
+        payload.put("items", items);
+        record(SALES_ORDER, order.getOrderId(), "SalesOrderCreated", payload);
+    }
+
+    public void salesOrderChanged(SalesOrder order, String eventType) {
+        if (!enabled) {
+            return;
+        }
+        record(SALES_ORDER, order.getOrderId(), eventType,
+            orderPayload(order.getOrderId(), order.getWarehouse().getWarehouseId(), order.getStatus()));
+    }
+
+    public void purchaseOrderCreated(PurchaseOrder order) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Object> payload = orderPayload(order.getPoId(), order.getWarehouse().getWarehouseId(), order.getStatus());
+        payload.put("supplierName", order.getSupplierName());
+        payload.put("items", purchaseOrderItems(order));
+        record(PURCHASE_ORDER, order.getPoId(), "PurchaseOrderCreated", payload);
+    }
+
+    public void purchaseOrderChanged(PurchaseOrder order, String eventType) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Object> payload = orderPayload(order.getPoId(), order.getWarehouse().getWarehouseId(), order.getStatus());
+        payload.put("items", purchaseOrderItems(order));
+        record(PURCHASE_ORDER, order.getPoId(), eventType, payload);
+    }
+
+    /**
+     * Append an event for an aggregate. Pending changes are flushed first so the aggregate's
+     * row lock is held before the sequence value is taken: concurrent writers of the same
+     * aggregate then get ids in commit order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, String aggregateId, String eventType, Map<String, Object> payload) {
+        if (!enabled) {
+            return;
+        }
+        entityManager.flush();
+
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable: " + e.getMessage(), e);
+        }
+        outboxEventRepository.save(event);
+    }
+
+    private Map<String, Object> orderPayload(String orderId, String warehouseId, Object status) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", orderId);
+        payload.put("warehouseId", warehouseId);
+        payload.put("status", status);
+        return payload;
+    }
+
+    private List<Map<String, Object>> purchaseOrderItems(PurchaseOrder order) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (PurchaseOrderItem item : order.getItems()) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("productId", item.getProduct().getProductId());
+            line.put("quantityOrdered", item.getQuantityOrdered());
+            line.put("quantityReceived", item.getQuantityReceived());
+            line.put("unitPrice", Money.toDecimal(item.getUnitPriceMinor()));
+            items.add(line);
+        }
+        return items;
+    }
+}
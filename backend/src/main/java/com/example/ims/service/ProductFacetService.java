@@ -0,0 +1,302 @@
+package com.example.ims.service;
+
+import com.example.ims.dto.LiveUpdateEvent;
+import com.example.ims.dto.ProductChangeEvent;
+import com.example.ims.model.Category;
+import com.example.ims.model.Money;
+import com.example.ims.model.Product;
+import com.example.ims.repository.CategoryRepository;
+import com.example.ims.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Faceted product browsing over category, brand, price band, stock and specification keys,
+ * answered from an in-memory {@link FacetIndex}.
+ *
+ * The index is built when the application starts and kept current from product and stock
+ * events after they commit. Changes from other instances or SQL are picked up by the next
+ * rebuild, every app.facets.rebuild-interval-ms. Until the first build completes, and when
+ * app.facets.enabled is false, browsing is unavailable.
+ */
+@Service
+public class ProductFacetService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private StockGridService stockGridService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.facets.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.facets.price-bands:10,25,50,100,250,500,1000}")
+    private double[] priceBands;
+
+    @Value("${app.facets.max-values:50}")
+    private int maxValues;
+
+    private volatile FacetIndex index;
+    private volatile boolean ready;
+    private volatile long loadedAt;
+    /** Events seen while a rebuild scans, replayed onto the new index before it takes over */
+    private List<Object> pending;
+    private final Object pendingLock = new Object();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("ims.facets.products", this, service -> service.ready ? service.index.getProductCount() : 0)
+            .description("Products held in the facet index")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            System.err.println("Failed to build facet index, product browsing is unavailable: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Build a new index from the product, specification and inventory tables and switch browsing over to it
+     */
+    public synchronized Map<String, Object> reload() {
+        if (!enabled) {
+            throw new IllegalStateException("Product facets are disabled");
+        }
+        long start = System.currentTimeMillis();
+        synchronized (pendingLock) {
+            pending = new ArrayList<>();
+        }
+        FacetIndex loading;
+        try {
+            Integer estimate = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+            loading = new FacetIndex(estimate == null ? 0 : estimate, priceBands);
+            // Name order at build time is the order browse results come back in
+            jdbcTemplate.query("SELECT product_id, category_id, brand, unit_price FROM products ORDER BY name, product_id", rs -> {
+                loading.put(rs.getString(1), rs.getString(2), rs.getString(3), Money.toMinorOrNull(rs.getBigDecimal(4)), null);
+            });
+            jdbcTemplate.query("SELECT product_id, spec_key FROM product_specifications", rs -> {
+                loading.addSpecification(rs.getString(1), rs.getString(2));
+            });
+            jdbcTemplate.query("SELECT DISTINCT product_id FROM inventory WHERE quantity_available > 0", rs -> {
+                loading.setInStock(rs.getString(1), true);
+            });
+        } catch (RuntimeException e) {
+            synchronized (pendingLock) {
+                pending = null;
+            }
+            throw e;
+        }
+
+        synchronized (pendingLock) {
+            for (Object event : pending) {
+                apply(loading, event);
+            }
+            pending = null;
+            index = loading;
+        }
+        ready = true;
+        loadedAt = System.currentTimeMillis();
+
+        Map<String, Object> result = getStatistics();
+        result.put("loadMs", loadedAt - start);
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${app.facets.rebuild-interval-ms:3600000}",
+               initialDelayString = "${app.facets.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        if (!ready) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            System.err.println("Facet index rebuild failed, keeping the previous index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Apply a committed product change; changes rolled back never arrive here
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        record(event);
+    }
+
+    /**
+     * Keep the in-stock flag current from committed inventory changes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChange(LiveUpdateEvent event) {
+        if (LiveUpdateEvent.TOPIC_STOCK.equals(event.getTopic())) {
+            record(event);
+        }
+    }
+
+    private void record(Object event) {
+        if (!enabled) {
+            return;
+        }
+        FacetIndex current;
+        synchronized (pendingLock) {
+            if (pending != null) {
+                pending.add(event);
+            }
+            current = index;
+        }
+        if (current != null) {
+            apply(current, event);
+        }
+    }
+
+    private void apply(FacetIndex target, Object event) {
+        if (event instanceof ProductChangeEvent product) {
+            if (product.isDeleted()) {
+                target.remove(product.getProductId());
+            } else {
+                target.put(product.getProductId(), product.getCategoryId(), product.getBrand(),
+                    product.getUnitPriceMinor(), product.getSpecificationKeys());
+            }
+            return;
+        }
+        LiveUpdateEvent stock = (LiveUpdateEvent) event;
+        String productId = (String) stock.getData().get("productId");
+        Integer available = (Integer) stock.getData().get("quantityAvailable");
+        if (!stock.isDeleted() && available != null && available > 0) {
+            target.setInStock(productId, true);
+        } else if (target.isInStock(productId)) {
+            // This cell ran out or went away; the product stays in stock if another warehouse has some
+            target.setInStock(productId, isAvailableAnywhere(productId));
+        }
+    }
+
+    private boolean isAvailableAnywhere(String productId) {
+        long fromGrid = stockGridService.getTotalAvailable(productId);
+        if (fromGrid >= 0) {
+            return fromGrid > 0;
+        }
+        Integer cells = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM inventory WHERE product_id = ? AND quantity_available > 0", Integer.class, productId);
+        return cells != null && cells > 0;
+    }
+
+    /**
+     * One page of products matching the selection, with counts per facet value
+     *
+     * @param selected chosen values per dimension ({@link FacetIndex#CATEGORY} takes category ids,
+     *                 {@link FacetIndex#PRICE} band labels such as "25-50", {@link FacetIndex#IN_STOCK} "true" or "false")
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> browse(Map<String, ? extends Collection<String>> selected, int page, int size) {
+        FacetIndex current = index;
+        if (!ready || current == null) {
+            throw new IllegalStateException("The facet index is not loaded");
+        }
+        long start = System.nanoTime();
+        FacetIndex.Result result = current.query(selected, page * size, size, maxValues);
+        long queryMicros = (System.nanoTime() - start) / 1000;
+
+        // One query for the page, put back into index order
+        Map<String, Product> loaded = new HashMap<>();
+        for (Product product : productRepository.findAllById(result.productIds())) {
+            loaded.put(product.getProductId(), product);
+        }
+        List<Product> products = new ArrayList<>(result.productIds().size());
+        for (String productId : result.productIds()) {
+            Product product = loaded.get(productId);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+
+        Map<String, Object> facets = new LinkedHashMap<>();
+        for (Map.Entry<String, List<FacetIndex.FacetCount>> facet : result.facets().entrySet()) {
+            facets.put(facet.getKey(), FacetIndex.CATEGORY.equals(facet.getKey())
+                ? labelCategories(facet.getValue()) : facet.getValue());
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("total", result.total());
+        response.put("page", page);
+        response.put("size", size);
+        response.put("products", products);
+        response.put("facets", facets);
+        response.put("queryMicros", queryMicros);
+        return response;
+    }
+
+    private List<Map<String, Object>> labelCategories(List<FacetIndex.FacetCount> counts) {
+        Set<String> categoryIds = new HashSet<>();
+        for (FacetIndex.FacetCount count : counts) {
+            categoryIds.add(count.value());
+        }
+        Map<String, String> names = new HashMap<>();
+        for (Category category : categoryRepository.findAllById(categoryIds)) {
+            names.put(category.getCategoryId(), category.getName());
+        }
+        List<Map<String, Object>> labelled = new ArrayList<>(counts.size());
+        for (FacetIndex.FacetCount count : counts) {
+            Map<String, Object> value = new LinkedHashMap<>();
+            value.put("value", count.value());
+            value.put("label", names.get(count.value()));
+            value.put("count", count.count());
+            value.put("selected", count.selected());
+            labelled.add(value);
+        }
+        return labelled;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        if (ready) {
+            FacetIndex current = index;
+            stats.put("products", current.getProductCount());
+            stats.put("documents", current.getDocumentCount());
+            stats.put("values", current.getValueCounts());
+            stats.put("setBytes", current.getSetBytes());
+            stats.put("loadedAt", loadedAt);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.ims.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads an import file one record at a time, so uploads of any size are parsed in constant memory.
+ *
+ * CSV needs a header row; a header named spec.&lt;key&gt; becomes a specification. Quoted fields
+ * may contain commas, doubled quotes and line breaks. NDJSON has one JSON object per line, with
+ * specifications as a "specifications" object. Either way a record comes back as field name to
+ * text, specifications under "spec." keys, numbered by the line it starts on.
+ */
+public abstract class ProductImportReader implements Closeable {
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String SPEC_PREFIX = "spec.";
+
+    protected final BufferedReader reader;
+    protected long lineNumber;
+
+    protected ProductImportReader(Reader reader) {
+        this.reader = new BufferedReader(reader, 1 << 16);
+    }
+
+    public static ProductImportReader open(String format, Reader reader, ObjectMapper objectMapper) throws IOException {
+        if (FORMAT_CSV.equals(format)) {
+            return new Csv(reader);
+        }
+        if (FORMAT_NDJSON.equals(format)) {
+            return new Ndjson(reader, objectMapper);
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + format);
+    }
+
+    /**
+     * @return the next record, or null at the end of the file
+     */
+    public abstract Record next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * One record of the file; fields is null and error set when the record could not be parsed
+     */
+    public record Record(long lineNumber, Map<String, String> fields, String error) {
+    }
+
+    private static final class Csv extends ProductImportReader {
+        private final List<String> header;
+
+        Csv(Reader reader) throws IOException {
+            super(reader);
+            List<String> columns = readFields();
+            if (columns == null) {
+                throw new IllegalArgumentException("CSV import is empty; a header row is required");
+            }
+            header = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                String name = column.trim();
+                // Specification keys keep their case; the known columns do not care about it
+                header.add(name.regionMatches(true, 0, SPEC_PREFIX, 0, SPEC_PREFIX.length())
+                    ? SPEC_PREFIX + name.substring(SPEC_PREFIX.length()) : name.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        @Override
+        public Record next() throws IOException {
+            while (true) {
+                long start = lineNumber + 1;
+                List<String> values;
+                try {
+                    values = readFields();
+                } catch (IllegalArgumentException e) {
+                    return new Record(start, null, e.getMessage());
+                }
+                if (values == null) {
+                    return null;
+                }
+                if (values.size() == 1 && values.get(0).isEmpty()) {
+                    continue;
+                }
+                if (values.size() != header.size()) {
+                    return new Record(start, null, "Expected " + header.size() + " columns but found " + values.size());
+                }
+                Map<String, String> fields = new LinkedHashMap<>();
+                for (int i = 0; i < values.size(); i++) {
+                    fields.put(header.get(i), values.get(i));
+                }
+                return new Record(start, fields, null);
+            }
+        }
+
+        /**
+         * One record's fields, which may span several lines when quoted; null at the end of input
+         */
+        private List<String> readFields() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            lineNumber++;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        reader.mark(1);
+                        int following = reader.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        if (c == '\n') {
+                            lineNumber++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == -1 || c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    fields.add(wasQuoted ? field.toString() : field.toString().trim());
+                    return fields;
+                } else if (c == ',') {
+                    fields.add(wasQuoted ? field.toString() : field.toString().trim());
+                    field.setLength(0);
+                    wasQuoted = false;
+                } else if (c == '"' && field.toString().isBlank()) {
+                    field.setLength(0);
+                    quoted = true;
+                    wasQuoted = true;
+                } else {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+    }
+
+    private static final class Ndjson extends ProductImportReader {
+        private final ObjectMapper objectMapper;
+
+        Ndjson(Reader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Record next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                lineNumber++;
+            } while (line.isBlank());
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                return new Record(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (node == null || !node.isObject()) {
+                return new Record(lineNumber, null, "Expected a JSON object");
+            }
+            Map<String, String> fields = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+            while (entries.hasNext()) {
+                Map.Entry<String, JsonNode> entry = entries.next();
+                if ("specifications".equals(entry.getKey()) && entry.getValue().isObject()) {
+                    entry.getValue().fields().forEachRemaining(spec ->
+                        fields.put(SPEC_PREFIX + spec.getKey(), spec.getValue().isNull() ? null : spec.getValue().asText()));
+                } else if (!entry.getValue().isNull()) {
+                    JsonNode value = entry.getValue();
+                    fields.put(entry.getKey().toLowerCase(Locale.ROOT), value.isValueNode() ? value.asText() : value.toString());
+                }
+            }
+            return new Record(lineNumber, fields, null);
+        }
+    }
+}
@@ -0,0 +1,578 @@
+package com.example.ims.service;
+
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.dto.LiveUpdateEvent;
+import com.example.ims.dto.ProductChangeEvent;
+import com.example.ims.model.Category;
+import com.example.ims.model.ImportJobStatus;
+import com.example.ims.model.Inventory;
+import com.example.ims.model.Money;
+import com.example.ims.model.Product;
+import com.example.ims.model.ProductImportError;
+import com.example.ims.model.ProductImportJob;
+import com.example.ims.model.Warehouse;
+import com.example.ims.repository.CategoryRepository;
+import com.example.ims.repository.ProductImportErrorRepository;
+import com.example.ims.repository.ProductImportJobRepository;
+import com.example.ims.repository.ProductRepository;
+import com.example.ims.repository.WarehouseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports products in bulk from CSV or NDJSON.
+ *
+ * The upload is spooled to a file and the request returns a job; one job at a time then reads
+ * the file record by record. Chunks of app.import.chunk-size records are validated on a thread
+ * pool while the previous chunks are written, and each chunk is written in its own transaction:
+ * one query for the SKUs that already exist, then JDBC batches for products, specifications,
+ * inventory cells and opening stock lots, the row errors and the job's counters. Existing SKUs
+ * are skipped, so a file can be re-run after a failure.
+ */
+@Service
+public class ProductImportService {
+
+    private static final int MAX_TEXT = 255;
+
+    @Autowired
+    private ProductImportJobRepository jobRepository;
+
+    @Autowired
+    private ProductImportErrorRepository errorRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.import.validation-threads:0}")
+    private int validationThreads;
+
+    @Value("${app.import.max-errors:10000}")
+    private int maxErrors;
+
+    @Value("${app.import.spool-dir:${java.io.tmpdir}}")
+    private String spoolDir;
+
+    private ExecutorService runner;
+    private ExecutorService validators;
+    private Counter importedCounter;
+    private Counter skippedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void init() {
+        if (validationThreads <= 0) {
+            validationThreads = Runtime.getRuntime().availableProcessors();
+        }
+        runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        validators = Executors.newFixedThreadPool(validationThreads, runnable -> {
+            Thread thread = new Thread(runnable, "product-import-validate-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        importedCounter = rowCounter("imported");
+        skippedCounter = rowCounter("skipped");
+        failedCounter = rowCounter("failed");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        validators.shutdownNow();
+    }
+
+    /**
+     * Jobs cut short by a restart cannot resume: their spooled file is gone
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        try {
+            for (ProductImportJob job : jobRepository.findByStatusIn(List.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING))) {
+                job.setStatus(ImportJobStatus.FAILED);
+                job.setFinishedAt(new Date());
+                job.setMessage("Interrupted by a restart; imported rows are kept, upload the file again to import the rest");
+                jobRepository.save(job);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to close interrupted product imports: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Spool an upload and queue it for import
+     *
+     * @param format             {@link ProductImportReader#FORMAT_CSV} or {@link ProductImportReader#FORMAT_NDJSON}
+     * @param defaultWarehouseId warehouse for rows without a warehouseId column, may be null
+     */
+    public ProductImportJob startImport(InputStream upload, String format, String defaultWarehouseId, String requestedBy) throws IOException {
+        if (!ProductImportReader.FORMAT_CSV.equals(format) && !ProductImportReader.FORMAT_NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Unsupported import format '" + format + "', use csv or ndjson");
+        }
+        if (defaultWarehouseId != null && !warehouseRepository.existsById(defaultWarehouseId)) {
+            throw new EntityNotFoundException("Warehouse not found with ID: " + defaultWarehouseId);
+        }
+
+        Path file = Files.createTempFile(Paths.get(spoolDir), "product-import-", "." + format);
+        try {
+            Files.copy(upload, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        ProductImportJob job = new ProductImportJob();
+        job.setFormat(format);
+        job.setDefaultWarehouseId(defaultWarehouseId);
+        job.setRequestedBy(requestedBy);
+        job.setStatus(ImportJobStatus.QUEUED);
+        ProductImportJob saved = jobRepository.save(job);
+        runner.submit(() -> run(saved, file));
+        return saved;
+    }
+
+    public ProductImportJob getJob(String jobId) {
+        return jobRepository.findById(jobId)
+            .orElseThrow(() -> new EntityNotFoundException("Import job not found with ID: " + jobId));
+    }
+
+    public List<ProductImportJob> getRecentJobs() {
+        return jobRepository.findTop50ByOrderByCreatedAtDesc();
+    }
+
+    /**
+     * Rejected rows in file order; at most app.import.max-errors are kept per job
+     */
+    public Page<ProductImportError> getErrors(String jobId, int page, int size) {
+        getJob(jobId);
+        return errorRepository.findByJobIdOrderByLineNumber(jobId, PageRequest.of(page, size));
+    }
+
+    private void run(ProductImportJob job, Path file) {
+        String jobId = job.getJobId();
+        jdbcTemplate.update("UPDATE product_import_jobs SET status = ?, started_at = ? WHERE job_id = ?",
+            ImportJobStatus.RUNNING.name(), new Timestamp(System.currentTimeMillis()), jobId);
+
+        long[] errorsStored = {0};
+        try (ProductImportReader reader = ProductImportReader.open(job.getFormat(),
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), objectMapper)) {
+            Context context = loadContext(job.getDefaultWarehouseId());
+            // Validation runs ahead of the writer by a bounded number of chunks
+            Deque<Future<Chunk>> pending = new ArrayDeque<>();
+            List<ProductImportReader.Record> records = new ArrayList<>(chunkSize);
+            ProductImportReader.Record record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+                if (records.size() == chunkSize) {
+                    List<ProductImportReader.Record> chunk = records;
+                    pending.add(validators.submit(() -> validate(chunk, context)));
+                    records = new ArrayList<>(chunkSize);
+                    if (pending.size() > validationThreads * 2) {
+                        write(jobId, pending.poll().get(), errorsStored);
+                    }
+                }
+            }
+            if (!records.isEmpty()) {
+                List<ProductImportReader.Record> chunk = records;
+                pending.add(validators.submit(() -> validate(chunk, context)));
+            }
+            while (!pending.isEmpty()) {
+                write(jobId, pending.poll().get(), errorsStored);
+            }
+            finish(jobId, ImportJobStatus.COMPLETED, errorsStored[0] >= maxErrors
+                ? "Only the first " + maxErrors + " row errors were kept" : null);
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            System.err.println("Product import " + jobId + " failed: " + cause.getMessage());
+            finish(jobId, ImportJobStatus.FAILED, cause.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("Failed to delete spooled import " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void finish(String jobId, ImportJobStatus status, String message) {
+        try {
+            jdbcTemplate.update("UPDATE product_import_jobs SET status = ?, finished_at = ?, message = ? WHERE job_id = ?",
+                status.name(), new Timestamp(System.currentTimeMillis()), message, jobId);
+        } catch (Exception e) {
+            System.err.println("Failed to record the end of product import " + jobId + ": " + e.getMessage());
+        }
+    }
+
+    private Context loadContext(String defaultWarehouseId) {
+        Map<String, String> categories = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categories.put(category.getCategoryId(), category.getCategoryId());
+            categories.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category.getCategoryId());
+        }
+        Set<String> warehouses = new HashSet<>();
+        for (Warehouse warehouse : warehouseRepository.findAll()) {
+            warehouses.add(warehouse.getWarehouseId());
+        }
+        return new Context(categories, warehouses, defaultWarehouseId);
+    }
+
+    /**
+     * Check each record on its own; whether its SKU exists is left to the writer
+     */
+    private Chunk validate(List<ProductImportReader.Record> records, Context context) {
+        Chunk chunk = new Chunk(records.size());
+        for (ProductImportReader.Record record : records) {
+            if (record.error() != null) {
+                chunk.errors.add(new RowError(record.lineNumber(), null, record.error()));
+                continue;
+            }
+            Map<String, String> fields = record.fields();
+            String sku = text(fields.get("sku"));
+            try {
+                chunk.rows.add(toRow(record.lineNumber(), sku, fields, context));
+            } catch (IllegalArgumentException e) {
+                chunk.errors.add(new RowError(record.lineNumber(), sku, e.getMessage()));
+            }
+        }
+        return chunk;
+    }
+
+    private Row toRow(long lineNumber, String sku, Map<String, String> fields, Context context) {
+        Row row = new Row();
+        row.lineNumber = lineNumber;
+        row.sku = required(sku, "SKU");
+        row.name = required(text(fields.get("name")), "Product name");
+        row.description = text(fields.get("description"));
+        row.brand = limited(text(fields.get("brand")), "Brand");
+        row.model = limited(text(fields.get("model")), "Model");
+
+        row.unitPriceMinor = money(fields.get("unitprice"), "Unit price");
+        if (row.unitPriceMinor == null || row.unitPriceMinor <= 0) {
+            throw new IllegalArgumentException("Unit price must be positive");
+        }
+        row.costPriceMinor = money(fields.get("costprice"), "Cost price");
+        if (row.costPriceMinor != null && row.costPriceMinor < 0) {
+            throw new IllegalArgumentException("Cost price cannot be negative");
+        }
+        Integer threshold = whole(fields.get("minimumstockthreshold"), "Minimum stock threshold");
+        row.minimumStockThreshold = threshold == null ? 10 : threshold;
+        Integer stock = whole(fields.get("initialstock"), "Initial stock");
+        row.initialStock = stock == null ? 0 : stock;
+
+        String category = text(fields.get("categoryid"));
+        if (category == null) {
+            category = text(fields.get("category"));
+        }
+        if (category == null) {
+            throw new IllegalArgumentException("Category is required");
+        }
+        row.categoryId = context.categories.get(context.categories.containsKey(category) ? category : category.toLowerCase(Locale.ROOT));
+        if (row.categoryId == null) {
+            throw new IllegalArgumentException("Category not found: " + category);
+        }
+
+        String warehouseId = text(fields.get("warehouseid"));
+        row.warehouseId = warehouseId != null ? warehouseId : context.defaultWarehouseId;
+        if (row.warehouseId == null) {
+            throw new IllegalArgumentException("Warehouse is required");
+        }
+        if (!context.warehouses.contains(row.warehouseId)) {
+            throw new IllegalArgumentException("Warehouse not found: " + row.warehouseId);
+        }
+
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (field.getKey().startsWith(ProductImportReader.SPEC_PREFIX)) {
+                String key = limited(text(field.getKey().substring(ProductImportReader.SPEC_PREFIX.length())), "Specification key");
+                String value = limited(text(field.getValue()), "Specification " + key);
+                if (key != null && value != null) {
+                    row.specifications.put(key, value);
+                }
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Write one validated chunk and its errors in one transaction. A chunk that collides with
+     * a product created concurrently is retried once with a fresh view of the existing SKUs.
+     */
+    private void write(String jobId, Chunk chunk, long[] errorsStored) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long stored = transactionTemplate.execute(status -> writeChunk(jobId, chunk, errorsStored[0]));
+                errorsStored[0] = stored;
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == 2) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private long writeChunk(String jobId, Chunk chunk, long errorsStored) {
+        List<RowError> errors = new ArrayList<>(chunk.errors);
+        List<Row> rows = new ArrayList<>(chunk.rows.size());
+        long skipped = 0;
+        if (!chunk.rows.isEmpty()) {
+            Set<String> skus = new HashSet<>();
+            for (Row row : chunk.rows) {
+                skus.add(row.sku);
+            }
+            // Earlier chunks are committed by now, so this also catches SKUs repeated across the file
+            Set<String> existing = new HashSet<>(productRepository.findExistingSkus(skus));
+            Set<String> seen = new HashSet<>();
+            for (Row row : chunk.rows) {
+                if (existing.contains(row.sku)) {
+                    skipped++;
+                } else if (!seen.add(row.sku)) {
+                    errors.add(new RowError(row.lineNumber, row.sku, "Duplicate SKU earlier in the file"));
+                } else {
+                    rows.add(row);
+                }
+            }
+        }
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> products = new ArrayList<>(rows.size());
+        List<Object[]> specifications = new ArrayList<>();
+        List<Object[]> inventories = new ArrayList<>(rows.size());
+        List<Object[]> lots = new ArrayList<>(rows.size());
+        List<Inventory> cells = new ArrayList<>(rows.size());
+        List<ProductChangeEvent> productEvents = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            String productId = TimeOrderedUuidGenerator.nextString();
+            String inventoryId = TimeOrderedUuidGenerator.nextString();
+            productEvents.add(new ProductChangeEvent(productId, false, row.categoryId, row.brand, row.unitPriceMinor,
+                List.copyOf(row.specifications.keySet())));
+            products.add(new Object[] {productId, row.name, row.description, row.categoryId, row.brand, row.model,
+                row.sku, Money.toDecimal(row.unitPriceMinor), Money.toDecimalOrNull(row.costPriceMinor),
+                row.minimumStockThreshold, now, now});
+            for (Map.Entry<String, String> specification : row.specifications.entrySet()) {
+                specifications.add(new Object[] {productId, specification.getKey(), specification.getValue()});
+            }
+            inventories.add(new Object[] {inventoryId, productId, row.warehouseId, row.initialStock, 0, 0, now});
+            if (row.initialStock > 0) {
+                lots.add(new Object[] {TimeOrderedUuidGenerator.nextString(), productId, row.warehouseId,
+                    row.initialStock, row.initialStock, Money.toDecimalOrNull(row.costPriceMinor), now});
+            }
+            cells.add(cell(inventoryId, productId, row.warehouseId, row.initialStock));
+        }
+
+        if (!products.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO products (product_id, name, description, category_id, brand, model, sku, " +
+                "unit_price, cost_price, minimum_stock_threshold, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", products);
+            jdbcTemplate.batchUpdate("INSERT INTO inventory (inventory_id, product_id, warehouse_id, quantity_available, " +
+                "quantity_reserved, quantity_damaged, last_updated) VALUES (?, ?, ?, ?, ?, ?, ?)", inventories);
+        }
+        if (!specifications.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO product_specifications (product_id, spec_key, spec_value) VALUES (?, ?, ?)",
+                specifications);
+        }
+        if (!lots.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO stock_lots (lot_id, product_id, warehouse_id, quantity_received, " +
+                "quantity_remaining, unit_cost, received_at) VALUES (?, ?, ?, ?, ?, ?, ?)", lots);
+        }
+
+        List<Object[]> errorRows = new ArrayList<>();
+        for (RowError error : errors) {
+            if (errorsStored + errorRows.size() >= maxErrors) {
+                break;
+            }
+            errorRows.add(new Object[] {TimeOrderedUuidGenerator.nextString(), jobId, error.lineNumber, error.sku, error.message});
+        }
+        if (!errorRows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO product_import_errors (error_id, job_id, line_number, sku, message) " +
+                "VALUES (?, ?, ?, ?, ?)", errorRows);
+        }
+        jdbcTemplate.update("UPDATE product_import_jobs SET rows_read = rows_read + ?, imported = imported + ?, " +
+            "skipped = skipped + ?, failed = failed + ? WHERE job_id = ?",
+            chunk.size, rows.size(), skipped, errors.size(), jobId);
+
+        // Facets, stock grid, live updates and the outbox see imported products like any other new ones
+        for (ProductChangeEvent productEvent : productEvents) {
+            eventPublisher.publishEvent(productEvent);
+        }
+        for (Inventory cell : cells) {
+            eventPublisher.publishEvent(LiveUpdateEvent.stock(cell));
+        }
+        importedCounter.increment(rows.size());
+        skippedCounter.increment(skipped);
+        failedCounter.increment(errors.size());
+        return errorsStored + errorRows.size();
+    }
+
+    private static Inventory cell(String inventoryId, String productId, String warehouseId, int available) {
+        Product product = new Product();
+        product.setProductId(productId);
+        Warehouse warehouse = new Warehouse();
+        warehouse.setWarehouseId(warehouseId);
+        Inventory inventory = new Inventory();
+        inventory.setInventoryId(inventoryId);
+        inventory.setProduct(product);
+        inventory.setWarehouse(warehouse);
+        inventory.setQuantityAvailable(available);
+        return inventory;
+    }
+
+    private Counter rowCounter(String outcome) {
+        return Counter.builder("ims.import.rows")
+            .description("Rows processed by bulk product imports")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static String text(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String required(String value, String label) {
+        if (value == null) {
+            throw new IllegalArgumentException(label + " is required");
+        }
+        return limited(value, label);
+    }
+
+    private static String limited(String value, String label) {
+        if (value != null && value.length() > MAX_TEXT) {
+            throw new IllegalArgumentException(label + " is longer than " + MAX_TEXT + " characters");
+        }
+        return value;
+    }
+
+    /**
+     * Amount in minor units
+     */
+    private static Long money(String value, String label) {
+        String text = text(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Money.parse(text);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException(label + " is not a number: " + text);
+        }
+    }
+
+    private static Integer whole(String value, String label) {
+        String text = text(value);
+        if (text == null) {
+            return null;
+        }
+        int parsed;
+        try {
+            parsed = Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(label + " is not a whole number: " + text);
+        }
+        if (parsed < 0) {
+            throw new IllegalArgumentException(label + " cannot be negative");
+        }
+        return parsed;
+    }
+
+    private record Context(Map<String, String> categories, Set<String> warehouses, String defaultWarehouseId) {
+    }
+
+    private record RowError(long lineNumber, String sku, String message) {
+    }
+
+    private static final class Row {
+        long lineNumber;
+        String sku;
+        String name;
+        String description;
+        String brand;
+        String model;
+        String categoryId;
+        String warehouseId;
+        Long unitPriceMinor;
+        Long costPriceMinor;
+        int minimumStockThreshold;
+        int initialStock;
+        final Map<String, String> specifications = new HashMap<>();
+    }
+
+    private static final class Chunk {
+        final int size;
+        final List<Row> rows = new ArrayList<>();
+        final List<RowError> errors = new ArrayList<>();
+
+        Chunk(int size) {
+            this.size = size;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.ims.service;
 
+import com.example.ims.dto.LiveUpdateEvent;
+import com.example.ims.dto.ProductChangeEvent;
 import com.example.ims.model.Category;
 import com.example.ims.model.Product;
 import com.example.ims.model.Inventory;
@@ -8,8 +10,15 @@ import com.example.ims.repository.CategoryRepository;
 import com.example.ims.repository.ProductRepository;
 import com.example.ims.repository.InventoryRepository;
 import com.example.ims.repository.WarehouseRepository;
+import com.example.ims.repository.StockLotRepository;
+import com.example.ims.repository.StockReservationRepository;
+import com.example.ims.repository.ReorderPlanRepository;
+import com.example.ims.repository.DailyStockMovementRepository;
+import com.example.ims.repository.AlertRepository;
+import com.example.ims.repository.ArchivedAlertCountRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +27,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -41,11 +51,37 @@ public class ProductService {
 
     @Autowired
     private AlertService alertService;
+
+    @Autowired
+    private StockLotService stockLotService;
+
+    @Autowired
+    private StockLotRepository stockLotRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ReorderPlanRepository reorderPlanRepository;
+
+    @Autowired
+    private DailyStockMovementRepository dailyStockMovementRepository;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private ArchivedAlertCountRepository archivedAlertCountRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public List<Product> getAllProductsWithInventory() {
         List<Product> products = productRepository.findAll();
         for (Product product : products) {
@@ -75,6 +111,7 @@ public class ProductService {
 
         // Save the product first
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangeEvent.of(savedProduct));
 
 
         // Determine initial stock quantity
@@ -107,7 +144,9 @@ public class ProductService {
         inventory.setQuantityDamaged(0);
         inventory.setLastUpdated(new Date());
 
-        inventoryRepository.save(inventory);
+        Inventory savedInventory = inventoryRepository.save(inventory);
+        stockLotService.recordReceipt(savedInventory, stockQuantity, savedProduct.getCostPriceMinor(), null);
+        eventPublisher.publishEvent(LiveUpdateEvent.stock(savedInventory));
 
 
         return savedProduct;
@@ -132,21 +171,52 @@ public class ProductService {
         product.setCategory(productDetails.getCategory());
         product.setWarehouseId(productDetails.getWarehouseId());
         product.setModel(productDetails.getModel());
-        product.setUnitPrice(productDetails.getUnitPrice());
+        product.setUnitPriceMinor(productDetails.getUnitPriceMinor());
         product.setSku(productDetails.getSku());
         product.setMinimumStockThreshold(productDetails.getMinimumStockThreshold());
-        product.setSpecifications(productDetails.getSpecifications());
+        mergeSpecifications(product.getSpecifications(), productDetails.getSpecifications());
 
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangeEvent.of(savedProduct));
+        return savedProduct;
     }
     
+    /**
+     * Change the loaded map in place so only the entries that differ are written; setting a new
+     * map makes Hibernate delete every specification row and insert them all again.
+     */
+    private static void mergeSpecifications(Map<String, String> current, Map<String, String> updated) {
+        if (updated == null || updated.isEmpty()) {
+            current.clear();
+            return;
+        }
+        current.keySet().retainAll(updated.keySet());
+        for (Map.Entry<String, String> entry : updated.entrySet()) {
+            if (!Objects.equals(current.get(entry.getKey()), entry.getValue())) {
+                current.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+    
+    /**
+     * Product only cascades to its inventory and order lines, so the stock, planning and
+     * alert rows that reference it or its inventory are removed first
+     */
     public void deleteProduct(String productId) {
         if (!productRepository.existsById(productId)) {
             throw new EntityNotFoundException("Product not found with ID: " + productId);
         }
+        stockReservationRepository.deleteByProductId(productId);
+        stockLotRepository.deleteByProductId(productId);
+        reorderPlanRepository.deleteByProductId(productId);
+        dailyStockMovementRepository.deleteByProductId(productId);
+        alertRepository.deleteByProductId(productId);
+        archivedAlertCountRepository.deleteByProductId(productId);
         productRepository.deleteById(productId);
+        eventPublisher.publishEvent(ProductChangeEvent.deleted(productId));
     }
     
+    @Transactional(readOnly = true)
     public List<Product> getProductsByCategory(String categoryName) {
         Category category = categoryRepository.findByName(categoryName)
                 .orElseThrow(() -> new EntityNotFoundException("Category not found: " + categoryName));
@@ -157,6 +227,7 @@ public class ProductService {
         return productRepository.existsBySku(sku);
     }
     
+    @Transactional(readOnly = true)
     public Product getProductWithInventory(String productId) {
 
         
@@ -168,6 +239,18 @@ public class ProductService {
         return product;
     }
     
+    /**
+     * Products with a specification key, and value when given; matched exactly through the specification index
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getProductsBySpecification(String key, String value) {
+        if (value == null) {
+            return productRepository.findBySpecificationKey(key);
+        }
+        return productRepository.findBySpecification(key, value);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Product> searchProducts(String searchTerm) {
         return productRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseOrModelContainingIgnoreCase(
                 searchTerm, searchTerm, searchTerm);
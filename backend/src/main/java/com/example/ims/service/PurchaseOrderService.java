@@ -11,7 +11,11 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class PurchaseOrderService {
@@ -30,6 +34,10 @@ public class PurchaseOrderService {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private OutboxService outboxService;
+
+    @Transactional(readOnly = true)
     public List<PurchaseOrder> getAllPurchaseOrders() {
         return purchaseOrderRepository.findAll();
     }
@@ -56,32 +64,37 @@ public class PurchaseOrderService {
         purchaseOrder.setNotes(notes);
         purchaseOrder.setStatus(PurchaseOrderStatus.PENDING);
 
-        // Save the purchase order first to get an ID
-        purchaseOrder = purchaseOrderRepository.save(purchaseOrder);
-
+        // Load every product in one query instead of one lookup per line
+        Set<String> productIds = new HashSet<>();
+        for (CreatePurchaseOrderItemRequest item : items) {
+            productIds.add(item.getProductId());
+        }
+        Map<String, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            products.put(product.getProductId(), product);
+        }
 
         // Validate and add items
         for (CreatePurchaseOrderItemRequest item : items) {
-            // Get the product from database using productId
-            Product product = productRepository.findById(item.getProductId())
-                .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + item.getProductId()));
-            
+            Product product = products.get(item.getProductId());
+            if (product == null) {
+                throw new EntityNotFoundException("Product not found with id: " + item.getProductId());
+            }
+
             // Create a new PurchaseOrderItem with managed entities
             PurchaseOrderItem newItem = new PurchaseOrderItem();
             newItem.setProduct(product);
             newItem.setQuantityOrdered(item.getQuantityOrdered());
-            newItem.setUnitPrice(item.getUnitPrice());
+            newItem.setUnitPriceMinor(item.getUnitPriceMinor());
             newItem.setQuantityReceived(0); // Start with 0 received
             newItem.setNotes(item.getNotes());
-            newItem.setPurchaseOrder(purchaseOrder);
-            
-            // Save the item
-            purchaseOrderItemRepository.save(newItem);
-
+            purchaseOrder.addItem(newItem);
         }
 
-
-        return purchaseOrder;
+        // The items cascade from the order, so they are inserted together as one JDBC batch on flush
+        PurchaseOrder savedOrder = purchaseOrderRepository.save(purchaseOrder);
+        outboxService.purchaseOrderCreated(savedOrder);
+        return savedOrder;
     }
 
     // Temporarily removed to fix compilation issues
@@ -100,7 +113,9 @@ public class PurchaseOrderService {
             receiveOrder(order);
         }
         
-        return purchaseOrderRepository.save(order);
+        PurchaseOrder savedOrder = purchaseOrderRepository.save(order);
+        outboxService.purchaseOrderChanged(savedOrder, "PurchaseOrderStatusChanged");
+        return savedOrder;
     }
 
     @Transactional
@@ -130,12 +145,12 @@ public class PurchaseOrderService {
                 .findFirst()
                 .orElseThrow(() -> new IllegalStateException("No inventory found for this product in the warehouse"));
 
-            // Update inventory with received quantity
-            inventoryService.updateStock(
+            // Update inventory with received quantity and open a stock lot for it
+            inventoryService.receiveStock(
                 inventory.getInventoryId(),
-                inventory.getQuantityAvailable() + receivedItem.getQuantityReceived(),
-                inventory.getQuantityReserved(),
-                inventory.getQuantityDamaged()
+                receivedItem.getQuantityReceived(),
+                order.getPoId(),
+                orderItem.getUnitPriceMinor()
             );
         }
 
@@ -147,7 +162,9 @@ public class PurchaseOrderService {
             order.setStatus(PurchaseOrderStatus.RECEIVED);
         }
 
-        return purchaseOrderRepository.save(order);
+        PurchaseOrder savedOrder = purchaseOrderRepository.save(order);
+        outboxService.purchaseOrderChanged(savedOrder, "PurchaseOrderItemsReceived");
+        return savedOrder;
     }
 
     private void validateStatusTransition(PurchaseOrderStatus currentStatus, PurchaseOrderStatus newStatus) {
@@ -187,12 +204,12 @@ public class PurchaseOrderService {
 
             
             
-            // Update inventory: add the ordered quantity to available stock
-            inventoryService.updateStock(
+            // Update inventory: add the ordered quantity to available stock as a new lot
+            inventoryService.receiveStock(
                 inventory.getInventoryId(),
-                inventory.getQuantityAvailable() + item.getQuantityOrdered(),
-                inventory.getQuantityReserved(),
-                inventory.getQuantityDamaged()
+                item.getQuantityOrdered(),
+                order.getPoId(),
+                item.getUnitPriceMinor()
             );
 
             // Mark item as fully received
@@ -205,10 +222,12 @@ public class PurchaseOrderService {
 
 
 
+    @Transactional(readOnly = true)
     public List<PurchaseOrder> getPurchaseOrdersByStatus(PurchaseOrderStatus status) {
         return purchaseOrderRepository.findByStatus(status);
     }
 
+    @Transactional(readOnly = true)
     public List<PurchaseOrder> getPurchaseOrdersByWarehouse(String warehouseId) {
         Warehouse warehouse = warehouseRepository.findById(warehouseId)
             .orElseThrow(() -> new EntityNotFoundException("Warehouse not found with id: " + warehouseId));
@@ -224,8 +243,10 @@ public class PurchaseOrderService {
         }
         
         purchaseOrderRepository.delete(order);
+        outboxService.purchaseOrderChanged(order, "PurchaseOrderDeleted");
     }
 
+    @Transactional(readOnly = true)
     public List<PurchaseOrder> getOrdersInDateRange(Date startDate, Date endDate) {
         return purchaseOrderRepository.findOrdersInDateRange(startDate, endDate);
     }
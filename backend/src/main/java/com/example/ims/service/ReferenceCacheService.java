@@ -0,0 +1,92 @@
+package com.example.ims.service;
+
+import com.example.ims.config.ReferenceCacheConfig;
+import com.example.ims.model.Category;
+import com.example.ims.model.User;
+import com.example.ims.model.Warehouse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Explicit invalidation and statistics for the reference entity cache.
+ * Writes through JPA keep the cache current on their own; call the evict methods
+ * after changing warehouses, categories or users with SQL or from another application.
+ */
+@Service
+public class ReferenceCacheService {
+    private static final Map<String, Class<?>> ENTITY_REGIONS = Map.of(
+        ReferenceCacheConfig.WAREHOUSE_REGION, Warehouse.class,
+        ReferenceCacheConfig.CATEGORY_REGION, Category.class,
+        ReferenceCacheConfig.USER_REGION, User.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public void evictAll() {
+        Cache cache = sessionFactory().getCache();
+        for (Class<?> entityClass : ENTITY_REGIONS.values()) {
+            cache.evictEntityData(entityClass);
+        }
+        cache.evictQueryRegions();
+    }
+
+    /**
+     * Evicts one entity region together with the cached queries, which may hold its ids
+     */
+    public void evictRegion(String region) {
+        Class<?> entityClass = ENTITY_REGIONS.get(region);
+        if (entityClass == null) {
+            throw new IllegalArgumentException("Unknown cache region: " + region + ", expected one of "
+                + ReferenceCacheConfig.ENTITY_REGIONS);
+        }
+        Cache cache = sessionFactory().getCache();
+        cache.evictEntityData(entityClass);
+        cache.evictQueryRegions();
+    }
+
+    /**
+     * Hits, misses and puts per region; counts are only collected while the reference cache is enabled
+     */
+    public Map<String, Object> getStatistics() {
+        Statistics statistics = sessionFactory().getStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", sessionFactory().getSessionFactoryOptions().isSecondLevelCacheEnabled());
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+
+        List<String> regionNames = new ArrayList<>(ReferenceCacheConfig.ENTITY_REGIONS);
+        regionNames.addAll(ReferenceCacheConfig.QUERY_REGIONS);
+        List<Map<String, Object>> regions = new ArrayList<>();
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("region", regionName);
+            row.put("hits", region.getHitCount());
+            row.put("misses", region.getMissCount());
+            row.put("puts", region.getPutCount());
+            long lookups = region.getHitCount() + region.getMissCount();
+            row.put("hitRatio", lookups == 0 ? 0.0 : (double) region.getHitCount() / lookups);
+            regions.add(row);
+        }
+        result.put("regions", regions);
+        result.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        return result;
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.ims.service;
+
+import com.example.ims.config.TimeOrderedUuidGenerator;
+import com.example.ims.model.Product;
+import com.example.ims.model.ReorderPlan;
+import com.example.ims.repository.ReorderPlanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Single source of reorder levels for alerts and recommendations.
+ *
+ * For each product/warehouse cell, daily demand over the lookback window gives a mean (mu)
+ * and standard deviation (sigma), counting days without sales as zero demand:
+ *   safety stock  = z * sigma * sqrt(lead time)
+ *   reorder point = mu * lead time + safety stock   (never below the product threshold)
+ *   optimal level = reorder point + mu * review period (never below 2x the threshold)
+ */
+@Service
+public class ReorderPlanningService {
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    // Cells per fork/join leaf task
+    private static final int PLAN_CHUNK_SIZE = 4096;
+
+    @Autowired
+    private ReorderPlanRepository reorderPlanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.reorder.lookback-days:90}")
+    private int lookbackDays;
+
+    @Value("${app.reorder.lead-time-days:7}")
+    private int leadTimeDays;
+
+    @Value("${app.reorder.review-period-days:14}")
+    private int reviewPeriodDays;
+
+    @Value("${app.reorder.service-level-z:1.65}")
+    private double serviceLevelZ;
+
+    /**
+     * Recalculate all reorder plans nightly, after the day's rollup has settled
+     */
+    @Scheduled(cron = "${app.reorder.cron:0 30 2 * * *}")
+    @Transactional
+    public void recalculateReorderPlans() {
+        try {
+            recalculateAll();
+        } catch (Exception e) {
+            System.err.println("Failed to recalculate reorder plans: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the reorder_plans table from the daily sales rollup
+     *
+     * @return number of plans written
+     */
+    @Transactional
+    public int recalculateAll() {
+        LocalDate lastDay = LocalDate.now().minusDays(1);
+        LocalDate firstDay = lastDay.minusDays(lookbackDays - 1);
+
+        Map<String, long[]> demandByCell = new HashMap<>();
+        for (Object[] row : reorderPlanRepository.sumDailyDemand(firstDay, lastDay)) {
+            demandByCell.put(row[0] + "|" + row[1],
+                new long[] {((Number) row[2]).longValue(), ((Number) row[3]).longValue()});
+        }
+
+        List<Object[]> cells = reorderPlanRepository.findAllCells();
+        CellBatch batch = new CellBatch(cells.size());
+        for (int i = 0; i < cells.size(); i++) {
+            Object[] cell = cells.get(i);
+            batch.productIds[i] = (String) cell[0];
+            batch.warehouseIds[i] = (String) cell[1];
+            batch.thresholds[i] = cell[2] != null ? ((Number) cell[2]).intValue() : 0;
+
+            long[] demand = demandByCell.get(cell[0] + "|" + cell[1]);
+            if (demand != null) {
+                batch.unitsSold[i] = demand[0];
+                batch.unitsSoldSquared[i] = demand[1];
+            }
+        }
+
+        ForkJoinPool.commonPool().invoke(new PlanTask(batch, 0, batch.size,
+            lookbackDays, leadTimeDays, reviewPeriodDays, serviceLevelZ));
+
+        writePlans(batch, new Timestamp(System.currentTimeMillis()));
+        return batch.size;
+    }
+
+    /**
+     * Stock level at or below which a cell needs reordering: the plan's reorder point, or the
+     * product's minimum stock threshold when the cell has no plan yet. Alerts and reorder
+     * recommendations both use this rule.
+     */
+    public static int reorderPoint(ReorderPlan plan, Product product) {
+        return plan != null ? plan.getReorderPoint() : product.getMinimumStockThreshold();
+    }
+
+    public static int fallbackOptimalStockLevel(int threshold) {
+        return threshold * 2;
+    }
+
+    /**
+     * Order-up-to quantity: enough to bring the cell back to its optimal level
+     */
+    public static int suggestedOrderQuantity(int currentStock, int optimalStockLevel) {
+        return Math.max(optimalStockLevel - currentStock, 1);
+    }
+
+    private void writePlans(CellBatch batch, Timestamp calculatedAt) {
+        jdbcTemplate.update("DELETE FROM reorder_plans");
+
+        String sql = "INSERT INTO reorder_plans (plan_id, product_id, warehouse_id, average_daily_demand, " +
+            "demand_std_dev, safety_stock, reorder_point, optimal_stock_level, calculated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        List<Object[]> args = new ArrayList<>(Math.min(batch.size, INSERT_BATCH_SIZE));
+        for (int i = 0; i < batch.size; i++) {
+            args.add(new Object[] {
+                TimeOrderedUuidGenerator.nextString(), batch.productIds[i], batch.warehouseIds[i],
+                batch.meanDemand[i], batch.stdDevDemand[i], batch.safetyStock[i],
+                batch.reorderPoint[i], batch.optimalStockLevel[i], calculatedAt
+            });
+            if (args.size() == INSERT_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, args);
+                args.clear();
+            }
+        }
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, args);
+        }
+    }
+
+    /**
+     * Column-oriented inputs and outputs for every cell, so the fork/join
+     * workers write into disjoint array ranges without allocation.
+     */
+    static final class CellBatch {
+        final int size;
+        final String[] productIds;
+        final String[] warehouseIds;
+        final int[] thresholds;
+        final long[] unitsSold;
+        final long[] unitsSoldSquared;
+        final double[] meanDemand;
+        final double[] stdDevDemand;
+        final int[] safetyStock;
+        final int[] reorderPoint;
+        final int[] optimalStockLevel;
+
+        CellBatch(int size) {
+            this.size = size;
+            productIds = new String[size];
+            warehouseIds = new String[size];
+            thresholds = new int[size];
+            unitsSold = new long[size];
+            unitsSoldSquared = new long[size];
+            meanDemand = new double[size];
+            stdDevDemand = new double[size];
+            safetyStock = new int[size];
+            reorderPoint = new int[size];
+            optimalStockLevel = new int[size];
+        }
+    }
+
+    static final class PlanTask extends RecursiveAction {
+        private final CellBatch batch;
+        private final int from;
+        private final int to;
+        private final int lookbackDays;
+        private final int leadTimeDays;
+        private final int reviewPeriodDays;
+        private final double serviceLevelZ;
+
+        PlanTask(CellBatch batch, int from, int to, int lookbackDays, int leadTimeDays,
+                 int reviewPeriodDays, double serviceLevelZ) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+            this.lookbackDays = lookbackDays;
+            this.leadTimeDays = leadTimeDays;
+            this.reviewPeriodDays = reviewPeriodDays;
+            this.serviceLevelZ = serviceLevelZ;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PLAN_CHUNK_SIZE) {
+                computeRange();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(
+                new PlanTask(batch, from, mid, lookbackDays, leadTimeDays, reviewPeriodDays, serviceLevelZ),
+                new PlanTask(batch, mid, to, lookbackDays, leadTimeDays, reviewPeriodDays, serviceLevelZ));
+        }
+
+        private void computeRange() {
+            double sqrtLeadTime = Math.sqrt(leadTimeDays);
+            for (int i = from; i < to; i++) {
+                double mean = (double) batch.unitsSold[i] / lookbackDays;
+                double variance = (double) batch.unitsSoldSquared[i] / lookbackDays - mean * mean;
+                double stdDev = Math.sqrt(Math.max(variance, 0));
+
+                int threshold = batch.thresholds[i];
+                int safety = (int) Math.ceil(serviceLevelZ * stdDev * sqrtLeadTime);
+                int reorder = Math.max((int) Math.ceil(mean * leadTimeDays) + safety, threshold);
+                int optimal = Math.max(reorder + (int) Math.ceil(mean * reviewPeriodDays),
+                    fallbackOptimalStockLevel(threshold));
+
+                batch.meanDemand[i] = mean;
+                batch.stdDevDemand[i] = stdDev;
+                batch.safetyStock[i] = safety;
+                batch.reorderPoint[i] = reorder;
+                batch.optimalStockLevel[i] = optimal;
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.ims.service;
+
+import com.example.ims.model.DailyStockMovement;
+import com.example.ims.model.Money;
+import com.example.ims.model.PurchaseOrderStatus;
+import com.example.ims.model.RollupWatermark;
+import com.example.ims.repository.DailyStockMovementRepository;
+import com.example.ims.repository.InventoryAnalyticsRepository;
+import com.example.ims.repository.ProductRepository;
+import com.example.ims.repository.RollupWatermarkRepository;
+import com.example.ims.repository.WarehouseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+@Service
+public class RollupService {
+    public static final String DAILY_STOCK_MOVEMENTS_JOB = "daily_stock_movements";
+
+    // Rows stamped just before "now" may belong to transactions that have not committed yet
+    private static final long COMMIT_LAG_MS = 60000;
+
+    @Autowired
+    private DailyStockMovementRepository dailyStockMovementRepository;
+
+    @Autowired
+    private RollupWatermarkRepository rollupWatermarkRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Fold sales and purchase order changes into the daily rollup every 5 minutes
+     */
+    @Scheduled(fixedDelayString = "${app.rollup.interval-ms:300000}")
+    public void rollupDailyStockMovements() {
+        try {
+            // A self-call would bypass the proxy, so the transaction is opened here
+            transactionTemplate.execute(status -> refreshDailyStockMovements());
+        } catch (Exception e) {
+            System.err.println("Failed to refresh daily stock movement rollup: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Re-aggregate every day touched by an order changed since the watermark, then advance it.
+     * Whole days are rebuilt so status changes and cancellations are reflected, not just additions.
+     * Receipts are placed by the order's receivedAt, so a later edit to a received order
+     * rebuilds the day it was received rather than the day of the edit.
+     *
+     * @return number of days rebuilt
+     */
+    @Transactional
+    public int refreshDailyStockMovements() {
+        RollupWatermark watermark = rollupWatermarkRepository.findById(DAILY_STOCK_MOVEMENTS_JOB)
+            .orElseGet(() -> {
+                RollupWatermark initial = new RollupWatermark();
+                initial.setJobName(DAILY_STOCK_MOVEMENTS_JOB);
+                initial.setProcessedUntil(new Date(0));
+                return initial;
+            });
+
+        Date since = watermark.getProcessedUntil();
+        Date until = new Date(System.currentTimeMillis() - COMMIT_LAG_MS);
+        if (!until.after(since)) {
+            return 0;
+        }
+
+        TreeSet<LocalDate> days = new TreeSet<>();
+        for (Date createdAt : dailyStockMovementRepository.findSalesCreatedAtChangedBetween(since, until)) {
+            days.add(toDay(createdAt));
+        }
+        for (Date receivedAt : dailyStockMovementRepository.findReceivedAtChangedBetween(
+                since, until, PurchaseOrderStatus.RECEIVED)) {
+            days.add(toDay(receivedAt));
+        }
+
+        if (!days.isEmpty()) {
+            Map<String, DailyStockMovement> buckets = new HashMap<>();
+            for (LocalDate day : days) {
+                Date start = toDate(day);
+                Date end = toDate(day.plusDays(1));
+                for (Object[] row : dailyStockMovementRepository.aggregateSales(
+                        start, end, InventoryAnalyticsRepository.SOLD_STATUSES)) {
+                    DailyStockMovement bucket = bucketFor(buckets, day, row);
+                    bucket.setQuantitySold(((Number) row[2]).longValue());
+                    bucket.setSalesAmountMinor(Money.toMinor((Number) row[3]));
+                }
+                for (Object[] row : dailyStockMovementRepository.aggregateReceipts(
+                        start, end, PurchaseOrderStatus.RECEIVED)) {
+                    DailyStockMovement bucket = bucketFor(buckets, day, row);
+                    bucket.setQuantityReceived(((Number) row[2]).longValue());
+                    bucket.setPurchaseAmountMinor(Money.toMinor((Number) row[3]));
+                }
+            }
+
+            dailyStockMovementRepository.deleteByBucketDateIn(days);
+            dailyStockMovementRepository.saveAll(buckets.values());
+        }
+
+        watermark.setProcessedUntil(until);
+        rollupWatermarkRepository.save(watermark);
+
+        return days.size();
+    }
+
+    private DailyStockMovement bucketFor(Map<String, DailyStockMovement> buckets, LocalDate day, Object[] row) {
+        String productId = (String) row[0];
+        String warehouseId = (String) row[1];
+
+        return buckets.computeIfAbsent(day + "|" + productId + "|" + warehouseId, key -> {
+            DailyStockMovement bucket = new DailyStockMovement();
+            bucket.setBucketDate(day);
+            bucket.setProduct(productRepository.getReferenceById(productId));
+            bucket.setWarehouse(warehouseRepository.getReferenceById(warehouseId));
+            return bucket;
+        });
+    }
+
+    // Days are cut in the JVM zone on both sides, like the turnover report, never by the database
+    private static LocalDate toDay(Date timestamp) {
+        return timestamp.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private static Date toDate(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.ims.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits order lines across warehouses, using as few warehouses as it can.
+ *
+ * Greedy set cover over an availability snapshot: warehouses already shipping part of the
+ * order take every line they can cover in full; otherwise the warehouse covering the most
+ * remaining lines in full is opened. Lines no single warehouse can cover are split, drawing
+ * from already opened warehouses first and then from the largest remaining stock. Ties go
+ * to the preferred warehouse, then to more units, then to the lower warehouse id so the
+ * result does not depend on map order.
+ */
+public final class SalesOrderAllocator {
+
+    private SalesOrderAllocator() {
+    }
+
+    /**
+     * @param grid                  available stock per product and warehouse
+     * @param productIds            one entry per line; a product may appear only once
+     * @param quantities            units wanted per line
+     * @param preferredWarehouseId  wins ties, may be null
+     * @throws IllegalStateException when the warehouses together cannot cover a line
+     */
+    public static Allocation allocate(StockGrid grid, String[] productIds, int[] quantities, String preferredWarehouseId) {
+        int lines = productIds.length;
+        Map<String, int[]> candidates = new HashMap<>();
+        for (int line = 0; line < lines; line++) {
+            int index = line;
+            long[] total = {0};
+            grid.forEachWarehouse(productIds[line], (warehouseId, available, reserved, damaged) -> {
+                if (available > 0) {
+                    candidates.computeIfAbsent(warehouseId, id -> new int[lines])[index] = available;
+                    total[0] += available;
+                }
+            });
+            if (total[0] < quantities[line]) {
+                throw new IllegalStateException("Insufficient stock for product " + productIds[line]
+                    + ": " + quantities[line] + " requested, " + total[0] + " available across warehouses");
+            }
+        }
+
+        int[] remaining = quantities.clone();
+        int open = 0;
+        for (int quantity : remaining) {
+            if (quantity > 0) {
+                open++;
+            }
+        }
+        Allocation allocation = new Allocation(lines);
+
+        while (open > 0) {
+            // Opened warehouses cost nothing extra: let them take whatever they cover in full
+            for (Map.Entry<String, int[]> shipment : allocation.shipments.entrySet()) {
+                open -= take(candidates.get(shipment.getKey()), remaining, shipment.getValue(), true);
+            }
+            if (open == 0) {
+                break;
+            }
+
+            String best = null;
+            int bestCovered = -1;
+            long bestUnits = -1;
+            for (Map.Entry<String, int[]> candidate : candidates.entrySet()) {
+                String warehouseId = candidate.getKey();
+                if (allocation.shipments.containsKey(warehouseId)) {
+                    continue;
+                }
+                int[] available = candidate.getValue();
+                int covered = 0;
+                long units = 0;
+                for (int line = 0; line < lines; line++) {
+                    if (remaining[line] > 0 && available[line] > 0) {
+                        units += Math.min(available[line], remaining[line]);
+                        if (available[line] >= remaining[line]) {
+                            covered++;
+                        }
+                    }
+                }
+                if (units > 0 && better(warehouseId, covered, units, best, bestCovered, bestUnits, preferredWarehouseId)) {
+                    best = warehouseId;
+                    bestCovered = covered;
+                    bestUnits = units;
+                }
+            }
+
+            if (bestCovered > 0) {
+                open -= take(candidates.get(best), remaining, allocation.open(best), true);
+                continue;
+            }
+
+            // No warehouse covers a whole line: top up from opened warehouses, then split into the largest stock
+            for (Map.Entry<String, int[]> shipment : allocation.shipments.entrySet()) {
+                open -= take(candidates.get(shipment.getKey()), remaining, shipment.getValue(), false);
+            }
+            if (open > 0) {
+                if (best == null) {
+                    throw new IllegalStateException("No warehouse left to cover the remaining quantity");
+                }
+                open -= take(candidates.get(best), remaining, allocation.open(best), false);
+            }
+        }
+        return allocation;
+    }
+
+    /**
+     * Move stock from a warehouse into its shipment
+     *
+     * @param wholeLinesOnly only take lines the warehouse can cover entirely
+     * @return number of lines completed
+     */
+    private static int take(int[] available, int[] remaining, int[] shipment, boolean wholeLinesOnly) {
+        int completed = 0;
+        for (int line = 0; line < remaining.length; line++) {
+            if (remaining[line] == 0 || available[line] == 0 || (wholeLinesOnly && available[line] < remaining[line])) {
+                continue;
+            }
+            int units = Math.min(available[line], remaining[line]);
+            available[line] -= units;
+            remaining[line] -= units;
+            shipment[line] += units;
+            if (remaining[line] == 0) {
+                completed++;
+            }
+        }
+        return completed;
+    }
+
+    private static boolean better(String warehouseId, int covered, long units,
+                                  String best, int bestCovered, long bestUnits, String preferredWarehouseId) {
+        if (best == null || covered != bestCovered) {
+            return best == null || covered > bestCovered;
+        }
+        boolean preferred = warehouseId.equals(preferredWarehouseId);
+        if (preferred != best.equals(preferredWarehouseId)) {
+            return preferred;
+        }
+        if (units != bestUnits) {
+            return units > bestUnits;
+        }
+        return warehouseId.compareTo(best) < 0;
+    }
+
+    /**
+     * Units per line for each warehouse shipping part of the order, in the order warehouses were opened
+     */
+    public static final class Allocation {
+        private final int lines;
+        private final Map<String, int[]> shipments = new LinkedHashMap<>();
+
+        Allocation(int lines) {
+            this.lines = lines;
+        }
+
+        private int[] open(String warehouseId) {
+            return shipments.computeIfAbsent(warehouseId, id -> new int[lines]);
+        }
+
+        public Map<String, int[]> getShipments() {
+            return shipments;
+        }
+
+        public int getShipmentCount() {
+            return shipments.size();
+        }
+
+        public List<String> getWarehouseIds() {
+            return new ArrayList<>(shipments.keySet());
+        }
+    }
+}
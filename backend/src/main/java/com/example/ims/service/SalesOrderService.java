@@ -1,5 +1,6 @@
 package com.example.ims.service;
 
+import com.example.ims.config.TimeOrderedUuidGenerator;
 import com.example.ims.model.*;
 import com.example.ims.repository.SalesOrderRepository;
 import com.example.ims.repository.WarehouseRepository;
@@ -9,10 +10,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Set;
 
 @Service
 public class SalesOrderService {
@@ -32,6 +36,16 @@ public class SalesOrderService {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private StockGridService stockGridService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Transactional(readOnly = true)
     public List<SalesOrder> getAllSalesOrders() {
         return salesOrderRepository.findAll();
     }
@@ -45,7 +59,94 @@ public class SalesOrderService {
     public SalesOrder createSalesOrder(String warehouseId, String customerName, String customerEmail,
                                      String shippingAddress, String billingAddress, String notes,
                                      List<Map<String, Object>> itemsData) {
-        
+        return createSalesOrder(warehouseId, customerName, customerEmail, shippingAddress, billingAddress,
+                notes, itemsData, null);
+    }
+
+    /**
+     * Split an order across warehouses with as few shipments as stock allows, creating one
+     * sales order per warehouse. The orders share an allocation group id. The allocated cells
+     * are locked and re-checked against the database before any order is written, so a stale
+     * snapshot fails the whole group.
+     *
+     * @param preferredWarehouseId wins ties between equally good warehouses, may be null
+     */
+    @Transactional
+    public List<SalesOrder> createAllocatedSalesOrders(String preferredWarehouseId, String customerName, String customerEmail,
+                                                       String shippingAddress, String billingAddress, String notes,
+                                                       List<Map<String, Object>> itemsData) {
+        if (itemsData == null || itemsData.isEmpty()) {
+            throw new IllegalArgumentException("Order has no items");
+        }
+        String[] productIds = new String[itemsData.size()];
+        int[] quantities = new int[itemsData.size()];
+        Set<String> seen = new HashSet<>();
+        for (int line = 0; line < itemsData.size(); line++) {
+            Map<String, Object> itemData = itemsData.get(line);
+            productIds[line] = (String) itemData.get("productId");
+            Object quantityObj = itemData.get("quantity");
+            quantities[line] = quantityObj instanceof Number
+                    ? ((Number) quantityObj).intValue()
+                    : Integer.parseInt(String.valueOf(quantityObj));
+            if (quantities[line] <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for product: " + productIds[line]);
+            }
+            if (!seen.add(productIds[line])) {
+                throw new IllegalArgumentException("Product appears more than once: " + productIds[line]);
+            }
+        }
+
+        SalesOrderAllocator.Allocation allocation = SalesOrderAllocator.allocate(
+                stockGridService.snapshotFor(seen), productIds, quantities, preferredWarehouseId);
+        verifyAllocation(allocation, productIds, seen);
+
+        String allocationGroupId = TimeOrderedUuidGenerator.nextString();
+        List<SalesOrder> orders = new ArrayList<>();
+        for (Map.Entry<String, int[]> shipment : allocation.getShipments().entrySet()) {
+            List<Map<String, Object>> shipmentItems = new ArrayList<>();
+            int[] units = shipment.getValue();
+            for (int line = 0; line < units.length; line++) {
+                if (units[line] > 0) {
+                    Map<String, Object> itemData = new HashMap<>(itemsData.get(line));
+                    itemData.put("quantity", units[line]);
+                    shipmentItems.add(itemData);
+                }
+            }
+            orders.add(createSalesOrder(shipment.getKey(), customerName, customerEmail, shippingAddress,
+                    billingAddress, notes, shipmentItems, allocationGroupId));
+        }
+        return orders;
+    }
+
+    /**
+     * The snapshot may be the stock grid, which the per-order check also reads, so the
+     * allocation is checked here against locked inventory rows that stay locked until commit
+     */
+    private void verifyAllocation(SalesOrderAllocator.Allocation allocation, String[] productIds, Set<String> products) {
+        Map<String, Integer> available = new HashMap<>();
+        for (Inventory inventory : inventoryRepository.lockCells(products, allocation.getShipments().keySet())) {
+            available.put(inventory.getProduct().getProductId() + ":" + inventory.getWarehouse().getWarehouseId(),
+                    inventory.getQuantityAvailable());
+        }
+        for (Map.Entry<String, int[]> shipment : allocation.getShipments().entrySet()) {
+            int[] units = shipment.getValue();
+            for (int line = 0; line < units.length; line++) {
+                if (units[line] > available.getOrDefault(productIds[line] + ":" + shipment.getKey(), 0)) {
+                    throw new RuntimeException("Insufficient stock for product: " + productIds[line]);
+                }
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<SalesOrder> getSalesOrdersByAllocationGroup(String allocationGroupId) {
+        return salesOrderRepository.findByAllocationGroupId(allocationGroupId);
+    }
+
+    private SalesOrder createSalesOrder(String warehouseId, String customerName, String customerEmail,
+                                        String shippingAddress, String billingAddress, String notes,
+                                        List<Map<String, Object>> itemsData, String allocationGroupId) {
+
         // Validate warehouse exists
         Warehouse warehouse = warehouseRepository.findById(warehouseId)
                 .orElseThrow(() -> new RuntimeException("Warehouse not found"));
@@ -59,6 +160,7 @@ public class SalesOrderService {
         salesOrder.setNotes(notes);
         salesOrder.setStatus(SalesOrderStatus.PENDING);
         salesOrder.setWarehouse(warehouse);
+        salesOrder.setAllocationGroupId(allocationGroupId);
 
         // Create order items
         for (Map<String, Object> itemData : itemsData) {
@@ -71,7 +173,7 @@ public class SalesOrderService {
             
             // Handle number type conversion
             Integer quantity;
-            Double unitPrice;
+            long unitPriceMinor;
             
             if (quantityObj instanceof Number) {
                 quantity = ((Number) quantityObj).intValue();
@@ -80,9 +182,9 @@ public class SalesOrderService {
             }
             
             if (unitPriceObj instanceof Number) {
-                unitPrice = ((Number) unitPriceObj).doubleValue();
+                unitPriceMinor = Money.toMinor((Number) unitPriceObj);
             } else {
-                unitPrice = Double.valueOf(unitPriceObj.toString());
+                unitPriceMinor = Money.parse(unitPriceObj.toString());
             }
             
 
@@ -90,27 +192,33 @@ public class SalesOrderService {
             Product product = productRepository.findById(productId)
                     .orElseThrow(() -> new RuntimeException("Product not found: " + productId));
 
-            // Check stock availability
-            Inventory inventory = inventoryRepository.findByProductAndWarehouse(product, warehouse);
-            if (inventory == null) {
-                throw new RuntimeException("Inventory not found for product: " + productId);
+            // Check stock availability, from the stock grid when it knows the cell
+            int available = stockGridService.getAvailable(productId, warehouseId);
+            if (available < 0) {
+                Inventory inventory = inventoryRepository.findByProductAndWarehouse(product, warehouse);
+                if (inventory == null) {
+                    throw new RuntimeException("Inventory not found for product: " + productId);
+                }
+                available = inventory.getQuantityAvailable();
             }
 
-            if (inventory.getQuantityAvailable() < quantity) {
+            if (available < quantity) {
                 throw new RuntimeException("Insufficient stock for product: " + product.getName());
             }
 
             SalesOrderItem item = new SalesOrderItem();
             item.setProduct(product);
             item.setQuantity(quantity);
-            item.setUnitPrice(unitPrice);
+            item.setUnitPriceMinor(unitPriceMinor);
             item.setNotes(itemNotes);
             item.setSalesOrder(salesOrder);
 
             salesOrder.addItem(item);
         }
 
-        return salesOrderRepository.save(salesOrder);
+        SalesOrder savedOrder = salesOrderRepository.save(salesOrder);
+        outboxService.salesOrderCreated(savedOrder);
+        return savedOrder;
     }
 
     @Transactional
@@ -123,7 +231,16 @@ public class SalesOrderService {
         }
         
         order.setStatus(newStatus);
-        return salesOrderRepository.save(order);
+        SalesOrder savedOrder = salesOrderRepository.save(order);
+
+        // Reserved stock goes back on cancellation and stops expiring once it has left with the order
+        if (newStatus == SalesOrderStatus.CANCELLED) {
+            stockReservationService.releaseForOrder(orderId);
+        } else if (newStatus == SalesOrderStatus.SHIPPED || newStatus == SalesOrderStatus.DELIVERED) {
+            stockReservationService.fulfillForOrder(orderId);
+        }
+        outboxService.salesOrderChanged(savedOrder, "SalesOrderStatusChanged");
+        return savedOrder;
     }
 
     @Transactional
@@ -148,8 +265,8 @@ public class SalesOrderService {
 
             
 
-            // Reserve the stock (decrease available quantity)
-            inventoryService.reserveStock(inventory.getInventoryId(), item.getQuantity());
+            // Reserve the stock (decrease available quantity) until the order ships or is cancelled
+            inventoryService.reserveStockForOrder(inventory.getInventoryId(), item.getQuantity(), order.getOrderId());
             
 
         }
@@ -157,15 +274,20 @@ public class SalesOrderService {
 
     }
 
+    @Transactional
     public void deleteSalesOrder(String id) {
         SalesOrder order = getSalesOrderById(id);
+        stockReservationService.releaseForOrder(id);
         salesOrderRepository.delete(order);
+        outboxService.salesOrderChanged(order, "SalesOrderDeleted");
     }
 
+    @Transactional(readOnly = true)
     public List<SalesOrder> getSalesOrdersByCustomer(String customerEmail) {
         return salesOrderRepository.findByCustomerEmail(customerEmail);
     }
 
+    @Transactional(readOnly = true)
     public List<SalesOrder> getSalesOrdersByStatus(SalesOrderStatus status) {
         return salesOrderRepository.findByStatus(status);
     }
@@ -0,0 +1,309 @@
+package com.example.ims.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Available, reserved and damaged counts for every inventory cell, held in primitive arrays.
+ *
+ * Product and warehouse ids are interned to dense int indexes. Each cell takes three ints
+ * in one shared array; each product keeps a sorted (warehouse index, cell) list, replaced
+ * on write, so a lookup is one map probe and a binary search over the product's warehouses.
+ *
+ * Reads take no lock and never allocate. Writes are serialized; counts are written with
+ * release and read with acquire semantics, so a reader sees each count as of some commit,
+ * though the three counts of a cell may come from consecutive commits.
+ */
+public final class StockGrid {
+    public static final int AVAILABLE = 0;
+    public static final int RESERVED = 1;
+    public static final int DAMAGED = 2;
+
+    private static final int STRIDE = 3;
+    private static final int[] NO_CELLS = new int[0];
+    private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Map<String, Integer> productIndex = new ConcurrentHashMap<>();
+    private final Map<String, Integer> warehouseIndex = new ConcurrentHashMap<>();
+    private final List<String> warehouseIds = new ArrayList<>();
+
+    /** Counts, STRIDE ints per cell; replaced when it grows */
+    private volatile int[] counts;
+    /** Per product: warehouse index and cell pairs, sorted by warehouse index */
+    private volatile int[][] productCells;
+    /** Cells whose inventory row has been deleted; deleted cells are reused on re-creation */
+    private volatile long[] deleted;
+    private volatile String[] warehouseIdArray = new String[0];
+    private int cellCount;
+    private int productCount;
+
+    public StockGrid(int expectedCells, int expectedProducts) {
+        counts = new int[Math.max(16, expectedCells) * STRIDE];
+        productCells = new int[Math.max(16, expectedProducts)][];
+        deleted = new long[(Math.max(16, expectedCells) + 63) / 64];
+    }
+
+    /**
+     * Set a cell's counts, adding the product, warehouse or cell if new
+     */
+    public synchronized void put(String productId, String warehouseId, int available, int reserved, int damaged) {
+        int cell = cellFor(internProduct(productId), internWarehouse(warehouseId));
+        int[] current = counts;
+        int base = cell * STRIDE;
+        COUNTS.setRelease(current, base + AVAILABLE, available);
+        COUNTS.setRelease(current, base + RESERVED, reserved);
+        COUNTS.setRelease(current, base + DAMAGED, damaged);
+        setDeleted(cell, false);
+    }
+
+    /**
+     * Like {@link #put} but leaves a cell that is already present alone
+     *
+     * @return whether the counts were written
+     */
+    public synchronized boolean putIfAbsent(String productId, String warehouseId, int available, int reserved, int damaged) {
+        int cell = find(productId, warehouseId);
+        if (cell >= 0) {
+            return false;
+        }
+        put(productId, warehouseId, available, reserved, damaged);
+        return true;
+    }
+
+    /**
+     * Mark a cell deleted; its product and warehouse stay interned
+     */
+    public synchronized void remove(String productId, String warehouseId) {
+        int cell = find(productId, warehouseId);
+        if (cell < 0) {
+            return;
+        }
+        int[] current = counts;
+        int base = cell * STRIDE;
+        COUNTS.setRelease(current, base + AVAILABLE, 0);
+        COUNTS.setRelease(current, base + RESERVED, 0);
+        COUNTS.setRelease(current, base + DAMAGED, 0);
+        setDeleted(cell, true);
+    }
+
+    /**
+     * @return one count of a cell, or -1 when the grid has no such cell
+     */
+    public int get(String productId, String warehouseId, int field) {
+        int cell = find(productId, warehouseId);
+        return cell < 0 ? -1 : (int) COUNTS.getAcquire(counts, cell * STRIDE + field);
+    }
+
+    /**
+     * Copy a cell's available, reserved and damaged counts into target
+     *
+     * @return false when the grid has no such cell
+     */
+    public boolean read(String productId, String warehouseId, int[] target) {
+        int cell = find(productId, warehouseId);
+        if (cell < 0) {
+            return false;
+        }
+        int[] current = counts;
+        int base = cell * STRIDE;
+        target[AVAILABLE] = (int) COUNTS.getAcquire(current, base + AVAILABLE);
+        target[RESERVED] = (int) COUNTS.getAcquire(current, base + RESERVED);
+        target[DAMAGED] = (int) COUNTS.getAcquire(current, base + DAMAGED);
+        return true;
+    }
+
+    /**
+     * @return available stock of a product summed over its warehouses, or -1 for a product the grid does not know
+     */
+    public long totalAvailable(String productId) {
+        Integer product = productIndex.get(productId);
+        if (product == null) {
+            return -1;
+        }
+        int[] cells = cellsOf(product);
+        int[] current = counts;
+        long total = 0;
+        for (int i = 1; i < cells.length; i += 2) {
+            total += (int) COUNTS.getAcquire(current, cells[i] * STRIDE + AVAILABLE);
+        }
+        return total;
+    }
+
+    /**
+     * Call visitor with every warehouse holding a present cell of the product
+     */
+    public void forEachWarehouse(String productId, CellVisitor visitor) {
+        Integer product = productIndex.get(productId);
+        if (product == null) {
+            return;
+        }
+        int[] cells = cellsOf(product);
+        int[] current = counts;
+        long[] deletedCells = deleted;
+        String[] warehouses = warehouseIdArray;
+        for (int i = 0; i < cells.length; i += 2) {
+            int cell = cells[i + 1];
+            if (!isDeleted(deletedCells, cell)) {
+                int base = cell * STRIDE;
+                visitor.visit(warehouses[cells[i]],
+                    (int) COUNTS.getAcquire(current, base + AVAILABLE),
+                    (int) COUNTS.getAcquire(current, base + RESERVED),
+                    (int) COUNTS.getAcquire(current, base + DAMAGED));
+            }
+        }
+    }
+
+    /**
+     * Call action with every product id the grid has seen
+     */
+    public void forEachProduct(Consumer<String> action) {
+        productIndex.keySet().forEach(action);
+    }
+
+    public int getProductCount() {
+        return productIndex.size();
+    }
+
+    public int getWarehouseCount() {
+        return warehouseIndex.size();
+    }
+
+    public synchronized int getCellCount() {
+        int removed = 0;
+        for (long bits : deleted) {
+            removed += Long.bitCount(bits);
+        }
+        return cellCount - removed;
+    }
+
+    /**
+     * Bytes held by the count arrays and cell lists, excluding the id intern maps
+     */
+    public synchronized long getArrayBytes() {
+        long bytes = (long) counts.length * Integer.BYTES + (long) deleted.length * Long.BYTES
+            + (long) productCells.length * 8;
+        int[][] lists = productCells;
+        for (int product = 0; product < productCount; product++) {
+            if (lists[product] != null) {
+                bytes += 16 + (long) lists[product].length * Integer.BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    private int find(String productId, String warehouseId) {
+        Integer product = productIndex.get(productId);
+        Integer warehouse = warehouseIndex.get(warehouseId);
+        if (product == null || warehouse == null) {
+            return -1;
+        }
+        int cell = search(cellsOf(product), warehouse);
+        return cell < 0 || isDeleted(deleted, cell) ? -1 : cell;
+    }
+
+    private int[] cellsOf(int product) {
+        int[][] lists = productCells;
+        int[] cells = product < lists.length ? lists[product] : null;
+        return cells == null ? NO_CELLS : cells;
+    }
+
+    /**
+     * @return the cell stored for the warehouse index, or -1
+     */
+    private static int search(int[] cells, int warehouse) {
+        int low = 0;
+        int high = cells.length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int candidate = cells[mid * 2];
+            if (candidate < warehouse) {
+                low = mid + 1;
+            } else if (candidate > warehouse) {
+                high = mid - 1;
+            } else {
+                return cells[mid * 2 + 1];
+            }
+        }
+        return -1;
+    }
+
+    private int internProduct(String productId) {
+        Integer product = productIndex.get(productId);
+        if (product != null) {
+            return product;
+        }
+        if (productCount == productCells.length) {
+            productCells = Arrays.copyOf(productCells, productCount * 2);
+        }
+        // The list slot exists before the id becomes visible to readers
+        productIndex.put(productId, productCount);
+        return productCount++;
+    }
+
+    private int internWarehouse(String warehouseId) {
+        Integer warehouse = warehouseIndex.get(warehouseId);
+        if (warehouse != null) {
+            return warehouse;
+        }
+        warehouseIds.add(warehouseId);
+        warehouseIdArray = warehouseIds.toArray(new String[0]);
+        warehouseIndex.put(warehouseId, warehouseIds.size() - 1);
+        return warehouseIds.size() - 1;
+    }
+
+    private int cellFor(int product, int warehouse) {
+        int[] cells = cellsOf(product);
+        int existing = search(cells, warehouse);
+        if (existing >= 0) {
+            return existing;
+        }
+
+        int cell = cellCount++;
+        if (cell * STRIDE == counts.length) {
+            counts = Arrays.copyOf(counts, counts.length * 2);
+        }
+        if (cell / 64 == deleted.length) {
+            deleted = Arrays.copyOf(deleted, deleted.length * 2);
+        }
+
+        int position = 0;
+        while (position < cells.length && cells[position] < warehouse) {
+            position += 2;
+        }
+        int[] grown = new int[cells.length + 2];
+        System.arraycopy(cells, 0, grown, 0, position);
+        grown[position] = warehouse;
+        grown[position + 1] = cell;
+        System.arraycopy(cells, position, grown, position + 2, cells.length - position);
+        int[][] lists = productCells;
+        lists[product] = grown;
+        // Republishing the outer array makes the new list visible to readers
+        productCells = lists;
+        return cell;
+    }
+
+    private void setDeleted(int cell, boolean value) {
+        long[] bits = deleted;
+        if (value) {
+            bits[cell >>> 6] |= 1L << cell;
+        } else {
+            bits[cell >>> 6] &= ~(1L << cell);
+        }
+        deleted = bits;
+    }
+
+    private static boolean isDeleted(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    @FunctionalInterface
+    public interface CellVisitor {
+        void visit(String warehouseId, int available, int reserved, int damaged);
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.ims.service;
+
+import com.example.ims.dto.LiveUpdateEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serves availability reads from an in-memory {@link StockGrid} instead of the database.
+ *
+ * The grid is loaded when the application starts and updated after each inventory change
+ * commits, from the row as committed rather than the event's counts: listeners of two
+ * commits to one cell may run in either order, so each re-reads the cell under that cell's
+ * lock and the last one to run always sees the latest commit. Changes made by other instances or with SQL do not reach it, so a scheduled
+ * consistency check compares it with the inventory table and repairs drifted cells.
+ * Until the first load completes, and when app.stock-grid.enabled is false, callers
+ * read from the database as before.
+ */
+@Service
+public class StockGridService {
+    private static final String SELECT_CELLS =
+        "SELECT product_id, warehouse_id, quantity_available, quantity_reserved, quantity_damaged FROM inventory";
+    private static final String SELECT_CELL = SELECT_CELLS + " WHERE product_id = ? AND warehouse_id = ?";
+    private static final int CELL_LOCK_STRIPES = 256;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.stock-grid.enabled:false}")
+    private boolean enabled;
+
+    private volatile StockGrid grid;
+    private volatile boolean ready;
+    private volatile long loadedAt;
+    private Counter repairedCounter;
+    private final Object[] cellLocks = new Object[CELL_LOCK_STRIPES];
+
+    public StockGridService() {
+        Arrays.setAll(cellLocks, stripe -> new Object());
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        repairedCounter = Counter.builder("ims.stock-grid.repaired")
+            .description("Stock grid cells corrected by the consistency check")
+            .register(meterRegistry);
+        Gauge.builder("ims.stock-grid.cells", this, service -> service.ready ? service.grid.getCellCount() : 0)
+            .description("Inventory cells held in the stock grid")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            System.err.println("Failed to load stock grid, availability reads use the database: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the grid from the inventory table and switch reads over to it.
+     * Changes committing during the scan are applied to the new grid as they arrive and are
+     * not overwritten by the rows the scan read earlier.
+     */
+    public synchronized Map<String, Object> reload() {
+        if (!enabled) {
+            throw new IllegalStateException("The stock grid is disabled");
+        }
+        long start = System.currentTimeMillis();
+        Integer cellEstimate = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventory", Integer.class);
+        StockGrid loading = new StockGrid(cellEstimate == null ? 0 : cellEstimate, (cellEstimate == null ? 0 : cellEstimate) / 2);
+
+        StockGrid previous = grid;
+        boolean wasReady = ready;
+        grid = loading;
+        ready = false;
+        try {
+            jdbcTemplate.query(SELECT_CELLS, rs -> {
+                loading.putIfAbsent(rs.getString(1), rs.getString(2), rs.getInt(3), rs.getInt(4), rs.getInt(5));
+            });
+        } catch (RuntimeException e) {
+            grid = previous;
+            ready = wasReady;
+            throw e;
+        }
+        ready = true;
+        loadedAt = System.currentTimeMillis();
+
+        Map<String, Object> result = getStatistics();
+        result.put("loadMs", loadedAt - start);
+        return result;
+    }
+
+    /**
+     * Apply a committed stock change; changes rolled back never arrive here
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChange(LiveUpdateEvent event) {
+        StockGrid current = grid;
+        if (current == null || !LiveUpdateEvent.TOPIC_STOCK.equals(event.getTopic())) {
+            return;
+        }
+        String productId = (String) event.getData().get("productId");
+        synchronized (cellLock(productId, event.getWarehouseId())) {
+            int[] inDatabase = readCell(productId, event.getWarehouseId());
+            if (inDatabase == null) {
+                current.remove(productId, event.getWarehouseId());
+            } else {
+                current.put(productId, event.getWarehouseId(), inDatabase[StockGrid.AVAILABLE],
+                    inDatabase[StockGrid.RESERVED], inDatabase[StockGrid.DAMAGED]);
+            }
+        }
+    }
+
+    /**
+     * @return whether availability reads are served from memory
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return available stock of the product in the warehouse, or -1 when the grid cannot answer
+     */
+    public int getAvailable(String productId, String warehouseId) {
+        return ready ? grid.get(productId, warehouseId, StockGrid.AVAILABLE) : -1;
+    }
+
+    /**
+     * @return available, reserved and damaged counts, or null when the grid cannot answer
+     */
+    public int[] getCounts(String productId, String warehouseId) {
+        if (!ready) {
+            return null;
+        }
+        int[] counts = new int[3];
+        return grid.read(productId, warehouseId, counts) ? counts : null;
+    }
+
+    /**
+     * @return available stock over all warehouses, or -1 when the grid cannot answer
+     */
+    public long getTotalAvailable(String productId) {
+        return ready ? grid.totalAvailable(productId) : -1;
+    }
+
+    /**
+     * The grid itself, for callers iterating a product's warehouses; null until loaded
+     */
+    public StockGrid getGrid() {
+        return ready ? grid : null;
+    }
+
+    /**
+     * Availability of the given products: the loaded grid itself, or otherwise a small grid
+     * read from the inventory table for just these products
+     */
+    public StockGrid snapshotFor(Collection<String> productIds) {
+        if (ready) {
+            return grid;
+        }
+        StockGrid snapshot = new StockGrid(productIds.size() * 4, productIds.size());
+        if (productIds.isEmpty()) {
+            return snapshot;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(productIds.size(), "?"));
+        jdbcTemplate.query(SELECT_CELLS + " WHERE product_id IN (" + placeholders + ")", rs -> {
+            snapshot.put(rs.getString(1), rs.getString(2), rs.getInt(3), rs.getInt(4), rs.getInt(5));
+        }, productIds.toArray());
+        return snapshot;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        if (ready) {
+            StockGrid current = grid;
+            stats.put("cells", current.getCellCount());
+            stats.put("products", current.getProductCount());
+            stats.put("warehouses", current.getWarehouseCount());
+            stats.put("arrayBytes", current.getArrayBytes());
+            stats.put("loadedAt", loadedAt);
+        }
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock-grid.check-interval-ms:300000}",
+               initialDelayString = "${app.stock-grid.check-interval-ms:300000}")
+    public void scheduledCheck() {
+        if (!ready) {
+            return;
+        }
+        try {
+            Map<String, Object> result = check(true);
+            int mismatches = (Integer) result.get("mismatches");
+            if (mismatches > 0) {
+                System.err.println("Stock grid repaired " + mismatches + " drifted cells");
+            }
+        } catch (Exception e) {
+            System.err.println("Stock grid consistency check failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compare every cell with the inventory table. Cells that differ from the scan are read
+     * again on their own before counting as drifted, so changes committing while the scan
+     * runs are not reported or "repaired" back to the value the scan saw.
+     *
+     * @param repair overwrite drifted cells with the database values and drop cells whose row is gone
+     */
+    public synchronized Map<String, Object> check(boolean repair) {
+        if (!ready) {
+            throw new IllegalStateException("The stock grid is not loaded");
+        }
+        StockGrid current = grid;
+        Set<String> seen = new HashSet<>();
+        List<String[]> suspects = new ArrayList<>();
+        int[] rows = {0};
+        int[] counts = new int[3];
+
+        jdbcTemplate.query(SELECT_CELLS, rs -> {
+            String productId = rs.getString(1);
+            String warehouseId = rs.getString(2);
+            rows[0]++;
+            seen.add(productId + "|" + warehouseId);
+            if (!current.read(productId, warehouseId, counts) || counts[StockGrid.AVAILABLE] != rs.getInt(3)
+                    || counts[StockGrid.RESERVED] != rs.getInt(4) || counts[StockGrid.DAMAGED] != rs.getInt(5)) {
+                suspects.add(new String[] {productId, warehouseId});
+            }
+        });
+        // Cells still in the grid whose rows were deleted without an event
+        current.forEachProduct(productId -> current.forEachWarehouse(productId, (warehouseId, available, reserved, damaged) -> {
+            if (!seen.contains(productId + "|" + warehouseId)) {
+                suspects.add(new String[] {productId, warehouseId});
+            }
+        }));
+
+        List<Map<String, Object>> samples = new ArrayList<>();
+        int mismatches = 0;
+        for (String[] cell : suspects) {
+            synchronized (cellLock(cell[0], cell[1])) {
+                int[] inDatabase = readCell(cell[0], cell[1]);
+                int[] inGrid = current.read(cell[0], cell[1], counts) ? counts.clone() : null;
+                if (Arrays.equals(inDatabase, inGrid)) {
+                    continue;
+                }
+                mismatches++;
+                addSample(samples, cell[0], cell[1], inGrid, inDatabase);
+                if (!repair) {
+                    continue;
+                }
+                if (inDatabase == null) {
+                    current.remove(cell[0], cell[1]);
+                } else {
+                    current.put(cell[0], cell[1], inDatabase[StockGrid.AVAILABLE],
+                        inDatabase[StockGrid.RESERVED], inDatabase[StockGrid.DAMAGED]);
+                }
+            }
+        }
+        if (repair && repairedCounter != null) {
+            repairedCounter.increment(mismatches);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rows", rows[0]);
+        result.put("cells", current.getCellCount());
+        result.put("mismatches", mismatches);
+        result.put("repaired", repair ? mismatches : 0);
+        result.put("samples", samples);
+        return result;
+    }
+
+    /**
+     * @return committed available, reserved and damaged counts of the cell, or null when its row is gone
+     */
+    private int[] readCell(String productId, String warehouseId) {
+        List<int[]> rows = jdbcTemplate.query(SELECT_CELL,
+            (rs, rowNum) -> new int[] {rs.getInt(3), rs.getInt(4), rs.getInt(5)}, productId, warehouseId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private Object cellLock(String productId, String warehouseId) {
+        return cellLocks[Math.floorMod(31 * productId.hashCode() + warehouseId.hashCode(), CELL_LOCK_STRIPES)];
+    }
+
+    private void addSample(List<Map<String, Object>> samples, String productId, String warehouseId,
+                           int[] inGrid, int[] inDatabase) {
+        if (samples.size() >= 20) {
+            return;
+        }
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("productId", productId);
+        sample.put("warehouseId", warehouseId);
+        sample.put("grid", inGrid);
+        sample.put("database", inDatabase);
+        samples.add(sample);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.ims.service;
+
+import com.example.ims.model.Inventory;
+import com.example.ims.model.StockLot;
+import com.example.ims.repository.StockLotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class StockLotService {
+    private static final int RESTORE_PAGE_SIZE = 20;
+
+    @Autowired
+    private StockLotRepository stockLotRepository;
+
+    /**
+     * Record stock entering available quantity as a new FIFO layer
+     */
+    @Transactional
+    public StockLot recordReceipt(Inventory inventory, int quantity, Long unitCostMinor, String purchaseOrderId) {
+        if (quantity <= 0) {
+            return null;
+        }
+
+        StockLot lot = new StockLot();
+        lot.setProduct(inventory.getProduct());
+        lot.setWarehouse(inventory.getWarehouse());
+        lot.setPurchaseOrderId(purchaseOrderId);
+        lot.setQuantityReceived(quantity);
+        lot.setQuantityRemaining(quantity);
+        lot.setUnitCostMinor(unitCostMinor);
+
+        return stockLotRepository.save(lot);
+    }
+
+    /**
+     * Drain stock leaving available quantity from the oldest layers first.
+     * Any shortfall (stock that predates lot tracking) is ignored.
+     */
+    @Transactional
+    public void consume(Inventory inventory, int quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+
+        List<StockLot> openLots = stockLotRepository
+            .findByProductAndWarehouseAndQuantityRemainingGreaterThanOrderByReceivedAtAsc(
+                inventory.getProduct(), inventory.getWarehouse(), 0);
+
+        int remaining = quantity;
+        for (StockLot lot : openLots) {
+            if (remaining == 0) {
+                break;
+            }
+            int taken = Math.min(remaining, lot.getQuantityRemaining());
+            lot.setQuantityRemaining(lot.getQuantityRemaining() - taken);
+            remaining -= taken;
+        }
+
+        stockLotRepository.saveAll(openLots);
+    }
+
+    /**
+     * Return stock to available quantity in the layers it was drained from, so stock that was
+     * reserved and then released keeps its age. Consumption drains the oldest layers first, so
+     * the most recently drained room is in the newest drained layers, which are refilled first.
+     * Any excess (stock that predates lot tracking) is ignored, as in consume.
+     */
+    @Transactional
+    public void restore(Inventory inventory, int quantity) {
+        int remaining = quantity;
+        while (remaining > 0) {
+            // Layers refilled by the previous page are flushed and no longer match
+            List<StockLot> drained = stockLotRepository.findDrainedLots(
+                inventory.getProduct(), inventory.getWarehouse(), PageRequest.of(0, RESTORE_PAGE_SIZE));
+            if (drained.isEmpty()) {
+                return;
+            }
+            for (StockLot lot : drained) {
+                if (remaining == 0) {
+                    break;
+                }
+                int returned = Math.min(remaining, lot.getQuantityReceived() - lot.getQuantityRemaining());
+                lot.setQuantityRemaining(lot.getQuantityRemaining() + returned);
+                remaining -= returned;
+            }
+            stockLotRepository.saveAll(drained);
+        }
+    }
+
+    /**
+     * Apply a change in available quantity: increases open a new layer, decreases drain FIFO
+     */
+    @Transactional
+    public void adjust(Inventory inventory, int delta) {
+        if (delta > 0) {
+            recordReceipt(inventory, delta, inventory.getProduct().getCostPriceMinor(), null);
+        } else if (delta < 0) {
+            consume(inventory, -delta);
+        }
+    }
+}
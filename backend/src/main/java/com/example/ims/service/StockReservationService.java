@@ -0,0 +1,316 @@
+package com.example.ims.service;
+
+import com.example.ims.config.TimingWheel;
+import com.example.ims.dto.LiveUpdateEvent;
+import com.example.ims.model.Inventory;
+import com.example.ims.model.ReservationStatus;
+import com.example.ims.model.StockReservation;
+import com.example.ims.repository.InventoryRepository;
+import com.example.ims.repository.StockReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records each stock reservation and returns expired reservations to available stock.
+ * Direct reservations expire; stock held for a confirmed order does not, and is only
+ * released, or fulfilled, with the order.
+ *
+ * Expiry times are held in a {@link TimingWheel}, rebuilt from the table at startup, so
+ * nothing polls the table while reservations are merely waiting. Due reservations are
+ * released batch-size at a time, one transaction per batch: the reservations and their
+ * inventory rows are locked, counts moved back per inventory cell, and the reservations
+ * closed. A slower sweep of the table catches reservations created on other instances.
+ */
+@Service
+public class StockReservationService {
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockLotService stockLotService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.reservations.ttl-minutes:1440}")
+    private long defaultTtlMinutes;
+
+    @Value("${app.reservations.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${app.reservations.wheel-buckets:512}")
+    private int wheelBuckets;
+
+    @Value("${app.reservations.batch-size:1000}")
+    private int batchSize;
+
+    private TimingWheel<String> wheel;
+    private Counter expiredCounter;
+
+    @PostConstruct
+    public void init() {
+        wheel = new TimingWheel<>(tickMs, wheelBuckets, System.currentTimeMillis());
+        expiredCounter = Counter.builder("ims.reservations.expired")
+            .description("Reservations returned to available stock on expiry")
+            .register(meterRegistry);
+        Gauge.builder("ims.reservations.scheduled", this, service -> service.wheel.size())
+            .description("Reservation expiries waiting in the timing wheel")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Put every active reservation back on the wheel; ones that expired while the application was down fire on the next tick
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        try {
+            int[] recovered = {0};
+            jdbcTemplate.query("SELECT reservation_id, expires_at FROM stock_reservations " +
+                "WHERE status = 'ACTIVE' AND expires_at IS NOT NULL", rs -> {
+                wheel.schedule(rs.getString(1), rs.getTimestamp(2).getTime());
+                recovered[0]++;
+            });
+            if (recovered[0] > 0) {
+                System.out.println("Scheduled expiry of " + recovered[0] + " active stock reservations");
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to recover stock reservations, the sweep will release them: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Record stock just moved to reserved; called inside the transaction that reserved it
+     *
+     * @param ttlMinutes minutes until the reservation expires, or null for app.reservations.ttl-minutes
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public StockReservation recordReservation(Inventory inventory, int quantity, String salesOrderId, Integer ttlMinutes) {
+        long ttl = ttlMinutes == null ? defaultTtlMinutes : ttlMinutes;
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("Reservation time-to-live must be positive");
+        }
+        return record(inventory, quantity, salesOrderId, new Date(System.currentTimeMillis() + ttl * 60_000));
+    }
+
+    /**
+     * Record stock just moved to reserved for a confirmed order. It never expires: shipping,
+     * cancelling or deleting the order closes it, so the order cannot lose stock it still owes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public StockReservation recordOrderReservation(Inventory inventory, int quantity, String salesOrderId) {
+        return record(inventory, quantity, salesOrderId, null);
+    }
+
+    private StockReservation record(Inventory inventory, int quantity, String salesOrderId, Date expiresAt) {
+        StockReservation reservation = new StockReservation();
+        reservation.setInventory(inventory);
+        reservation.setQuantity(quantity);
+        reservation.setSalesOrderId(salesOrderId);
+        reservation.setStatus(ReservationStatus.ACTIVE);
+        reservation.setExpiresAt(expiresAt);
+        StockReservation saved = reservationRepository.save(reservation);
+        if (expiresAt == null) {
+            return saved;
+        }
+
+        // Scheduled only once committed, so the expiry never looks for a row it cannot see yet
+        String reservationId = saved.getReservationId();
+        long deadline = saved.getExpiresAt().getTime();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wheel.schedule(reservationId, deadline);
+            }
+        });
+        return saved;
+    }
+
+    /**
+     * Close active reservations of a cell, soonest-expiring first and order holds last, after
+     * quantity was released by hand.
+     * A reservation released in part keeps the rest of its quantity and its expiry.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void closeReleased(String inventoryId, int quantity) {
+        int remaining = quantity;
+        Date now = new Date();
+        for (StockReservation reservation : reservationRepository.lockActiveForInventory(inventoryId)) {
+            if (remaining == 0) {
+                break;
+            }
+            if (reservation.getQuantity() <= remaining) {
+                remaining -= reservation.getQuantity();
+                reservation.setStatus(ReservationStatus.RELEASED);
+                reservation.setClosedAt(now);
+            } else {
+                reservation.setQuantity(reservation.getQuantity() - remaining);
+                remaining = 0;
+            }
+        }
+    }
+
+    /**
+     * Return an order's reserved stock, e.g. when it is cancelled or deleted
+     *
+     * @return number of reservations released
+     */
+    @Transactional
+    public int releaseForOrder(String salesOrderId) {
+        return release(reservationRepository.lockActiveForOrder(salesOrderId), ReservationStatus.RELEASED);
+    }
+
+    /**
+     * Keep an order's reservations from expiring once the stock has left with the order
+     */
+    @Transactional
+    public void fulfillForOrder(String salesOrderId) {
+        List<Object[]> reservations = reservationRepository.lockActiveForOrder(salesOrderId);
+        if (!reservations.isEmpty()) {
+            reservationRepository.close(reservationIds(reservations), ReservationStatus.FULFILLED, new Date());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockReservation> getReservationsForOrder(String salesOrderId) {
+        return reservationRepository.findBySalesOrderId(salesOrderId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservations.tick-ms:1000}")
+    public void expireDue() {
+        try {
+            List<String> due = wheel.advance(System.currentTimeMillis());
+            for (int from = 0; from < due.size(); from += batchSize) {
+                List<String> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+                transactionTemplate.execute(status -> releaseExpired(batch));
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to release expired reservations, the sweep will retry: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Release every reservation past its expiry straight from the table, batch-size per transaction.
+     * Catches reservations made on other instances and any batch that failed on the wheel.
+     *
+     * @return number of reservations released
+     */
+    @Scheduled(fixedDelayString = "${app.reservations.sweep-interval-ms:300000}",
+               initialDelayString = "${app.reservations.sweep-interval-ms:300000}")
+    public int sweepExpired() {
+        int total = 0;
+        try {
+            while (true) {
+                Integer released = transactionTemplate.execute(status -> releaseExpired(
+                    reservationRepository.findExpiredIds(new Date(), PageRequest.of(0, batchSize))));
+                total += released;
+                if (released < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to sweep expired reservations: " + e.getMessage());
+        }
+        return total;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", reservationRepository.countByStatus(ReservationStatus.ACTIVE));
+        stats.put("scheduled", wheel.size());
+        stats.put("expired", (long) expiredCounter.count());
+        return stats;
+    }
+
+    private int releaseExpired(List<String> reservationIds) {
+        if (reservationIds.isEmpty()) {
+            return 0;
+        }
+        // Reservations closed or released since they were scheduled drop out here
+        int released = release(reservationRepository.lockActiveExpired(reservationIds, new Date()), ReservationStatus.EXPIRED);
+        expiredCounter.increment(released);
+        return released;
+    }
+
+    /**
+     * Move locked reservations' quantity from reserved back to available, one update per inventory
+     * cell, and close them. A reserved count adjusted by hand in the meantime is not taken below zero.
+     *
+     * @param reservations rows of [reservationId, inventoryId, quantity]
+     */
+    private int release(List<Object[]> reservations, ReservationStatus closedAs) {
+        if (reservations.isEmpty()) {
+            return 0;
+        }
+        Map<String, Integer> quantities = new TreeMap<>();
+        for (Object[] reservation : reservations) {
+            quantities.merge((String) reservation[1], ((Number) reservation[2]).intValue(), Integer::sum);
+        }
+
+        List<Inventory> inventories = inventoryRepository.lockAllById(quantities.keySet());
+
+        List<Inventory> changed = new ArrayList<>(inventories.size());
+        for (Inventory inventory : inventories) {
+            int quantity = Math.min(quantities.get(inventory.getInventoryId()), inventory.getQuantityReserved());
+            if (quantity <= 0) {
+                continue;
+            }
+            inventory.setQuantityReserved(inventory.getQuantityReserved() - quantity);
+            inventory.setQuantityAvailable(inventory.getQuantityAvailable() + quantity);
+            // Back into the lots it was reserved from, so expiry does not re-age the stock
+            stockLotService.restore(inventory, quantity);
+            changed.add(inventory);
+        }
+        inventoryRepository.saveAll(changed);
+        for (Inventory inventory : changed) {
+            eventPublisher.publishEvent(LiveUpdateEvent.stock(inventory));
+        }
+
+        // One statement for the batch rather than an entity update per reservation
+        reservationRepository.close(reservationIds(reservations), closedAs, new Date());
+        return reservations.size();
+    }
+
+    private static List<String> reservationIds(List<Object[]> reservations) {
+        List<String> ids = new ArrayList<>(reservations.size());
+        for (Object[] reservation : reservations) {
+            ids.add((String) reservation[0]);
+        }
+        return ids;
+    }
+}
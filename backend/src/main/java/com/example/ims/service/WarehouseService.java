@@ -6,6 +6,7 @@ import com.example.ims.repository.WarehouseRepository;
 import com.example.ims.repository.InventoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -17,6 +18,7 @@ public class WarehouseService {
     @Autowired
     private InventoryRepository inventoryRepository;
 
+    @Transactional(readOnly = true)
     public List<Warehouse> getAllWarehouses() {
         return warehouseRepository.findAll();
     }